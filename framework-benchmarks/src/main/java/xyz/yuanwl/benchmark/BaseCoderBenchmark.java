@@ -0,0 +1,183 @@
+package xyz.yuanwl.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.DecoderException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.yuanwl.util.coder.BaseCoder;
+
+/**
+ * <p>{@link BaseCoder} 各公开方法的基准测试，payloadSize 是原始数据的字节数
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 22:00
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BaseCoderBenchmark {
+
+	@Param({ "16", "1024", "65536" })
+	public int payloadSize;
+
+	private byte[] data;
+	private String text;
+	private String hex;
+	private String base64;
+	private String base64Sun;
+	private String macKey;
+	private String url;
+	private String encodedUrl;
+	private File file;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		Random random = new Random(payloadSize);
+		data = new byte[payloadSize];
+		random.nextBytes(data);
+		StringBuilder sb = new StringBuilder(payloadSize);
+		for (int i = 0; i < payloadSize; i++) {
+			sb.append((char) ('a' + random.nextInt(26)));
+		}
+		text = sb.toString();
+		hex = BaseCoder.bytesToHex(data);
+		base64 = BaseCoder.encryptBase64(data);
+		base64Sun = BaseCoder.encryptBase64Sun(data);
+		macKey = BaseCoder.initMacKey();
+		url = "https://yuanwl.xyz/search?q=" + text + "&name=验证码 & 签名";
+		encodedUrl = BaseCoder.encodeURL(url);
+		file = File.createTempFile("base-coder-benchmark", ".bin");
+		Files.write(file.toPath(), data);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file.toPath());
+	}
+
+	@Benchmark
+	public String bytesToHex() {
+		return BaseCoder.bytesToHex(data);
+	}
+
+	@Benchmark
+	public byte[] hexToBytes() throws DecoderException {
+		return BaseCoder.hexToBytes(hex);
+	}
+
+	@Benchmark
+	public String encryptBase64() {
+		return BaseCoder.encryptBase64(data);
+	}
+
+	@Benchmark
+	public byte[] decryptBase64() {
+		return BaseCoder.decryptBase64(base64);
+	}
+
+	@Benchmark
+	public String encryptBase64Sun() {
+		return BaseCoder.encryptBase64Sun(data);
+	}
+
+	@Benchmark
+	public byte[] decryptBase64Sun() throws IOException {
+		return BaseCoder.decryptBase64Sun(base64Sun);
+	}
+
+	@Benchmark
+	public byte[] encryptMD5Bytes() throws Exception {
+		return BaseCoder.encryptMD5(data);
+	}
+
+	@Benchmark
+	public String encryptMD5String() {
+		return BaseCoder.encryptMD5(text);
+	}
+
+	@Benchmark
+	public String encryptMD5Stream() throws IOException {
+		return BaseCoder.encryptMD5(new ByteArrayInputStream(data));
+	}
+
+	@Benchmark
+	public String encryptMD5File() throws IOException {
+		return BaseCoder.encryptMD5(file);
+	}
+
+	@Benchmark
+	public String encryptTriMD5() {
+		return BaseCoder.encryptTriMD5(text);
+	}
+
+	@Benchmark
+	public byte[] encryptSHABytes() throws Exception {
+		return BaseCoder.encryptSHA(data);
+	}
+
+	@Benchmark
+	public String encryptSHAString() {
+		return BaseCoder.encryptSHA(text);
+	}
+
+	@Benchmark
+	public String encryptSHAStream() throws IOException {
+		return BaseCoder.encryptSHA(new ByteArrayInputStream(data));
+	}
+
+	@Benchmark
+	public String encryptSHAFile() throws IOException {
+		return BaseCoder.encryptSHA(file);
+	}
+
+	@Benchmark
+	public String initMacKey() throws Exception {
+		return BaseCoder.initMacKey();
+	}
+
+	@Benchmark
+	public byte[] encryptHMAC() throws Exception {
+		return BaseCoder.encryptHMAC(data, macKey);
+	}
+
+	@Benchmark
+	public String encodeURL() {
+		return BaseCoder.encodeURL(url);
+	}
+
+	@Benchmark
+	public String decodeURL() {
+		return BaseCoder.decodeURL(encodedUrl);
+	}
+
+	@Benchmark
+	public String createRandom() {
+		return BaseCoder.createRandom(6);
+	}
+
+	@Benchmark
+	public String createUUID() {
+		return BaseCoder.createUUID();
+	}
+}
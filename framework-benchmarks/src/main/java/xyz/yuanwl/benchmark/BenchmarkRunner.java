@@ -0,0 +1,75 @@
+package xyz.yuanwl.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>基准测试入口，打包后 java -jar target/benchmarks.jar 运行。
+ * <p>
+ * 每个线程数各跑一轮，每轮的结果写成一个 JSON 文件（jmh-t线程数.json），升级框架前后各跑一次，对比这些文件就知道哪里变快、变慢了。
+ * 每个测试同时报吞吐量、延迟分布，并带上 GC 分析器统计每次操作分配的内存。
+ * <p>
+ * 参数：
+ * <ul>
+ * <li>-t 1,4,8：线程数，逗号分隔，默认 1 和 CPU 核数；</li>
+ * <li>-o 目录：结果输出目录，默认 target/jmh；</li>
+ * <li>其余参数：要跑的测试类或方法的正则，如 RSACoderBenchmark，不传跑全部。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 21:50
+ */
+@Slf4j
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException {
+		List<Integer> threads = new ArrayList<>();
+		String outputDir = "target/jmh";
+		List<String> includes = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			if ("-t".equals(args[i]) && i + 1 < args.length) {
+				for (String t : args[++i].split(",")) {
+					threads.add(Integer.parseInt(t.trim()));
+				}
+			} else if ("-o".equals(args[i]) && i + 1 < args.length) {
+				outputDir = args[++i];
+			} else {
+				includes.add(args[i]);
+			}
+		}
+		if (threads.isEmpty()) {
+			threads.add(1);
+			int cores = Runtime.getRuntime().availableProcessors();
+			if (cores > 1) {
+				threads.add(cores);
+			}
+		}
+		new File(outputDir).mkdirs();
+
+		for (int t : threads) {
+			String result = new File(outputDir, "jmh-t" + t + ".json").getPath();
+			ChainedOptionsBuilder options = new OptionsBuilder()
+					.threads(t)
+					.addProfiler(GCProfiler.class)
+					.resultFormat(ResultFormatType.JSON)
+					.result(result);
+			if (includes.isEmpty()) {
+				options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+			} else {
+				includes.forEach(options::include);
+			}
+			new Runner(options.build()).run();
+			log.info("{} 线程的结果已写到 {}", t, result);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package xyz.yuanwl.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.yuanwl.util.coder.CaptchaEncoder;
+import xyz.yuanwl.util.coder.CaptchaEncoder.Format;
+import xyz.yuanwl.util.coder.VerificationCoder;
+
+/**
+ * <p>{@link CaptchaEncoder} 各格式的编码耗时，和原来每次 ImageIO.write JPEG 对比。编码后的字节数在 Setup 里写到日志（target/jmh/benchmark.log）。
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 02:40
+ */
+@Slf4j
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class CaptchaEncoderBenchmark {
+
+	@Param({ "JPEG", "PNG", "GIF" })
+	public String format;
+
+	private BufferedImage image;
+	private Format encoderFormat;
+
+	@Setup
+	public void setup() throws IOException {
+		image = VerificationCoder.generateImageCode("a3Kx", 90, 30);
+		encoderFormat = Format.of(format);
+		log.info("{} 编码后 {} 字节", format, CaptchaEncoder.encode(image, encoderFormat).length);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return CaptchaEncoder.encode(image, encoderFormat);
+	}
+
+	/** 原来的写法：每次查找 ImageWriter、新建缓冲区 */
+	@Benchmark
+	public byte[] imageIoWrite() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, format, out);
+		return out.toByteArray();
+	}
+}
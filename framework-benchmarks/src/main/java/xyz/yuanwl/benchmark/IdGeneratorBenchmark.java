@@ -0,0 +1,61 @@
+package xyz.yuanwl.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.yuanwl.util.id.IdGenerator;
+
+/**
+ * <p>{@link IdGenerator} 和原来 UUID.randomUUID() + replaceAll + toUpperCase 的对比，4个线程同时取号
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 05:40
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+	private final IdGenerator generator = new IdGenerator(1, IdGenerator.DEFAULT_NODE_BITS);
+
+	@State(Scope.Thread)
+	public static class Buffer {
+		final char[] chars = new char[32];
+	}
+
+	@Benchmark
+	public long nextId() {
+		return generator.nextId();
+	}
+
+	@Benchmark
+	public String nextUuidHex() {
+		return generator.nextUuidHex();
+	}
+
+	@Benchmark
+	public char[] nextUuidHexIntoBuffer(Buffer buffer) {
+		return generator.nextUuidHex(buffer.chars, 0, true);
+	}
+
+	/** 原来的 BaseCoder.createUUID */
+	@Benchmark
+	public String randomUuid() {
+		return UUID.randomUUID().toString().replaceAll("-", "").toUpperCase();
+	}
+}
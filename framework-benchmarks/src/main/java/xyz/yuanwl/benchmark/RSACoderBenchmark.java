@@ -0,0 +1,112 @@
+package xyz.yuanwl.benchmark;
+
+import java.security.KeyPair;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.yuanwl.util.coder.AESCoder;
+import xyz.yuanwl.util.coder.RSACoder;
+
+/**
+ * <p>{@link RSACoder} 各公开方法的基准测试，用内置的默认密钥。
+ * <p>
+ * payloadSize 是明文字符数（都是 ASCII）。1024 位密钥 PKCS1 填充一次最多加密 117 字节，所以最大只测到 117；
+ * 会话密钥（AES-GCM）加密解密没有这个限制。generateKeyPair 只打日志，这里测的是它背后的 takeKeyPair。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 22:10
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RSACoderBenchmark {
+
+	@Param({ "16", "64", "117" })
+	public int payloadSize;
+
+	private String text;
+	private String encodedByPubKey;
+	private String encodedByPriKey;
+	private SecretKey sessionKey;
+	private String wrappedSessionKey;
+	private String encodedBySessionKey;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		Random random = new Random(payloadSize);
+		StringBuilder sb = new StringBuilder(payloadSize);
+		for (int i = 0; i < payloadSize; i++) {
+			sb.append((char) ('a' + random.nextInt(26)));
+		}
+		text = sb.toString();
+		encodedByPubKey = RSACoder.encryptByPubKey(text);
+		encodedByPriKey = RSACoder.encryptByPriKey(text);
+		sessionKey = AESCoder.generateKey(128);
+		wrappedSessionKey = RSACoder.wrapSessionKey(sessionKey);
+		encodedBySessionKey = RSACoder.encryptBySessionKey(sessionKey, text);
+	}
+
+	@Benchmark
+	public String encryptByPubKey() throws Exception {
+		return RSACoder.encryptByPubKey(text);
+	}
+
+	@Benchmark
+	public String decryptByPriKey() throws Exception {
+		return RSACoder.decryptByPriKey(encodedByPubKey);
+	}
+
+	@Benchmark
+	public String encryptByPriKey() throws Exception {
+		return RSACoder.encryptByPriKey(text);
+	}
+
+	@Benchmark
+	public String decryptByPubKey() throws Exception {
+		return RSACoder.decryptByPubKey(encodedByPriKey);
+	}
+
+	@Benchmark
+	public String wrapSessionKey() throws Exception {
+		return RSACoder.wrapSessionKey(sessionKey);
+	}
+
+	@Benchmark
+	public SecretKey unwrapSessionKey() throws Exception {
+		return RSACoder.unwrapSessionKey(wrappedSessionKey);
+	}
+
+	@Benchmark
+	public String encryptBySessionKey() throws Exception {
+		return RSACoder.encryptBySessionKey(sessionKey, text);
+	}
+
+	@Benchmark
+	public String decryptBySessionKey() throws Exception {
+		return RSACoder.decryptBySessionKey(sessionKey, encodedBySessionKey);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	public KeyPair takeKeyPair() throws Exception {
+		return RSACoder.takeKeyPair();
+	}
+}
@@ -0,0 +1,115 @@
+package xyz.yuanwl.benchmark;
+
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.yuanwl.util.coder.RSASignature;
+import xyz.yuanwl.util.coder.SignedData;
+
+/**
+ * <p>{@link RSASignature} 各公开方法的基准测试，用内置的默认密钥，验签结果缓存不开启。
+ * <p>
+ * payloadSize 是待签名字符串的字符数（都是 ASCII）；批量方法每次处理 {@link #BATCH_SIZE} 条。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 22:20
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RSASignatureBenchmark {
+
+	/** 批量方法每次处理的条数 */
+	public static final int BATCH_SIZE = 256;
+
+	@Param({ "16", "1024", "65536" })
+	public int payloadSize;
+
+	private String text;
+	private byte[] bytes;
+	private byte[] signature;
+	private String signedBase64;
+	private String signedHex;
+	private List<String> batch;
+	private List<SignedData> signedBatch;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		RSASignature.disableVerifyCache();
+		Random random = new Random(payloadSize);
+		StringBuilder sb = new StringBuilder(payloadSize);
+		for (int i = 0; i < payloadSize; i++) {
+			sb.append((char) ('a' + random.nextInt(26)));
+		}
+		text = sb.toString();
+		bytes = text.getBytes("UTF-8");
+		signedBase64 = RSASignature.signToBase64(text);
+		signedHex = RSASignature.signToHex(text);
+		signature = RSASignature.decryptBase64(signedBase64);
+
+		batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batch.add(i + text);
+		}
+		List<String> signs = RSASignature.signToBase64Batch(batch);
+		signedBatch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			signedBatch.add(new SignedData(batch.get(i), signs.get(i)));
+		}
+	}
+
+	@Benchmark
+	public String signToBase64() throws Exception {
+		return RSASignature.signToBase64(text);
+	}
+
+	@Benchmark
+	public String signToHex() throws Exception {
+		return RSASignature.signToHex(text);
+	}
+
+	@Benchmark
+	public boolean verify() throws Exception {
+		Signature s = RSASignature.verify(bytes);
+		return s.verify(signature);
+	}
+
+	@Benchmark
+	public boolean verifyFromBase64() throws Exception {
+		return RSASignature.verifyFromBase64(text, signedBase64);
+	}
+
+	@Benchmark
+	public boolean verifyFromHex() throws Exception {
+		return RSASignature.verifyFromHex(text, signedHex);
+	}
+
+	@Benchmark
+	public List<String> signToBase64Batch() {
+		return RSASignature.signToBase64Batch(batch);
+	}
+
+	@Benchmark
+	public boolean[] verifyFromBase64Batch() {
+		return RSASignature.verifyFromBase64Batch(signedBatch);
+	}
+}
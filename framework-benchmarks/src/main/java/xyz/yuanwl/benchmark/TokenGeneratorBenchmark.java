@@ -0,0 +1,65 @@
+package xyz.yuanwl.benchmark;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.yuanwl.util.id.TokenGenerator;
+
+/**
+ * <p>{@link TokenGenerator} 和 RandomStringUtils、共享 SecureRandom 逐字符取数的对比，4个线程同时生成
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 06:30
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TokenGeneratorBenchmark {
+
+	private static final char[] DIGITS = "0123456789".toCharArray();
+
+	private final TokenGenerator generator = TokenGenerator.getDefault();
+	private final SecureRandom sharedRandom = new SecureRandom();
+
+	@Benchmark
+	public String numeric6() {
+		return generator.numeric(6);
+	}
+
+	@Benchmark
+	public String urlSafe32() {
+		return generator.urlSafe(32);
+	}
+
+	/** 原来的 BaseCoder.createRandom */
+	@Benchmark
+	public String randomStringUtils6() {
+		return RandomStringUtils.randomNumeric(6);
+	}
+
+	/** 共享一个 SecureRandom，每个字符调一次 nextInt */
+	@Benchmark
+	public String sharedSecureRandom6() {
+		char[] chars = new char[6];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = DIGITS[sharedRandom.nextInt(DIGITS.length)];
+		}
+		return new String(chars);
+	}
+}
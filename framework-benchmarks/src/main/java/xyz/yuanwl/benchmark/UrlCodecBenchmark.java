@@ -0,0 +1,76 @@
+package xyz.yuanwl.benchmark;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.yuanwl.util.coder.UrlCodec;
+
+/**
+ * <p>{@link UrlCodec} 和 URLEncoder/URLDecoder 的对比。plain 是不需要转义的参数，mixed 是带中文和空格的参数。
+ * 用 -prof gc 看每次操作分配的字节数
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 07:20
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UrlCodecBenchmark {
+
+	@Param({ "plain", "mixed" })
+	public String input;
+
+	private String value;
+	private String encoded;
+	private final StringBuilder builder = new StringBuilder(256);
+
+	@Setup
+	public void setup() {
+		value = "plain".equals(input) ? "order_20261018-000123.detail" : "name=验证码 & 签名/订单 20261018";
+		encoded = UrlCodec.encode(value);
+	}
+
+	@Benchmark
+	public String urlEncoder() throws UnsupportedEncodingException {
+		return URLEncoder.encode(value, "UTF-8");
+	}
+
+	@Benchmark
+	public String encode() {
+		return UrlCodec.encode(value);
+	}
+
+	/** 拼到复用的 StringBuilder 里，不产生中间字符串 */
+	@Benchmark
+	public StringBuilder encodeIntoBuilder() {
+		builder.setLength(0);
+		return UrlCodec.encode(value, UrlCodec.Mode.QUERY, builder.append("/api?q="));
+	}
+
+	@Benchmark
+	public String urlDecoder() throws UnsupportedEncodingException {
+		return URLDecoder.decode(encoded, "UTF-8");
+	}
+
+	@Benchmark
+	public String decode() {
+		return UrlCodec.decode(encoded);
+	}
+}
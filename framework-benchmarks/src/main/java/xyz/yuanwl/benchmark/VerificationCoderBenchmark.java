@@ -0,0 +1,69 @@
+package xyz.yuanwl.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.yuanwl.util.coder.VerificationCoder;
+
+/**
+ * <p>{@link VerificationCoder} 各公开方法的基准测试，length 是验证码字符数。
+ * <p>
+ * 以 headless 模式运行，服务器上没有显示器也能画图。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 22:30
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class VerificationCoderBenchmark {
+
+	private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+	@Param({ "4", "6" })
+	public int length;
+
+	@Param({ "0", "2" })
+	public int type;
+
+	@Benchmark
+	public String generateTextCode() {
+		return VerificationCoder.generateTextCode(type, length, null);
+	}
+
+	/** 批量生成100个，和逐个生成对比 */
+	@Benchmark
+	public String[] generateTextCodes() {
+		return VerificationCoder.generateTextCodes(type, length, null, 100, null);
+	}
+
+	@Benchmark
+	public String generateTextCodeSecure() {
+		return VerificationCoder.generateTextCode(type, length, null, SECURE_RANDOM);
+	}
+
+	@Benchmark
+	public BufferedImage generateImageCode() {
+		return VerificationCoder.generateImageCode(type, length, null, 22 * length, 30, 5, true, null, null, null);
+	}
+
+	@Benchmark
+	public BufferedImage generateImageCodeWithText() {
+		return VerificationCoder.generateImageCode("a1b2c3".substring(0, length), 22 * length, 30);
+	}
+}
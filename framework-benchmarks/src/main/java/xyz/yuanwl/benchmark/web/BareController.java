@@ -0,0 +1,26 @@
+package xyz.yuanwl.benchmark.web;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * <p>对照组：不在 controller 包下，不经过 RequestAspect、AuthAspect，返回普通 Map，内容和 {@link xyz.yuanwl.benchmark.web.controller.BenchController} 一样
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 22:50
+ */
+@RestController
+public class BareController {
+
+	@GetMapping("/bare/hello")
+	public Map<String, Object> hello() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("code", 200);
+		map.put("msg", "请求/处理成功！");
+		map.put("data", "hello");
+		return map;
+	}
+}
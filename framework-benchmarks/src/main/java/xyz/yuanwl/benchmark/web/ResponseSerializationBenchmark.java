@@ -0,0 +1,97 @@
+package xyz.yuanwl.benchmark.web;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import xyz.yuanwl.vo.Page;
+import xyz.yuanwl.vo.Response;
+
+/**
+ * <p>Response、Page 的 Jackson 序列化开销，和直接序列化同样内容的数据对比。
+ * <ul>
+ * <li>rawRows：只序列化数据行，对照组；</li>
+ * <li>response：Response.success(数据行)；</li>
+ * <li>responsePage：Response.success(Page)，分页接口的返回；</li>
+ * <li>responseEmpty：Response.success()，没有数据的成功响应，看固定开销。</li>
+ * </ul>
+ * rows 是数据行数，每行是一个5个字段的 Map。ObjectMapper 和 Spring MVC 默认的一样，全局共用一个。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 23:10
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+	@Param({ "1", "20", "500" })
+	public int rows;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private List<Map<String, Object>> data;
+	private Page<Map<String, Object>> page;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		data = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("id", i);
+			row.put("username", "user" + i);
+			row.put("nickname", "用户" + i);
+			row.put("enabled", i % 2 == 0);
+			row.put("createTime", 1_700_000_000_000L + i);
+			data.add(row);
+		}
+		page = new Page<>();
+		page.setPageNo(1);
+		page.setPageSize(rows);
+		page.setTotalRows(rows * 10);
+		page.setTotalPages(10);
+		page.setOrderBy("id");
+		page.setDirect("desc");
+		page.setData(data);
+	}
+
+	@Benchmark
+	public byte[] rawRows() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(data);
+	}
+
+	@Benchmark
+	public byte[] response() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(Response.success(data));
+	}
+
+	@Benchmark
+	public byte[] responsePage() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(Response.success(page));
+	}
+
+	@Benchmark
+	public byte[] responseEmpty() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(Response.success());
+	}
+}
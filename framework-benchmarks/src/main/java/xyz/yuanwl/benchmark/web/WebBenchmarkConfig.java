@@ -0,0 +1,26 @@
+package xyz.yuanwl.benchmark.web;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import xyz.yuanwl.benchmark.web.controller.BenchController;
+import xyz.yuanwl.exception.GlobalExceptionHandler;
+import xyz.yuanwl.web.AuthAspect;
+import xyz.yuanwl.web.RequestAspect;
+
+/**
+ * <p>Web 基准测试用的最小 Spring MVC 配置：只有框架的两个切面、全局异常处理器和两个测试 Controller，
+ * 不扫描业务包，也不起嵌入式服务器
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 22:55
+ */
+@Configuration
+@EnableWebMvc
+@EnableAspectJAutoProxy(proxyTargetClass = true)
+@Import({ RequestAspect.class, AuthAspect.class, GlobalExceptionHandler.class, BenchController.class,
+		BareController.class })
+public class WebBenchmarkConfig {
+}
@@ -0,0 +1,107 @@
+package xyz.yuanwl.benchmark.web;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import xyz.yuanwl.config.AuthProperties;
+import xyz.yuanwl.vo.User;
+
+/**
+ * <p>框架本身每个请求的开销：同一个 MockMvc 里对比
+ * <ul>
+ * <li>bare：不经过切面的对照组 Controller，返回普通 Map；</li>
+ * <li>publicEndpoint：经过 RequestAspect、AuthAspect（@DoNotCheckLogin，不查 session），返回 Response；</li>
+ * <li>securedEndpoint：两个切面完整走一遍，查 session 里的登录用户；</li>
+ * <li>exceptionHandler：Controller 抛 AuthException，由 GlobalExceptionHandler 转成 401 的 Response。</li>
+ * </ul>
+ * 各项减去 bare 就是框架的开销（微秒/次，GC 分析器给出字节/次）。MockMvc 本身的开销两边一样，相减后抵掉。
+ * <p>
+ * logLevel 是框架包（xyz.yuanwl）的日志级别：INFO 是线上默认配置，RequestAspect 每个请求打5行日志；OFF 只看切面和序列化本身。
+ * 日志写到 target/jmh/benchmark.log，不刷屏。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 23:00
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebOverheadBenchmark {
+
+	@Param({ "INFO", "OFF" })
+	public String logLevel;
+
+	private AnnotationConfigWebApplicationContext context;
+	private MockMvc mockMvc;
+	private MockHttpSession session;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("xyz.yuanwl"))
+				.setLevel(ch.qos.logback.classic.Level.toLevel(logLevel));
+
+		context = new AnnotationConfigWebApplicationContext();
+		context.setServletContext(new MockServletContext());
+		context.register(WebBenchmarkConfig.class);
+		context.refresh();
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+		session = new MockHttpSession();
+		User user = new User();
+		user.setUsername("dev");
+		session.setAttribute(AuthProperties.KEY_USER, user);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	private String perform(String url) throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(url).session(session)).andReturn();
+		return result.getResponse().getContentAsString();
+	}
+
+	@Benchmark
+	public String bare() throws Exception {
+		return perform("/bare/hello");
+	}
+
+	@Benchmark
+	public String publicEndpoint() throws Exception {
+		return perform("/bench/public");
+	}
+
+	@Benchmark
+	public String securedEndpoint() throws Exception {
+		return perform("/bench/hello");
+	}
+
+	@Benchmark
+	public String exceptionHandler() throws Exception {
+		return perform("/bench/error");
+	}
+}
@@ -0,0 +1,38 @@
+package xyz.yuanwl.benchmark.web.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import xyz.yuanwl.annotation.DoNotCheckLogin;
+import xyz.yuanwl.exception.AuthException;
+import xyz.yuanwl.vo.Response;
+
+/**
+ * <p>实验组：在 controller 包下，和业务 Controller 一样经过 RequestAspect、AuthAspect，返回 {@link Response}
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 22:50
+ */
+@RestController
+public class BenchController {
+
+	/** 要登录，两个切面都完整走一遍 */
+	@GetMapping("/bench/hello")
+	public Response hello() {
+		return Response.success("hello");
+	}
+
+	/** 不检查登录，只有 RequestAspect 和注解判断 */
+	@DoNotCheckLogin
+	@GetMapping("/bench/public")
+	public Response publicHello() {
+		return Response.success("hello");
+	}
+
+	/** 抛异常，走 GlobalExceptionHandler */
+	@DoNotCheckLogin
+	@GetMapping("/bench/error")
+	public Response error() {
+		throw new AuthException("请先登录！");
+	}
+}
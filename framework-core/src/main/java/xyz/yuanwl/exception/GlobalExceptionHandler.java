@@ -2,6 +2,7 @@ package xyz.yuanwl.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindException;
@@ -18,10 +19,12 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import xyz.yuanwl.vo.Response;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.xml.bind.ValidationException;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 通用异常处理器，用于处理所有开发者没有手动捕获或者手动抛出的异常，自动记录日志，并发送异常 JSON 信息到前台。
@@ -38,6 +41,9 @@ import java.util.Set;
 @ResponseBody
 public class GlobalExceptionHandler {
 
+	/** 503 响应建议客户端多少秒后重试 */
+	private static final int RETRY_AFTER_SECONDS = 1;
+
 	private Logger logger = LoggerFactory.getLogger(this.getClass());
 
     /**
@@ -172,6 +178,18 @@ public class GlobalExceptionHandler {
         return Response.error(HttpStatus.UNPROCESSABLE_ENTITY.value(), msg);
     }
 
+    /**
+     * 503 - Service Unavailable，有界执行器（验证码、加密等）满了，让客户端稍后重试
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(RejectedExecutionException.class)
+    public Response handleRejectedExecutionException(RejectedExecutionException e, HttpServletResponse response) {
+    	String msg = "服务器繁忙，请稍后再试！";
+        logger.warn(msg + e.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+        return Response.error(HttpStatus.SERVICE_UNAVAILABLE.value(), msg);
+    }
+
     /**
      * 500 - Internal Server Error
      */
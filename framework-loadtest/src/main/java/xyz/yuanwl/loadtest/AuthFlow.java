@@ -0,0 +1,132 @@
+package xyz.yuanwl.loadtest;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+import xyz.yuanwl.loadtest.LoadMetrics.Step;
+import xyz.yuanwl.util.coder.RSACoder;
+import xyz.yuanwl.vo.Response;
+
+/**
+ * <p>一个完整的登录流程，每次都是一个新会话（新的 cookie）：
+ * <ol>
+ * <li>GET /auth/imgCode 取图片验证码；</li>
+ * <li>GET /loadtest/imgCode 拿到验证码文字（压测专用接口）；</li>
+ * <li>POST /auth 登录，密码用 RSA 公钥加密；</li>
+ * <li>调用若干次要登录的接口；</li>
+ * <li>DELETE /auth 退出。</li>
+ * </ol>
+ * 对象无状态，多线程共用。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 23:50
+ */
+@Slf4j
+public class AuthFlow {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final CloseableHttpClient client;
+	private final String baseUrl;
+	private final LoadTestOptions options;
+	private final String username;
+	private final String password;
+
+	/**
+	 * @param client 共用的 HttpClient
+	 * @param baseUrl 如 http://127.0.0.1:8080
+	 * @param options 压测参数
+	 * @param username 登录用户名
+	 * @param password 登录密码（明文）
+	 */
+	public AuthFlow(CloseableHttpClient client, String baseUrl, LoadTestOptions options, String username,
+			String password) {
+		this.client = client;
+		this.baseUrl = baseUrl;
+		this.options = options;
+		this.username = username;
+		this.password = password;
+	}
+
+	/**
+	 * 跑一遍流程。第一步（取验证码）从计划发起时间算起，开环模式下等工作线程的时间算进这一步；
+	 * 后面的步骤紧接着上一步发，从实际发出算起
+	 *
+	 * @param metrics 统计，预热时传 null 不统计
+	 * @param intendedStart 计划发起时间（System.nanoTime()），闭环模式传实际发起时间
+	 * @return 每一步都成功返回 true
+	 */
+	public boolean run(LoadMetrics metrics, long intendedStart) {
+		HttpClientContext context = HttpClientContext.create();
+		context.setCookieStore(new BasicCookieStore());
+		try {
+			execute(new HttpGet(baseUrl + "/auth/imgCode?imgCodeWidth=" + options.getImgCodeWidth() + "&imgCodeHeight="
+					+ options.getImgCodeHeight()), context, metrics, Step.IMG_CODE, false, intendedStart);
+			JsonNode code = execute(new HttpGet(baseUrl + "/loadtest/imgCode"), context, null, null, true,
+					System.nanoTime());
+
+			HttpPost login = new HttpPost(baseUrl + "/auth");
+			login.setEntity(new UrlEncodedFormEntity(Arrays.asList(new BasicNameValuePair("username", username),
+					new BasicNameValuePair("password", RSACoder.encryptByPubKey(password)),
+					new BasicNameValuePair("imgCode", code.path(Response.KEY_DATA).asText())), "UTF-8"));
+			execute(login, context, metrics, Step.LOGIN, true, System.nanoTime());
+
+			for (int i = 0; i < options.getCalls(); i++) {
+				execute(new HttpGet(baseUrl + "/loadtest/echo"), context, metrics, Step.CALL, true,
+						System.nanoTime());
+			}
+			execute(new HttpDelete(baseUrl + "/auth"), context, metrics, Step.LOGOUT, true,
+					System.nanoTime());
+			return true;
+		} catch (Exception e) {
+			if (metrics != null) {
+				metrics.error(e);
+			} else {
+				log.debug("预热流程失败", e);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * 发请求、计时，HTTP 状态不是200或 Response 的 code 不是200都算失败
+	 *
+	 * @param start 计时起点（System.nanoTime()）
+	 * @return json 为 true 时返回解析出来的 Response，否则返回 null
+	 */
+	private JsonNode execute(HttpUriRequest request, HttpClientContext context, LoadMetrics metrics, Step step,
+			boolean json, long start) throws IOException {
+		HttpResponse response = client.execute(request, context);
+		byte[] body = EntityUtils.toByteArray(response.getEntity());
+		if (metrics != null && step != null) {
+			metrics.record(step, System.nanoTime() - start);
+		}
+		if (response.getStatusLine().getStatusCode() != 200) {
+			throw new IOException(request.getURI() + " 返回 " + response.getStatusLine());
+		}
+		if (!json) {
+			return null;
+		}
+		JsonNode node = MAPPER.readTree(body);
+		if (node.path(Response.KEY_CODE).asInt() != Response.SUCC_CODE_DEAFAULT) {
+			throw new IOException(request.getURI() + " 返回 " + node);
+		}
+		return node;
+	}
+}
@@ -0,0 +1,138 @@
+package xyz.yuanwl.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.extern.slf4j.Slf4j;
+import xyz.yuanwl.loadtest.LoadMetrics.Step;
+
+/**
+ * <p>压测发生器，两种模式：
+ * <ul>
+ * <li>闭环（closed）：users 个线程各自循环跑流程，一个做完马上做下一个。服务慢了发起的速度也跟着慢，
+ * 延迟会被低估（协调遗漏），可以用 expectedIntervalMicros 让 HdrHistogram 补样本修正；</li>
+ * <li>开环（open）：按 rate 固定速率排定每个流程的计划发起时间，threads 个线程领取执行，
+ * 流程延迟和第一步（IMG_CODE）的延迟从计划时间算起，线程都占满导致的排队时间也算在里面，不存在协调遗漏；
+ * 后面几步从实际发出算起，只反映服务端处理这一步的快慢。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 00:05
+ */
+@Slf4j
+public class LoadGenerator {
+
+	private final AuthFlow flow;
+	private final LoadTestOptions options;
+	private final LoadMetrics metrics = new LoadMetrics();
+
+	public LoadGenerator(AuthFlow flow, LoadTestOptions options) {
+		this.flow = flow;
+		this.options = options;
+	}
+
+	/**
+	 * 跑完预热和统计时段，输出报告
+	 *
+	 * @return 统计结果
+	 */
+	public LoadMetrics run() throws InterruptedException {
+		long start = System.nanoTime();
+		long measureStart = start + TimeUnit.SECONDS.toNanos(options.getWarmup());
+		long end = measureStart + TimeUnit.SECONDS.toNanos(options.getDuration());
+		if (options.isOpenLoop()) {
+			log.warn("开环压测：{} 流程/秒，{} 个工作线程，预热 {} 秒，统计 {} 秒", options.getRate(), options.getThreads(),
+					options.getWarmup(), options.getDuration());
+		} else {
+			log.warn("闭环压测：{} 个并发用户，期望间隔 {} 微秒，预热 {} 秒，统计 {} 秒", options.getUsers(),
+					options.getExpectedIntervalMicros(), options.getWarmup(), options.getDuration());
+		}
+
+		int workers = options.isOpenLoop() ? options.getThreads() : options.getUsers();
+		AtomicLong sequence = new AtomicLong();
+		List<Thread> threads = new ArrayList<>(workers);
+		for (int i = 0; i < workers; i++) {
+			Runnable task = options.isOpenLoop() ? () -> openLoop(sequence, start, measureStart, end)
+					: () -> closedLoop(measureStart, end);
+			Thread thread = new Thread(task, "loadtest-" + i);
+			thread.setDaemon(true);
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		metrics.report(end - measureStart, options.getOutput(), correction());
+		return metrics;
+	}
+
+	/**
+	 * 开环：第 i 个流程的计划发起时间是 start + i * 周期，每个线程领一个序号，没到时间就等，到了（或已经晚了）立即执行
+	 */
+	private void openLoop(AtomicLong sequence, long start, long measureStart, long end) {
+		long periodNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+		while (true) {
+			long intended = start + sequence.getAndIncrement() * periodNanos;
+			if (intended >= end) {
+				return;
+			}
+			long wait;
+			while ((wait = intended - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			boolean measured = intended >= measureStart;
+			boolean ok = flow.run(measured ? metrics : null, intended);
+			if (measured) {
+				// 从计划时间算起，而不是从实际发起时间
+				metrics.record(Step.FLOW, System.nanoTime() - intended);
+				count(ok);
+			}
+		}
+	}
+
+	/**
+	 * 闭环：做完一个马上做下一个
+	 */
+	private void closedLoop(long measureStart, long end) {
+		long expectedIntervalMicros = options.getExpectedIntervalMicros();
+		long now;
+		while ((now = System.nanoTime()) < end) {
+			boolean measured = now >= measureStart;
+			boolean ok = flow.run(measured ? metrics : null, now);
+			if (measured) {
+				long nanos = System.nanoTime() - now;
+				if (expectedIntervalMicros > 0) {
+					metrics.record(Step.FLOW, nanos, expectedIntervalMicros);
+				} else {
+					metrics.record(Step.FLOW, nanos);
+				}
+				count(ok);
+			}
+		}
+	}
+
+	/**
+	 * 报告表头前的说明：哪些步骤的延迟修正了协调遗漏
+	 */
+	private String correction() {
+		if (options.isOpenLoop()) {
+			return "FLOW、IMG_CODE 从计划发起时间算起，已修正协调遗漏；LOGIN、CALL、LOGOUT 从实际发出算起，未修正";
+		}
+		if (options.getExpectedIntervalMicros() > 0) {
+			return "只有 FLOW 按期望间隔 " + options.getExpectedIntervalMicros() + " 微秒修正了协调遗漏，各步骤未修正";
+		}
+		return "闭环且未设 expectedIntervalMicros：所有延迟都未修正协调遗漏，会被低估";
+	}
+
+	private void count(boolean ok) {
+		if (ok) {
+			metrics.succeeded();
+		} else {
+			metrics.failed();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package xyz.yuanwl.loadtest;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>压测统计：每个步骤一个延迟直方图（微秒），加上整个流程的直方图、成功失败次数、按异常类型分的失败次数
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 23:40
+ */
+@Slf4j
+public class LoadMetrics {
+
+	/** 直方图能记录的最大值（微秒），超过会自动扩容 */
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+	/** 直方图精度（有效数字位数） */
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	/**
+	 * 统计的步骤
+	 */
+	public enum Step {
+		/** GET /auth/imgCode，从流程的计划发起时间算起 */
+		IMG_CODE,
+		/** POST /auth */
+		LOGIN,
+		/** 登录后的接口调用 */
+		CALL,
+		/** DELETE /auth */
+		LOGOUT,
+		/** 整个流程，开环模式下从计划发起的时间算起 */
+		FLOW
+	}
+
+	private final Map<Step, Histogram> histograms = new EnumMap<>(Step.class);
+	private final LongAdder succeeded = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	/** 异常类名 → 次数 */
+	private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+	public LoadMetrics() {
+		for (Step step : Step.values()) {
+			Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+			histogram.setAutoResize(true);
+			histograms.put(step, histogram);
+		}
+	}
+
+	/**
+	 * 记录一次耗时
+	 *
+	 * @param step 步骤
+	 * @param nanos 耗时（纳秒）
+	 */
+	public void record(Step step, long nanos) {
+		histograms.get(step).recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+	}
+
+	/**
+	 * 记录一次耗时，并按期望间隔补上被“协调遗漏”的样本：一次请求慢了，闭环模式下本该在这段时间里发出的请求都没发，
+	 * HdrHistogram 按期望间隔把它们补回来
+	 *
+	 * @param step 步骤
+	 * @param nanos 耗时（纳秒）
+	 * @param expectedIntervalMicros 期望间隔（微秒）
+	 */
+	public void record(Step step, long nanos, long expectedIntervalMicros) {
+		histograms.get(step).recordValueWithExpectedInterval(TimeUnit.NANOSECONDS.toMicros(nanos),
+				expectedIntervalMicros);
+	}
+
+	public void succeeded() {
+		succeeded.increment();
+	}
+
+	public void failed() {
+		failed.increment();
+	}
+
+	/**
+	 * 记录一次流程失败的原因，按异常类型计数，每种类型第一次出现时打出异常
+	 *
+	 * @param e 流程抛出的异常
+	 */
+	public void error(Throwable e) {
+		String type = e.getClass().getName();
+		LongAdder count = errors.get(type);
+		if (count == null) {
+			LongAdder created = new LongAdder();
+			count = errors.putIfAbsent(type, created);
+			if (count == null) {
+				count = created;
+				log.warn("流程失败（{} 第一次出现，后面同类型的只计数）", type, e);
+			}
+		}
+		count.increment();
+	}
+
+	/**
+	 * @return 异常类名 → 次数，按类名排序
+	 */
+	public Map<String, Long> getErrors() {
+		Map<String, Long> result = new TreeMap<>();
+		errors.forEach((type, count) -> result.put(type, count.sum()));
+		return result;
+	}
+
+	public Histogram getHistogram(Step step) {
+		return histograms.get(step);
+	}
+
+	public long getSucceeded() {
+		return succeeded.sum();
+	}
+
+	public long getFailed() {
+		return failed.sum();
+	}
+
+	/**
+	 * 输出报告：吞吐量和各步骤的 p50/p99/p999/最大延迟，并把完整的延迟分布写到输出目录
+	 *
+	 * @param elapsedNanos 统计时段的实际时长
+	 * @param outputDir 输出目录
+	 * @param correction 说明哪些步骤修正了协调遗漏，打在表头前面
+	 */
+	public void report(long elapsedNanos, String outputDir, String correction) {
+		double seconds = elapsedNanos / 1e9;
+		long requests = 0;
+		for (Step step : Step.values()) {
+			if (step != Step.FLOW) {
+				requests += histograms.get(step).getTotalCount();
+			}
+		}
+		log.warn("统计 {} 秒：成功流程 {} 个（{}/秒），失败 {} 个，请求 {}/秒", String.format("%.1f", seconds), getSucceeded(),
+				String.format("%.1f", getSucceeded() / seconds), getFailed(), String.format("%.1f", requests / seconds));
+		log.warn(correction);
+		log.warn(String.format("%-9s %10s %10s %10s %10s %10s", "步骤", "次数", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)"));
+		for (Step step : Step.values()) {
+			Histogram h = histograms.get(step);
+			log.warn(String.format("%-9s %10d %10.2f %10.2f %10.2f %10.2f", step, h.getTotalCount(),
+					h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+					h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0));
+		}
+		getErrors().forEach((type, count) -> log.warn("失败原因 {}：{} 次", type, count));
+
+		File dir = new File(outputDir);
+		dir.mkdirs();
+		for (Step step : Step.values()) {
+			File file = new File(dir, step.name().toLowerCase() + ".hgrm");
+			try (PrintStream out = new PrintStream(file)) {
+				// 直方图单位是微秒，输出成毫秒
+				histograms.get(step).outputPercentileDistribution(out, 1000.0);
+			} catch (FileNotFoundException e) {
+				log.error("写延迟分布出错：{}", file, e);
+			}
+		}
+		log.warn("完整延迟分布已写到 {}", dir.getAbsolutePath());
+	}
+}
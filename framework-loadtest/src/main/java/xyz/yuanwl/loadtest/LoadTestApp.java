@@ -0,0 +1,53 @@
+package xyz.yuanwl.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import xyz.yuanwl.config.AuthProperties;
+
+/**
+ * <p>登录接口端到端压测：在随机端口起一个带 framework-security 全套切面和异常处理的应用，
+ * 用 HttpClient 反复跑“取验证码 → 登录 → 调接口 → 退出”的流程，输出吞吐量和延迟分布。
+ * <p>用法：java -jar framework-loadtest.jar --loadtest.mode=open --loadtest.rate=200 --loadtest.duration=60，
+ * 参数见 {@link LoadTestOptions}。
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 00:15
+ */
+@SpringBootApplication(scanBasePackages = "xyz.yuanwl")
+public class LoadTestApp {
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+
+		SpringApplication application = new SpringApplication(LoadTestApp.class);
+		Map<String, Object> defaults = new HashMap<>();
+		defaults.put("server.port", 0);
+		// 被测代码的日志会明显拖慢接口，压测时默认只打警告以上
+		defaults.put("logging.level.xyz.yuanwl", "WARN");
+		application.setDefaultProperties(defaults);
+
+		try (ConfigurableApplicationContext context = application.run(args)) {
+			int port = ((EmbeddedWebApplicationContext) context).getEmbeddedServletContainer().getPort();
+			AuthProperties authProperties = context.getBean(AuthProperties.class);
+
+			int maxConnections = options.isOpenLoop() ? options.getThreads() : options.getUsers();
+			PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+			connectionManager.setMaxTotal(maxConnections);
+			connectionManager.setDefaultMaxPerRoute(maxConnections);
+			try (CloseableHttpClient client = HttpClients.custom().setConnectionManager(connectionManager).build()) {
+				AuthFlow flow = new AuthFlow(client, "http://127.0.0.1:" + port, options,
+						authProperties.getUsername(), authProperties.getPassword());
+				new LoadGenerator(flow, options).run();
+			}
+		}
+	}
+}
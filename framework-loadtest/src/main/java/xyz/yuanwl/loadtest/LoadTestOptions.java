@@ -0,0 +1,143 @@
+package xyz.yuanwl.loadtest;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Data;
+
+/**
+ * <p>压测参数，命令行用 --loadtest.参数名=值 指定，其余 -- 开头的参数照常交给 Spring Boot
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 23:30
+ */
+@Data
+public class LoadTestOptions {
+
+	/** 命令行参数前缀 */
+	public static final String PREFIX = "--loadtest.";
+
+	/** 开环（open，按固定速率发起，不管前面的有没有返回）还是闭环（closed，固定并发用户数，一个做完再做下一个） */
+	private String mode = "closed";
+
+	/** 开环：每秒发起多少个登录流程 */
+	private int rate = 100;
+
+	/** 开环：最多同时进行多少个流程（工作线程数），都占满了后面的流程就会晚发，晚的时间算进延迟 */
+	private int threads = 256;
+
+	/** 闭环：并发用户数 */
+	private int users = 32;
+
+	/** 闭环：期望的流程间隔（微秒），大于0时用它修正协调遗漏（coordinated omission） */
+	private long expectedIntervalMicros;
+
+	/** 预热时长（秒），这段时间的数据不统计 */
+	private int warmup = 5;
+
+	/** 统计时长（秒） */
+	private int duration = 30;
+
+	/** 每个流程登录后调用多少次要登录的接口 */
+	private int calls = 3;
+
+	/** 图片验证码宽度 */
+	private int imgCodeWidth = 90;
+
+	/** 图片验证码高度 */
+	private int imgCodeHeight = 30;
+
+	/** 延迟分布（.hgrm）输出目录 */
+	private String output = "target/loadtest";
+
+	/**
+	 * 解析命令行参数
+	 *
+	 * @param args 命令行参数
+	 * @return 压测参数
+	 * @throws IllegalArgumentException 参数不认识或值不对
+	 */
+	public static LoadTestOptions parse(String[] args) {
+		LoadTestOptions options = new LoadTestOptions();
+		for (String arg : args) {
+			if (!arg.startsWith(PREFIX)) {
+				continue;
+			}
+			int eq = arg.indexOf('=');
+			if (eq < 0) {
+				throw new IllegalArgumentException("压测参数缺少值：" + arg);
+			}
+			String name = arg.substring(PREFIX.length(), eq);
+			String value = arg.substring(eq + 1);
+			switch (name) {
+			case "mode":
+				if (!"open".equals(value) && !"closed".equals(value)) {
+					throw new IllegalArgumentException("mode 只能是 open 或 closed：" + value);
+				}
+				options.mode = value;
+				break;
+			case "rate":
+				options.rate = Integer.parseInt(value);
+				break;
+			case "threads":
+				options.threads = Integer.parseInt(value);
+				break;
+			case "users":
+				options.users = Integer.parseInt(value);
+				break;
+			case "expectedIntervalMicros":
+				options.expectedIntervalMicros = Long.parseLong(value);
+				break;
+			case "warmup":
+				options.warmup = Integer.parseInt(value);
+				break;
+			case "duration":
+				options.duration = Integer.parseInt(value);
+				break;
+			case "calls":
+				options.calls = Integer.parseInt(value);
+				break;
+			case "imgCodeWidth":
+				options.imgCodeWidth = Integer.parseInt(value);
+				break;
+			case "imgCodeHeight":
+				options.imgCodeHeight = Integer.parseInt(value);
+				break;
+			case "output":
+				options.output = value;
+				break;
+			default:
+				throw new IllegalArgumentException("不认识的压测参数：" + arg);
+			}
+		}
+		options.validate();
+		return options;
+	}
+
+	/**
+	 * 检查参数取值，rate 要用来算发起周期，threads、users 是线程数，都必须大于0
+	 *
+	 * @throws IllegalArgumentException 参数值不对
+	 */
+	public void validate() {
+		if (isOpenLoop()) {
+			if (rate <= 0) {
+				throw new IllegalArgumentException("开环模式 rate（每秒发起的流程数）必须大于0：" + rate);
+			}
+			if (rate > TimeUnit.SECONDS.toNanos(1)) {
+				throw new IllegalArgumentException("开环模式 rate 不能超过每秒 10^9 个：" + rate);
+			}
+			if (threads <= 0) {
+				throw new IllegalArgumentException("开环模式 threads（工作线程数）必须大于0：" + threads);
+			}
+		} else if (users <= 0) {
+			throw new IllegalArgumentException("闭环模式 users（并发用户数）必须大于0：" + users);
+		}
+		if (warmup < 0 || duration <= 0 || calls < 0 || expectedIntervalMicros < 0) {
+			throw new IllegalArgumentException("warmup、calls、expectedIntervalMicros 不能小于0，duration 必须大于0");
+		}
+	}
+
+	public boolean isOpenLoop() {
+		return "open".equals(mode);
+	}
+}
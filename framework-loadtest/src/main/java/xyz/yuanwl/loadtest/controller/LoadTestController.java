@@ -0,0 +1,45 @@
+package xyz.yuanwl.loadtest.controller;
+
+import javax.servlet.http.HttpSession;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import xyz.yuanwl.annotation.DoNotCheckLogin;
+import xyz.yuanwl.captcha.CaptchaStore;
+import xyz.yuanwl.config.AuthProperties;
+import xyz.yuanwl.vo.Response;
+import xyz.yuanwl.vo.User;
+
+/**
+ * <p>压测专用接口，只在压测模块里有，业务项目里不会出现
+ * <ul>
+ * <li>GET /loadtest/imgCode：按 cookie 里的验证码 id 查看图片验证码（不作废），压测客户端不做图片识别，用它来完成登录；</li>
+ * <li>GET /loadtest/echo：要登录的普通接口，和业务接口一样经过两个切面，返回登录用户。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 23:35
+ */
+@RestController
+@RequestMapping("loadtest")
+public class LoadTestController {
+
+	@Autowired
+	CaptchaStore captchaStore;
+
+	@DoNotCheckLogin
+	@GetMapping("imgCode")
+	public Response imgCode(@CookieValue(name = AuthProperties.KEY_IMG_CODE_ID, required = false) String imgCodeId) {
+		return Response.success(imgCodeId == null ? null : captchaStore.peek(imgCodeId));
+	}
+
+	@GetMapping("echo")
+	public Response echo(HttpSession session) {
+		User user = (User) session.getAttribute(AuthProperties.KEY_USER);
+		return Response.success(user);
+	}
+}
@@ -0,0 +1,26 @@
+package xyz.yuanwl.captcha;
+
+import lombok.Getter;
+
+/**
+ * <p>一个生成好的图片验证码：验证码文字和编码好的图片
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 01:00
+ */
+@Getter
+public final class Captcha {
+
+	/** 验证码文字 */
+	private final String code;
+	/** 编码好的图片 */
+	private final byte[] image;
+	/** 图片类型，如 image/jpeg */
+	private final String contentType;
+
+	public Captcha(String code, byte[] image, String contentType) {
+		this.code = code;
+		this.image = image;
+		this.contentType = contentType;
+	}
+}
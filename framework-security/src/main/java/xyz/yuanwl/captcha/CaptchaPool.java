@@ -0,0 +1,315 @@
+package xyz.yuanwl.captcha;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import xyz.yuanwl.config.AuthProperties;
+import xyz.yuanwl.util.coder.CaptchaEncoder;
+import xyz.yuanwl.util.coder.CaptchaEncoder.Format;
+import xyz.yuanwl.util.coder.VerificationCoder;
+import xyz.yuanwl.util.concurrent.BoundedExecutor;
+
+/**
+ * <p>预生成图片验证码池。
+ * <p>
+ * 生成验证码图片并编码很费 CPU，登录高峰时在请求线程里现画，正好在最忙的时候雪上加霜。启用后由后台低优先级线程
+ * 按 imgCodePoolSizes 配置的尺寸（宽x高）各自预先画好一批放在有界环形队列里，请求直接取一个，每个只会发出去一次：
+ * <ul>
+ * <li>池里的数量高于低水位时按 imgCodePoolRefillRate 限速补充，低于低水位时不限速全力补；</li>
+ * <li>只预生成配置的尺寸，尺寸由前端传，其他尺寸不建池（防止被任意尺寸撑大），和池空了一样现画，记一次未命中；</li>
+ * <li>宽高超出 imgCodeMinWidth~imgCodeMaxWidth、imgCodeMinHeight~imgCodeMaxHeight 的不画；</li>
+ * <li>未启用时每次都现画，和原来一样。</li>
+ * </ul>
+ * 配置见 {@link AuthProperties} 里 imgCodePool 开头的属性。
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 01:05
+ */
+@Slf4j
+@Component
+public class CaptchaPool {
+
+	/** 所有尺寸都满了时，后台线程最多等多久再看一次 */
+	private static final long IDLE_WAIT_MILLIS = 100;
+	/** 生成出错后隔多久再试 */
+	private static final long RETRY_DELAY_MILLIS = 1000;
+
+	@Autowired
+	AuthProperties authProperties;
+
+	private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+	private final List<Thread> workers = new ArrayList<>();
+	private int workerCount;
+	/** 后台线程没活干时在这上面等，有尺寸掉到低水位以下时唤醒 */
+	private final Object signal = new Object();
+	private volatile boolean closed;
+	/** 现画验证码的线程池，请求线程不直接画 */
+	private BoundedExecutor renderExecutor;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder rendered = new LongAdder();
+
+	/**
+	 * 一种尺寸的验证码队列
+	 */
+	private static final class Bucket {
+		final int width;
+		final int height;
+		final BlockingQueue<Captcha> queue;
+
+		Bucket(int width, int height, int capacity) {
+			this.width = width;
+			this.height = height;
+			this.queue = new ArrayBlockingQueue<>(capacity);
+		}
+	}
+
+	@PostConstruct
+	public void start() {
+		renderExecutor = new BoundedExecutor("captcha-render", authProperties.getImgCodeRenderThreads(),
+				authProperties.getImgCodeRenderQueueSize(), authProperties.getImgCodeRenderMaxQueueWaitMillis(),
+				TimeUnit.MILLISECONDS);
+		if (!isEnabled()) {
+			return;
+		}
+		// 配置的尺寸启动时就开始预生成
+		if (StringUtils.isNotBlank(authProperties.getImgCodePoolSizes())) {
+			for (String size : authProperties.getImgCodePoolSizes().split(",")) {
+				String[] wh = size.trim().toLowerCase().split("x");
+				if (wh.length != 2) {
+					throw new IllegalArgumentException("图片验证码尺寸格式应为 宽x高：" + size);
+				}
+				int width = Integer.parseInt(wh[0].trim()), height = Integer.parseInt(wh[1].trim());
+				checkSize(width, height);
+				buckets.putIfAbsent(width + "x" + height, new Bucket(width, height, authProperties.getImgCodePoolSize()));
+			}
+		}
+		workerCount = Math.max(1, authProperties.getImgCodePoolWorkers());
+		for (int i = 0; i < workerCount; i++) {
+			Thread worker = new Thread(this::refill, "captcha-pool-" + i);
+			worker.setDaemon(true);
+			worker.setPriority(Thread.MIN_PRIORITY);
+			worker.start();
+			workers.add(worker);
+		}
+		log.info("图片验证码池已启动：{} 个后台线程，每种尺寸最多 {} 个", workerCount, authProperties.getImgCodePoolSize());
+	}
+
+	/**
+	 * 取一个指定尺寸的验证码，池里没有就现画
+	 *
+	 * @param width 图片宽度
+	 * @param height 图片高度
+	 * @return 验证码，每个只会发出去一次
+	 * @throws IOException 图片编码出错
+	 */
+	public Captcha take(int width, int height) throws IOException {
+		if (isEnabled()) {
+			Captcha captcha = poll(width, height);
+			if (captcha != null) {
+				return captcha;
+			}
+		}
+		return render(width, height);
+	}
+
+	/**
+	 * 从池里取一个，没有（或者不是预生成的尺寸）返回 null 并记一次未命中
+	 */
+	private Captcha poll(int width, int height) {
+		Bucket bucket = buckets.get(width + "x" + height);
+		Captcha captcha = bucket == null ? null : bucket.queue.poll();
+		if (captcha == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		if (bucket.queue.size() < authProperties.getImgCodePoolLowWatermark()) {
+			synchronized (signal) {
+				signal.notifyAll();
+			}
+		}
+		return captcha;
+	}
+
+	/**
+	 * 取一个指定尺寸的验证码，池里没有就交给专门的有界线程池去画，不占调用线程
+	 *
+	 * @param width 图片宽度
+	 * @param height 图片高度
+	 * @return 验证码，池里有现成的时已经完成
+	 * @throws RejectedExecutionException 线程池满了
+	 */
+	public CompletableFuture<Captcha> takeAsync(int width, int height) {
+		if (isEnabled()) {
+			Captcha captcha = poll(width, height);
+			if (captcha != null) {
+				return CompletableFuture.completedFuture(captcha);
+			}
+		}
+		return renderExecutor.submit(() -> render(width, height));
+	}
+
+	/**
+	 * 现画一个验证码
+	 *
+	 * @param width 图片宽度
+	 * @param height 图片高度
+	 * @return 验证码
+	 * @throws IOException 图片编码出错
+	 * @throws IllegalArgumentException 宽高超出配置的范围
+	 */
+	public Captcha render(int width, int height) throws IOException {
+		checkSize(width, height);
+		String code = VerificationCoder.generateTextCode(authProperties.getImgCodeType(), authProperties.getImgCodeLen(), null);
+		Format format = Format.of(authProperties.getImgCodeFormat());
+		byte[] image = CaptchaEncoder.encode(VerificationCoder.generateImageCode(code, width, height), format);
+		rendered.increment();
+		return new Captcha(code, image, format.getContentType());
+	}
+
+	/**
+	 * 宽高是否在配置的范围内
+	 */
+	public boolean isValidSize(int width, int height) {
+		return width >= authProperties.getImgCodeMinWidth() && width <= authProperties.getImgCodeMaxWidth()
+				&& height >= authProperties.getImgCodeMinHeight() && height <= authProperties.getImgCodeMaxHeight();
+	}
+
+	private void checkSize(int width, int height) {
+		if (!isValidSize(width, height)) {
+			throw new IllegalArgumentException("图片验证码尺寸超出范围：" + width + "x" + height);
+		}
+	}
+
+	/**
+	 * 后台线程：每次挑最空的尺寸补一个，都满了就等着
+	 */
+	private void refill() {
+		int rate = authProperties.getImgCodePoolRefillRate();
+		// 每个线程各自限速，合起来是 rate 个每秒
+		long intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) * workerCount / rate : 0;
+		long next = System.nanoTime();
+		while (!closed) {
+			Bucket bucket = emptiest();
+			if (bucket == null) {
+				synchronized (signal) {
+					try {
+						signal.wait(IDLE_WAIT_MILLIS);
+					} catch (InterruptedException e) {
+						break;
+					}
+				}
+				continue;
+			}
+			if (intervalNanos > 0 && bucket.queue.size() >= authProperties.getImgCodePoolLowWatermark()) {
+				long now = System.nanoTime();
+				// 落后太多（比如刚从低水位恢复）就从现在重新算，不补发
+				next = Math.max(next + intervalNanos, now);
+				if (next > now) {
+					LockSupport.parkNanos(next - now);
+				}
+			}
+			try {
+				bucket.queue.offer(render(bucket.width, bucket.height));
+			} catch (IOException | RuntimeException e) {
+				log.error("预生成图片验证码出错：{}x{}", bucket.width, bucket.height, e);
+				try {
+					Thread.sleep(RETRY_DELAY_MILLIS);
+				} catch (InterruptedException ie) {
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return 池里数量最少的没满的尺寸，都满了返回 null
+	 */
+	private Bucket emptiest() {
+		Bucket emptiest = null;
+		int min = Integer.MAX_VALUE;
+		for (Bucket bucket : buckets.values()) {
+			int size = bucket.queue.size();
+			if (bucket.queue.remainingCapacity() > 0 && size < min) {
+				emptiest = bucket;
+				min = size;
+			}
+		}
+		return emptiest;
+	}
+
+	public boolean isEnabled() {
+		return Boolean.TRUE.equals(authProperties.getImgCodePoolEnabled()) && !closed;
+	}
+
+	/** 直接从池里取到的次数 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** 启用了但池里没有（或者不是预生成的尺寸）只能现画的次数 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** 一共画了多少个，包括后台和现画的 */
+	public long getRendered() {
+		return rendered.sum();
+	}
+
+	/**
+	 * @return 各尺寸当前池里的数量，key 为 宽x高
+	 */
+	public Map<String, Integer> getDepths() {
+		Map<String, Integer> depths = new LinkedHashMap<>();
+		for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+			depths.put(entry.getKey(), entry.getValue().queue.size());
+		}
+		return depths;
+	}
+
+	/** 现画验证码的线程池，排队时间、执行时间、拒绝次数见它的统计 */
+	public BoundedExecutor getRenderExecutor() {
+		return renderExecutor;
+	}
+
+	@PreDestroy
+	public void close() {
+		closed = true;
+		if (renderExecutor != null) {
+			renderExecutor.close();
+		}
+		for (Thread worker : workers) {
+			worker.interrupt();
+		}
+		buckets.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "CaptchaPool{enabled=" + isEnabled() + ", depths=" + getDepths() + ", hits=" + getHits() + ", misses="
+				+ getMisses() + ", rendered=" + getRendered() + ", renderExecutor=" + renderExecutor + "}";
+	}
+}
@@ -0,0 +1,90 @@
+package xyz.yuanwl.captcha;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import xyz.yuanwl.config.AuthProperties;
+import xyz.yuanwl.util.concurrent.ExpiringCodeMap;
+
+/**
+ * <p>验证码存储：按验证码 id 保存验证码文字，不放 session。
+ * <p>
+ * 原来图片验证码存在 session 里，每刷一次验证码就要建（或续期）一个完整的会话，被机器人刷的时候堆满内存。
+ * 这里用 {@link ExpiringCodeMap} 保存，每个待用的验证码只占几十个字节：
+ * <ul>
+ * <li>每个验证码只能用一次，取出即删除，不管对不对，防止对同一个验证码反复猜；</li>
+ * <li>超过 imgCodeTtlSeconds 的验证码作废，由时间轮顺带清理；</li>
+ * <li>最多保存 imgCodeStoreMaxSize 个，满了先清理过期的，还是满就拒绝（Web 层返回 503）。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 03:50
+ */
+@Component
+public class CaptchaStore {
+
+	@Autowired
+	AuthProperties authProperties;
+
+	private ExpiringCodeMap codes;
+
+	@PostConstruct
+	public void init() {
+		codes = new ExpiringCodeMap(authProperties.getImgCodeStoreMaxSize(), authProperties.getImgCodeTtlSeconds(),
+				TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 保存验证码
+	 *
+	 * @param code 验证码文字
+	 * @return 验证码 id
+	 * @throws RejectedExecutionException 存满了
+	 */
+	public String put(String code) {
+		return ExpiringCodeMap.formatId(codes.put(code));
+	}
+
+	/**
+	 * 取出并删除验证码
+	 *
+	 * @param id 验证码 id
+	 * @return 验证码文字，不存在或已过期返回 null
+	 */
+	public String take(String id) {
+		return codes.take(ExpiringCodeMap.parseId(id));
+	}
+
+	/**
+	 * 把刚取出的验证码按原来的 id 放回去，用于验证码对了但后续处理没能开始（比如加解密线程池满了返回 503），
+	 * 让用户不用重新获取验证码就能重试。有效期从现在重新算
+	 *
+	 * @param id 验证码 id
+	 * @param code 验证码文字
+	 * @return 放回去了返回 true，id 不对或者已经有了返回 false
+	 * @throws RejectedExecutionException 存满了
+	 */
+	public boolean putBack(String id, String code) {
+		return codes.putBack(ExpiringCodeMap.parseId(id), code);
+	}
+
+	/**
+	 * 查看验证码，不删除，只给测试、排查问题用
+	 *
+	 * @param id 验证码 id
+	 * @return 验证码文字，不存在或已过期返回 null
+	 */
+	public String peek(String id) {
+		return codes.peek(ExpiringCodeMap.parseId(id));
+	}
+
+	/** 当前保存的数量（包括还没清理的过期验证码） */
+	public int size() {
+		return codes.size();
+	}
+}
@@ -0,0 +1,68 @@
+package xyz.yuanwl.captcha;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import lombok.Getter;
+import xyz.yuanwl.util.coder.Base64Coder;
+
+/**
+ * <p>data URI（data:类型;base64,内容），序列化成 JSON 字符串，前端可以直接放到 img 的 src 里。
+ * <p>
+ * 序列化时直接把 Base64 编码到各线程复用的字符缓冲区再交给 JsonGenerator 写出，不生成中间的 String。
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 03:40
+ */
+@Getter
+@JsonSerialize(using = DataUri.Serializer.class)
+public final class DataUri {
+
+	/** 类型，如 image/png */
+	private final String contentType;
+	/** 内容 */
+	private final byte[] data;
+
+	public DataUri(String contentType, byte[] data) {
+		this.contentType = contentType;
+		this.data = data;
+	}
+
+	/**
+	 * 序列化成 "data:类型;base64,内容"，Base64 字符不需要 JSON 转义，整个作为原始值写出
+	 */
+	public static final class Serializer extends JsonSerializer<DataUri> {
+
+		private static final String SCHEME = "data:";
+		private static final String BASE64 = ";base64,";
+		private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[4096]);
+
+		@Override
+		public void serialize(DataUri value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+			String type = value.contentType;
+			int len = 1 + SCHEME.length() + type.length() + BASE64.length() + Base64Coder.encodedLength(value.data.length) + 1;
+			char[] buf = BUFFER.get();
+			if (buf.length < len) {
+				buf = new char[Math.max(len, buf.length * 2)];
+				BUFFER.set(buf);
+			}
+			int pos = 0;
+			buf[pos++] = '"';
+			pos = append(SCHEME, buf, pos);
+			pos = append(type, buf, pos);
+			pos = append(BASE64, buf, pos);
+			pos += Base64Coder.encode(value.data, 0, value.data.length, buf, pos, false);
+			buf[pos++] = '"';
+			gen.writeRawValue(buf, 0, pos);
+		}
+
+		private static int append(String s, char[] buf, int pos) {
+			s.getChars(0, s.length(), buf, pos);
+			return pos + s.length();
+		}
+	}
+}
@@ -16,8 +16,13 @@ import org.springframework.stereotype.Component;
 public class AuthProperties {
 	/** 保存用户对象到session的key */
 	public static String KEY_USER = "USER";
-	/** 保存图片验证码到session的key */
+	/** 保存图片验证码到session的key。验证码已不再放 session，见 {@link #KEY_IMG_CODE_ID} */
+	@Deprecated
 	public static String KEY_IMG_CODE = "IMG_CODE";
+	/** 图片验证码 id 的 cookie 名，验证码本身保存在服务端的验证码存储里（final，要用在 @CookieValue 上） */
+	public static final String KEY_IMG_CODE_ID = "IMG_CODE_ID";
+	/** 保存会话密钥（前端用 RSA 公钥包装过来的 AES 密钥）到session的key */
+	public static String KEY_SESSION_KEY = "SESSION_KEY";
 
 	/** 登录用户名 */
 	private String username="dev";
@@ -28,5 +33,54 @@ public class AuthProperties {
 	private Integer imgCodeLen=4;
 	/** 图片验证码类型 */
 	private Integer imgCodeType=0;
+	/** 图片验证码格式：PNG、GIF（调色板，体积小）或 JPEG */
+	private String imgCodeFormat="PNG";
+	/** 图片验证码最小宽度（像素），宽高由前端传，超出范围的返回 400 */
+	private Integer imgCodeMinWidth=20;
+	/** 图片验证码最大宽度（像素） */
+	private Integer imgCodeMaxWidth=400;
+	/** 图片验证码最小高度（像素） */
+	private Integer imgCodeMinHeight=10;
+	/** 图片验证码最大高度（像素），字号按高度算，也限制了字形缓存的大小 */
+	private Integer imgCodeMaxHeight=200;
+
+	/** 图片验证码的有效期（秒） */
+	private Integer imgCodeTtlSeconds=300;
+	/** 图片验证码最多同时保存多少个（每个几十字节），存满了返回 503 */
+	private Integer imgCodeStoreMaxSize=100000;
+
+	/** 画图片验证码的线程数，验证码在专门的线程里画，被刷时不会占满 Tomcat 的线程 */
+	private Integer imgCodeRenderThreads=2;
+	/** 画图片验证码的排队上限，排满了直接返回 503 */
+	private Integer imgCodeRenderQueueSize=64;
+	/** 画图片验证码最多排队多久（毫秒），超过的不再画，直接返回 503，0表示不限 */
+	private Long imgCodeRenderMaxQueueWaitMillis=2000L;
+
+	/** 是否启用图片验证码池，启用后由后台线程预先画好验证码图片，请求直接取 */
+	private Boolean imgCodePoolEnabled=false;
+	/** 图片验证码池每种尺寸最多预生成多少个 */
+	private Integer imgCodePoolSize=256;
+	/** 图片验证码池低水位，少于这么多个时后台不限速全力补充 */
+	private Integer imgCodePoolLowWatermark=32;
+	/** 图片验证码池高于低水位时每秒最多补充多少个（所有尺寸合计），0表示不限速 */
+	private Integer imgCodePoolRefillRate=200;
+	/** 图片验证码池后台线程数 */
+	private Integer imgCodePoolWorkers=1;
+	/** 图片验证码池预生成的尺寸，格式 宽x高，多个用逗号分隔，其他尺寸现画 */
+	private String imgCodePoolSizes="90x30";
+
+	/** 加解密（RSA 私钥解密、签名、验签）的线程数，0表示等于 CPU 核数 */
+	private Integer cryptoThreads=0;
+	/** 加解密的排队上限，排满了直接返回 503 */
+	private Integer cryptoQueueSize=256;
+	/** 加解密最多排队多久（毫秒），超过的不再做，直接返回 503，0表示不限 */
+	private Long cryptoMaxQueueWaitMillis=2000L;
+
+	/** 是否在启动时校准 JCE Provider：每个用到的算法测一遍各 Provider，钉住最快的，见 {@link JceProviderCalibration} */
+	private Boolean jceCalibrationEnabled=false;
+	/** JCE Provider 校准结果缓存文件，环境没变时下次启动直接用，为空则用 ${java.io.tmpdir}/framework-jce-providers.properties */
+	private String jceCalibrationCacheFile="";
+	/** JCE Provider 校准时每个 Provider 每个算法测多少毫秒 */
+	private Long jceCalibrationMillis=200L;
 
 }
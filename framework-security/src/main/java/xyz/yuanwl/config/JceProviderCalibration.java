@@ -0,0 +1,51 @@
+package xyz.yuanwl.config;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javax.annotation.PostConstruct;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import xyz.yuanwl.util.coder.JceProviders;
+import xyz.yuanwl.util.coder.ProviderCalibrator;
+
+/**
+ * <p>启动时校准 JCE Provider（jceCalibrationEnabled 打开时）。
+ * <p>
+ * 用 {@link ProviderCalibrator} 测出每个算法最快的 Provider 钉到 {@link JceProviders}，结果缓存到 jceCalibrationCacheFile，
+ * 环境没变时后面启动直接读缓存，只有第一次启动多花一两秒。要在第一次登录之前钉住，所以放在 Bean 初始化时做。
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 08:00
+ */
+@Slf4j
+@Component
+public class JceProviderCalibration {
+
+	/** 缓存文件默认名，放在临时目录 */
+	private static final String DEFAULT_CACHE_FILE = "framework-jce-providers.properties";
+
+	@Autowired
+	AuthProperties authProperties;
+
+	@PostConstruct
+	public void init() {
+		if (!Boolean.TRUE.equals(authProperties.getJceCalibrationEnabled())) {
+			return;
+		}
+		String file = authProperties.getJceCalibrationCacheFile();
+		Path cacheFile = file == null || file.trim().isEmpty() ? Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_CACHE_FILE)
+				: Paths.get(file.trim());
+		try {
+			new ProviderCalibrator(authProperties.getJceCalibrationMillis()).calibrateAndPin(cacheFile);
+			log.info("JCE Provider 已钉住：{}", JceProviders.getPinned());
+		} catch (RuntimeException e) {
+			// 校准只是优化，失败了用默认 Provider，不影响启动
+			JceProviders.clear();
+			log.warn("JCE Provider 校准失败，使用默认 Provider", e);
+		}
+	}
+}
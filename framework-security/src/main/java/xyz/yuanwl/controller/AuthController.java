@@ -1,18 +1,30 @@
 package xyz.yuanwl.controller;
 
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import xyz.yuanwl.annotation.DoNotCheckLogin;
+import xyz.yuanwl.captcha.CaptchaPool;
+import xyz.yuanwl.captcha.CaptchaStore;
+import xyz.yuanwl.captcha.DataUri;
 import xyz.yuanwl.config.AuthProperties;
+import xyz.yuanwl.crypto.CryptoService;
 import xyz.yuanwl.util.coder.RSACoder;
-import xyz.yuanwl.util.coder.VerificationCoder;
+import xyz.yuanwl.vo.CaptchaImage;
 import xyz.yuanwl.vo.Response;
 import xyz.yuanwl.vo.User;
 
-import javax.imageio.ImageIO;
-import javax.servlet.http.HttpServletResponse;
+import javax.crypto.SecretKey;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
-import java.io.IOException;
+import javax.xml.bind.ValidationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * <p>通用简单安全（登录）控制器
@@ -27,31 +39,91 @@ public class AuthController {
 
 	@Autowired
 	AuthProperties authProperties;
+	@Autowired
+	CaptchaPool captchaPool;
+	@Autowired
+	CaptchaStore captchaStore;
+	@Autowired
+	CryptoService cryptoService;
 
 	/**
-	 * 登录
+	 * 登录。用 RSA 公钥加密的密码交给加解密线程池解密，不占 Tomcat 线程；线程池满了返回 503
 	 * @param session 
 	 * @param user 
+	 * @param imgCodeId 图片验证码 id（cookie），请求参数里带了 captchaId 的优先用 captchaId
 	 * @return xyz.yuanwl.vo.Response
 	 * @author Yuanwl
 	 * @date 2018-11-13 19:13:26
 	 * @version v1.0.0
 	 */
 	@PostMapping
-	public Response login(HttpSession session, User user) throws Exception {
-		// 取出session中的验证码判断
-		String imgCode = (String) session.getAttribute(AuthProperties.KEY_IMG_CODE);
-		if (user.getImgCode().equalsIgnoreCase(imgCode)) {
-			session.removeAttribute(AuthProperties.KEY_IMG_CODE);
-			String pwd = RSACoder.decryptByPriKey(user.getPassword());
-			if (authProperties.getUsername().equals(user.getUsername())
-					&& authProperties.getPassword().equals(pwd)) {
-				session.setAttribute(AuthProperties.KEY_USER, user);
-				return Response.success("登录成功！", user);
-			} else return Response.errNotAuthenticated("用户名或密码错误，登录失败！");
+	public DeferredResult<Response> login(HttpSession session, User user,
+			@CookieValue(name = AuthProperties.KEY_IMG_CODE_ID, required = false) String imgCodeId) throws Exception {
+		DeferredResult<Response> result = new DeferredResult<>();
+		// 表单里 captchaId 留空时 Spring 绑定成 ""，也要回退到 cookie
+		String captchaId = StringUtils.isNotBlank(user.getCaptchaId()) ? user.getCaptchaId() : imgCodeId;
+		// 按验证码 id 从验证码存储里取出验证码判断，取出即作废，不管对不对，防止对同一个验证码反复猜；
+		// 并发请求用同一个验证码的，只有一个能取到，其他的不会再去占加解密线程池
+		String imgCode = captchaStore.take(captchaId);
+		if (imgCode == null || !imgCode.equalsIgnoreCase(user.getImgCode())) {
+			result.setResult(Response.errNotAuthenticated("验证码错误，登录失败！"));
+			return result;
+		}
+		// 已经协商过会话密钥的，密码用会话密钥（AES-GCM）加密，不用再做一次私钥运算，直接解；否则按原来的方式用 RSA 公钥加密
+		SecretKey sessionKey = (SecretKey) session.getAttribute(AuthProperties.KEY_SESSION_KEY);
+		CompletableFuture<String> pwd;
+		if (sessionKey != null) {
+			pwd = CompletableFuture.completedFuture(RSACoder.decryptBySessionKey(sessionKey, user.getPassword()));
 		} else {
-			return Response.errNotAuthenticated("验证码错误，登录失败！");
+			try {
+				pwd = cryptoService.decryptAsync(user.getPassword());
+			} catch (RejectedExecutionException e) {
+				// 线程池满了返回 503，验证码放回去，用户可以直接重试
+				try {
+					captchaStore.putBack(captchaId, imgCode);
+				} catch (RejectedExecutionException full) {
+					e.addSuppressed(full);
+				}
+				throw e;
+			}
 		}
+		pwd.whenComplete((password, e) -> {
+			if (e != null) {
+				result.setErrorResult(e);
+			} else if (authProperties.getUsername().equals(user.getUsername())
+					&& authProperties.getPassword().equals(password)) {
+				session.setAttribute(AuthProperties.KEY_USER, user);
+				result.setResult(Response.success("登录成功！", user));
+			} else {
+				result.setResult(Response.errNotAuthenticated("用户名或密码错误，登录失败！"));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 协商会话密钥。前端随机生成一个 AES 密钥，用 RSA 公钥加密后传过来，后台解开后保存到 session，
+	 * 之后该会话的请求数据（如登录密码）都用这个密钥做 AES-GCM 加密，RSA 私钥运算每个会话只做这一次。
+	 * 私钥运算在加解密线程池里做，线程池满了返回 503
+	 * @param session 
+	 * @param wrappedKey 用 RSA 公钥加密的 AES 密钥，Base64 编码
+	 * @return xyz.yuanwl.vo.Response
+	 * @author Yuanwl
+	 * @date 2026-10-17 16:05:12
+	 * @version v1.0.0
+	 */
+	@PostMapping("sessionKey")
+	public DeferredResult<Response> sessionKey(HttpSession session, @RequestParam String wrappedKey) {
+		DeferredResult<Response> result = new DeferredResult<>();
+		cryptoService.unwrapSessionKeyAsync(wrappedKey).whenComplete((sessionKey, e) -> {
+			if (e != null) {
+				result.setErrorResult(e);
+				return;
+			}
+			session.setAttribute(AuthProperties.KEY_SESSION_KEY, sessionKey);
+			result.setResult(Response.success());
+		});
+		return result;
 	}
 
 	/**
@@ -84,9 +156,8 @@ public class AuthController {
 	}
 
 	/**
-	 * 获取图片验证码
-	 * @param session 
-	 * @param response 
+	 * 获取图片验证码。池里没有现成的就交给专门的有界线程池去画，不占 Tomcat 线程；线程池满了返回 503。
+	 * 验证码保存在验证码存储里，不创建 session，验证码 id 通过 cookie 带回，登录时浏览器会自动带上
 	 * @param imgCodeWidth 
 	 * @param imgCodeHeight 
 	 * @author Yuanwl
@@ -94,20 +165,92 @@ public class AuthController {
 	 * @version v1.0.0
 	 */
 	@GetMapping("imgCode")
-	public void imgCode(HttpSession session, HttpServletResponse response, Integer imgCodeWidth, Integer imgCodeHeight) throws IOException {
-		if (imgCodeWidth != null && imgCodeHeight != null) {
-			// 先生成验证码字符串保存到session
-			String code = VerificationCoder.generateTextCode(authProperties.getImgCodeType(), authProperties.getImgCodeLen(), null);
-			session.setAttribute(AuthProperties.KEY_IMG_CODE, code);
+	public DeferredResult<ResponseEntity<byte[]>> imgCode(HttpServletRequest request, Integer imgCodeWidth, Integer imgCodeHeight)
+			throws ValidationException {
+		DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>();
+		if (imgCodeWidth == null || imgCodeHeight == null) {
+			result.setResult(ResponseEntity.ok().build());
+			return result;
+		}
+		checkImgCodeSize(imgCodeWidth, imgCodeHeight);
+		String cookiePath = request.getContextPath().isEmpty() ? "/" : request.getContextPath();
+		captchaPool.takeAsync(imgCodeWidth, imgCodeHeight).whenComplete((captcha, e) -> {
+			if (e != null) {
+				result.setErrorResult(e);
+				return;
+			}
+			// 验证码字符串保存到验证码存储，id 放 cookie
+			String imgCodeId;
+			try {
+				imgCodeId = captchaStore.put(captcha.getCode());
+			} catch (RuntimeException ex) {
+				result.setErrorResult(ex);
+				return;
+			}
+			// 返回图片验证码到前端，已经编码好，带上 Content-Length 一次写出
+			result.setResult(ResponseEntity.ok()
+					.header(HttpHeaders.SET_COOKIE, imgCodeIdCookie(imgCodeId, cookiePath))
+					.header(HttpHeaders.PRAGMA, "No-cache")
+					.cacheControl(CacheControl.noCache())
+					.header(HttpHeaders.EXPIRES, "0")
+					.contentType(MediaType.parseMediaType(captcha.getContentType()))
+					.contentLength(captcha.getImage().length)
+					.body(captcha.getImage()));
+		});
+		return result;
+	}
 
-			// 设置响应头
-			response.setHeader("Pragma", "No-cache");
-			response.setHeader("Cache-Control", "no-cache");
-			response.setDateHeader("Expires", 0);
-			response.setContentType("image/jpeg");
+	/**
+	 * 获取 JSON 格式的图片验证码：验证码 id 和 data URI 格式的图片，顺带当前登录用户。
+	 * 验证码按 id 保存在服务端，不依赖 session，登录时带上 captchaId 和 imgCode 即可
+	 * @param request 
+	 * @param imgCodeWidth 
+	 * @param imgCodeHeight 
+	 * @return xyz.yuanwl.vo.Response，data 为 {@link CaptchaImage}
+	 * @author Yuanwl
+	 * @date 2026-10-18 04:00:00
+	 * @version v1.0.0
+	 */
+	@GetMapping("captcha")
+	public DeferredResult<Response> captcha(HttpServletRequest request, @RequestParam(defaultValue = "90") int imgCodeWidth,
+			@RequestParam(defaultValue = "30") int imgCodeHeight) throws ValidationException {
+		checkImgCodeSize(imgCodeWidth, imgCodeHeight);
+		// 不创建 session，只是顺便看一下有没有登录
+		HttpSession session = request.getSession(false);
+		User user = session == null ? null : (User) session.getAttribute(AuthProperties.KEY_USER);
+		DeferredResult<Response> result = new DeferredResult<>();
+		captchaPool.takeAsync(imgCodeWidth, imgCodeHeight).whenComplete((captcha, e) -> {
+			if (e != null) {
+				result.setErrorResult(e);
+				return;
+			}
+			try {
+				String captchaId = captchaStore.put(captcha.getCode());
+				result.setResult(Response.success(
+						new CaptchaImage(captchaId, new DataUri(captcha.getContentType(), captcha.getImage()), user)));
+			} catch (RuntimeException ex) {
+				result.setErrorResult(ex);
+			}
+		});
+		return result;
+	}
 
-			// 返回图片验证码到前端
-			ImageIO.write(VerificationCoder.generateImageCode(code, imgCodeWidth, imgCodeHeight), "JPEG", response.getOutputStream());
+	/**
+	 * 宽高由前端传，超出配置范围的不画，返回 400，防止用超大尺寸占满内存和 CPU
+	 */
+	private void checkImgCodeSize(int width, int height) throws ValidationException {
+		if (!captchaPool.isValidSize(width, height)) {
+			throw new ValidationException("图片验证码宽度应在 " + authProperties.getImgCodeMinWidth() + "~"
+					+ authProperties.getImgCodeMaxWidth() + "，高度应在 " + authProperties.getImgCodeMinHeight() + "~"
+					+ authProperties.getImgCodeMaxHeight() + " 之间：" + width + "x" + height);
 		}
 	}
+
+	/**
+	 * 验证码 id 的 cookie，有效期和验证码一样，HttpOnly，前端脚本读不到
+	 */
+	private String imgCodeIdCookie(String imgCodeId, String path) {
+		return AuthProperties.KEY_IMG_CODE_ID + "=" + imgCodeId + "; Max-Age=" + authProperties.getImgCodeTtlSeconds()
+				+ "; Path=" + path + "; HttpOnly";
+	}
 }
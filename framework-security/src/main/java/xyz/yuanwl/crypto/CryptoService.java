@@ -0,0 +1,119 @@
+package xyz.yuanwl.crypto;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import xyz.yuanwl.config.AuthProperties;
+import xyz.yuanwl.util.coder.RSACoder;
+import xyz.yuanwl.util.coder.RSASignature;
+import xyz.yuanwl.util.concurrent.BoundedExecutor;
+
+/**
+ * <p>异步加解密服务：RSA 私钥解密、签名、验签放到专门的有界线程池里做，不占 Tomcat 的线程。
+ * <p>
+ * {@link RSACoder}、{@link RSASignature} 都是同步的静态方法，登录高峰时请求线程都堵在私钥运算上，其他接口也跟着变慢。
+ * 这里用 {@link BoundedExecutor}（和画验证码一样）：
+ * <ul>
+ * <li>线程数默认等于 CPU 核数，私钥运算是纯 CPU 计算，线程再多也不会更快，也就限定了一台机器最多花多少 CPU 在加解密上；</li>
+ * <li>队列有界，满了或排队太久直接拒绝（Web 层返回 503），不会越积越多；</li>
+ * <li>排队长度、排队时间、执行时间、拒绝次数见 {@link #getExecutor()} 的统计。</li>
+ * </ul>
+ * 各方法返回的 Future 在加解密线程里完成，后续回调不要再做耗时操作；提交时队列满了直接抛 {@link RejectedExecutionException}。
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 08:10
+ */
+@Component
+public class CryptoService {
+
+	@Autowired
+	AuthProperties authProperties;
+
+	private BoundedExecutor executor;
+
+	@PostConstruct
+	public void start() {
+		int threads = authProperties.getCryptoThreads() > 0 ? authProperties.getCryptoThreads()
+				: Runtime.getRuntime().availableProcessors();
+		executor = new BoundedExecutor("crypto", threads, authProperties.getCryptoQueueSize(),
+				authProperties.getCryptoMaxQueueWaitMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 用私钥解密，见 {@link RSACoder#decryptByPriKey(String, String...)}
+	 *
+	 * @param encoded 密文
+	 * @param charset 字符编码
+	 * @return 明文
+	 * @throws RejectedExecutionException 线程池满了
+	 */
+	public CompletableFuture<String> decryptAsync(String encoded, String... charset) {
+		return executor.submit(() -> RSACoder.decryptByPriKey(encoded, charset));
+	}
+
+	/**
+	 * 用私钥解开前端包装过来的会话密钥，见 {@link RSACoder#unwrapSessionKey(String)}
+	 *
+	 * @param wrapped 用 RSA 公钥加密的 AES 密钥，Base64 编码
+	 * @return 会话密钥
+	 * @throws RejectedExecutionException 线程池满了
+	 */
+	public CompletableFuture<SecretKey> unwrapSessionKeyAsync(String wrapped) {
+		return executor.submit(() -> RSACoder.unwrapSessionKey(wrapped));
+	}
+
+	/**
+	 * 用私钥签名，见 {@link RSASignature#signToBase64(String, String...)}
+	 *
+	 * @param data 数据
+	 * @param charset 字符编码
+	 * @return 签名，Base64 编码
+	 * @throws RejectedExecutionException 线程池满了
+	 */
+	public CompletableFuture<String> signAsync(String data, String... charset) {
+		return executor.submit(() -> RSASignature.signToBase64(data, charset));
+	}
+
+	/**
+	 * 用公钥验签，见 {@link RSASignature#verifyFromBase64(String, String, String...)}
+	 *
+	 * @param data 数据
+	 * @param signed 签名，Base64 编码
+	 * @param charset 字符编码
+	 * @return 是否通过
+	 * @throws RejectedExecutionException 线程池满了
+	 */
+	public CompletableFuture<Boolean> verifyAsync(String data, String signed, String... charset) {
+		return executor.submit(() -> RSASignature.verifyFromBase64(data, signed, charset));
+	}
+
+	/** 排队中的任务数 */
+	public int getQueueSize() {
+		return executor.getQueueSize();
+	}
+
+	/** 加解密线程池，排队时间、执行时间、拒绝次数见它的统计 */
+	public BoundedExecutor getExecutor() {
+		return executor;
+	}
+
+	@PreDestroy
+	public void close() {
+		if (executor != null) {
+			executor.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "CryptoService{executor=" + executor + "}";
+	}
+}
@@ -0,0 +1,23 @@
+package xyz.yuanwl.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import xyz.yuanwl.captcha.DataUri;
+
+/**
+ * <p>JSON 格式的图片验证码：验证码 id 和 data URI 格式的图片，登录时带上 captchaId，不依赖 session；
+ * 顺便带上当前登录用户，前端启动时一次请求就够了
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 03:45
+ */
+@Data
+@AllArgsConstructor
+public class CaptchaImage {
+	/** 验证码 id，登录时传回来 */
+	private String captchaId;
+	/** 图片，data:image/png;base64,... */
+	private DataUri image;
+	/** 当前登录用户，没登录为 null */
+	private User user;
+}
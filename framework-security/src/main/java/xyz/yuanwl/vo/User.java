@@ -23,4 +23,8 @@ public class User {
 	@JsonIgnore
 	private String imgCode;
 
+	/** JSON 验证码接口返回的验证码 id，为空（或空白）则用 cookie（IMG_CODE_ID）里的验证码 id 到验证码存储里取验证码校验 */
+	@JsonIgnore
+	private String captchaId;
+
 }
@@ -0,0 +1,191 @@
+package xyz.yuanwl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+import xyz.yuanwl.captcha.CaptchaStore;
+import xyz.yuanwl.config.AuthProperties;
+import xyz.yuanwl.controller.AuthController;
+import xyz.yuanwl.crypto.CryptoService;
+import xyz.yuanwl.util.coder.AESCoder;
+import xyz.yuanwl.util.coder.RSACoder;
+import xyz.yuanwl.vo.Response;
+import xyz.yuanwl.vo.User;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>登录、协商会话密钥测试：私钥运算在加解密线程池里做完后异步返回结果，出错时返回异常，
+ * 线程池满了直接抛 RejectedExecutionException（Web 层返回 503），验证码不作废
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 09:20
+ */
+public class AuthControllerTest {
+
+	private AuthProperties authProperties;
+	private CaptchaStore captchaStore;
+	private CryptoService cryptoService;
+	private AuthController controller;
+	private MockHttpSession session;
+
+	@Before
+	public void setUp() {
+		authProperties = new AuthProperties();
+		authProperties.setCryptoThreads(1);
+		authProperties.setCryptoQueueSize(1);
+		captchaStore = new CaptchaStore();
+		ReflectionTestUtils.setField(captchaStore, "authProperties", authProperties);
+		captchaStore.init();
+		cryptoService = new CryptoService();
+		ReflectionTestUtils.setField(cryptoService, "authProperties", authProperties);
+		cryptoService.start();
+		controller = new AuthController();
+		ReflectionTestUtils.setField(controller, "authProperties", authProperties);
+		ReflectionTestUtils.setField(controller, "captchaStore", captchaStore);
+		ReflectionTestUtils.setField(controller, "cryptoService", cryptoService);
+		session = new MockHttpSession();
+	}
+
+	@After
+	public void tearDown() {
+		cryptoService.close();
+	}
+
+	@Test
+	public void testLogin() throws Exception {
+		String captchaId = captchaStore.put("a3Kx");
+		User user = user(RSACoder.encryptByPubKey("111111"), captchaId, "A3KX");
+		Response response = (Response) await(controller.login(session, user, null));
+		assertEquals(200, response.get(Response.KEY_CODE));
+		assertSame(user, session.getAttribute(AuthProperties.KEY_USER));
+		// 验证码用过就作废
+		assertNull(captchaStore.peek(captchaId));
+
+		// 验证码 id 也可以从 cookie 带过来
+		captchaId = captchaStore.put("a3Kx");
+		response = (Response) await(controller.login(session, user(RSACoder.encryptByPubKey("111111"), null, "a3Kx"), captchaId));
+		assertEquals(200, response.get(Response.KEY_CODE));
+
+		// 表单里 captchaId 是空字符串，也用 cookie 里的
+		captchaId = captchaStore.put("a3Kx");
+		response = (Response) await(controller.login(session, user(RSACoder.encryptByPubKey("111111"), "", "a3Kx"), captchaId));
+		assertEquals(200, response.get(Response.KEY_CODE));
+	}
+
+	@Test
+	public void testLoginWrongPassword() throws Exception {
+		String captchaId = captchaStore.put("a3Kx");
+		Response response = (Response) await(controller.login(session, user(RSACoder.encryptByPubKey("222222"), captchaId, "a3Kx"), null));
+		assertEquals(Response.ERR_CODE_NOT_AUTHENTICATED, response.get(Response.KEY_CODE));
+		assertNull(session.getAttribute(AuthProperties.KEY_USER));
+		assertNull(captchaStore.peek(captchaId));
+	}
+
+	@Test
+	public void testLoginWrongCaptcha() throws Exception {
+		String captchaId = captchaStore.put("a3Kx");
+		DeferredResult<Response> result = controller.login(session, user(RSACoder.encryptByPubKey("111111"), captchaId, "b4Ly"), null);
+		// 验证码不对不用解密，直接返回
+		assertTrue(result.hasResult());
+		assertEquals(Response.ERR_CODE_NOT_AUTHENTICATED, ((Response) result.getResult()).get(Response.KEY_CODE));
+		// 猜错了也作废，防止反复猜
+		assertNull(captchaStore.peek(captchaId));
+		assertEquals(0, cryptoService.getExecutor().getRunTime().getCount());
+	}
+
+	@Test
+	public void testLoginCaptchaAlreadyUsed() throws Exception {
+		String captchaId = captchaStore.put("a3Kx");
+		// 别的请求先用掉了验证码，这个请求不再去占加解密线程池
+		captchaStore.take(captchaId);
+		DeferredResult<Response> result = controller.login(session, user(RSACoder.encryptByPubKey("111111"), captchaId, "a3Kx"), null);
+		assertTrue(result.hasResult());
+		assertEquals(Response.ERR_CODE_NOT_AUTHENTICATED, ((Response) result.getResult()).get(Response.KEY_CODE));
+		assertEquals(0, cryptoService.getExecutor().getQueueWait().getCount());
+	}
+
+	@Test
+	public void testLoginDecryptError() throws Exception {
+		String captchaId = captchaStore.put("a3Kx");
+		Object result = await(controller.login(session, user("不是密文", captchaId, "a3Kx"), null));
+		assertTrue(result instanceof Throwable);
+		assertFalse(result instanceof RejectedExecutionException);
+		assertNull(session.getAttribute(AuthProperties.KEY_USER));
+	}
+
+	@Test
+	public void testLoginRejectedKeepsCaptcha() throws Exception {
+		String captchaId = captchaStore.put("a3Kx");
+		String password = RSACoder.encryptByPubKey("111111");
+		try (SaturatedExecutor saturated = SaturatedExecutor.saturate(cryptoService.getExecutor())) {
+			saturated.assertRejected(() -> controller.login(session, user(password, captchaId, "a3Kx"), null));
+			// 返回 503 的请求不作废验证码，用户可以直接重试
+			assertEquals("a3Kx", captchaStore.peek(captchaId));
+			saturated.release();
+		}
+		Response response = (Response) await(controller.login(session, user(RSACoder.encryptByPubKey("111111"), captchaId, "a3Kx"), null));
+		assertEquals(200, response.get(Response.KEY_CODE));
+	}
+
+	@Test
+	public void testSessionKey() throws Exception {
+		SecretKey key = AESCoder.generateKey(AESCoder.DEFAULT_KEY_SIZE);
+		Response response = (Response) await(controller.sessionKey(session, RSACoder.wrapSessionKey(key)));
+		assertEquals(200, response.get(Response.KEY_CODE));
+		SecretKey sessionKey = (SecretKey) session.getAttribute(AuthProperties.KEY_SESSION_KEY);
+		assertArrayEquals(key.getEncoded(), sessionKey.getEncoded());
+
+		// 协商过会话密钥后，登录密码用会话密钥加密，不再走线程池
+		long runs = cryptoService.getExecutor().getRunTime().getCount();
+		String captchaId = captchaStore.put("a3Kx");
+		response = (Response) await(controller.login(session, user(RSACoder.encryptBySessionKey(key, "111111"), captchaId, "a3Kx"), null));
+		assertEquals(200, response.get(Response.KEY_CODE));
+		assertEquals(runs, cryptoService.getExecutor().getRunTime().getCount());
+	}
+
+	@Test
+	public void testSessionKeyError() throws Exception {
+		Object result = await(controller.sessionKey(session, "不是密文"));
+		assertTrue(result instanceof Throwable);
+		assertNull(session.getAttribute(AuthProperties.KEY_SESSION_KEY));
+	}
+
+	@Test
+	public void testSessionKeyRejected() throws Exception {
+		String wrapped = RSACoder.wrapSessionKey(AESCoder.generateKey(AESCoder.DEFAULT_KEY_SIZE));
+		try (SaturatedExecutor saturated = SaturatedExecutor.saturate(cryptoService.getExecutor())) {
+			saturated.assertRejected(() -> controller.sessionKey(session, wrapped));
+		}
+	}
+
+	private static User user(String password, String captchaId, String imgCode) {
+		User user = new User();
+		user.setUsername("dev");
+		user.setPassword(password);
+		user.setCaptchaId(captchaId);
+		user.setImgCode(imgCode);
+		return user;
+	}
+
+	/**
+	 * 等异步结果，出错时返回的是异常
+	 */
+	private static Object await(DeferredResult<?> result) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!result.hasResult()) {
+			if (System.nanoTime() > deadline) {
+				fail("5秒内没有结果");
+			}
+			Thread.sleep(1);
+		}
+		return result.getResult();
+	}
+}
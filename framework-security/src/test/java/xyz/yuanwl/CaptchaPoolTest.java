@@ -0,0 +1,96 @@
+package xyz.yuanwl;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import xyz.yuanwl.captcha.Captcha;
+import xyz.yuanwl.captcha.CaptchaPool;
+import xyz.yuanwl.config.AuthProperties;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>预生成验证码池测试：配置的尺寸直接从池里取，其他尺寸交给线程池现画，线程池满了拒绝，超出范围的尺寸不画
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 09:15
+ */
+public class CaptchaPoolTest {
+
+	private CaptchaPool pool;
+
+	private CaptchaPool start(boolean enabled) {
+		AuthProperties authProperties = new AuthProperties();
+		authProperties.setImgCodePoolEnabled(enabled);
+		authProperties.setImgCodePoolSizes("90x30");
+		authProperties.setImgCodePoolSize(4);
+		authProperties.setImgCodePoolLowWatermark(1);
+		authProperties.setImgCodePoolRefillRate(0);
+		authProperties.setImgCodeRenderThreads(1);
+		authProperties.setImgCodeRenderQueueSize(1);
+		pool = new CaptchaPool();
+		ReflectionTestUtils.setField(pool, "authProperties", authProperties);
+		pool.start();
+		return pool;
+	}
+
+	@After
+	public void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	public void testPooled() throws Exception {
+		start(true);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (pool.getDepths().get("90x30") < 4 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(4, (int) pool.getDepths().get("90x30"));
+
+		CompletableFuture<Captcha> pooled = pool.takeAsync(90, 30);
+		assertTrue("池里有现成的，应该已经完成", pooled.isDone());
+		assertEquals(1, pool.getHits());
+		assertImage(pooled.get(), 90, 30);
+
+		// 不是预生成的尺寸，现画
+		assertImage(pool.takeAsync(100, 40).get(5, TimeUnit.SECONDS), 100, 40);
+		assertEquals(1, pool.getMisses());
+	}
+
+	@Test
+	public void testRejected() throws Exception {
+		start(false);
+		try (SaturatedExecutor saturated = SaturatedExecutor.saturate(pool.getRenderExecutor())) {
+			saturated.assertRejected(() -> pool.takeAsync(90, 30));
+		}
+		assertImage(pool.take(90, 30), 90, 30);
+	}
+
+	@Test
+	public void testInvalidSize() throws Exception {
+		start(false);
+		assertFalse(pool.isValidSize(401, 30));
+		assertFalse(pool.isValidSize(90, 5));
+		try {
+			pool.render(401, 30);
+			fail("超出范围的尺寸不应该画");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static void assertImage(Captcha captcha, int width, int height) throws Exception {
+		assertEquals(4, captcha.getCode().length());
+		assertEquals("image/png", captcha.getContentType());
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(captcha.getImage()));
+		assertEquals(width, image.getWidth());
+		assertEquals(height, image.getHeight());
+	}
+}
@@ -0,0 +1,77 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import xyz.yuanwl.captcha.CaptchaStore;
+import xyz.yuanwl.config.AuthProperties;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>验证码存储测试：取出即作废、查看不作废、放回、不认识的 id、存满了拒绝
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 09:05
+ */
+public class CaptchaStoreTest {
+
+	static CaptchaStore newStore(int maxSize) {
+		AuthProperties authProperties = new AuthProperties();
+		authProperties.setImgCodeStoreMaxSize(maxSize);
+		CaptchaStore store = new CaptchaStore();
+		ReflectionTestUtils.setField(store, "authProperties", authProperties);
+		store.init();
+		return store;
+	}
+
+	@Test
+	public void testPutTake() {
+		CaptchaStore store = newStore(100);
+		String id = store.put("a3Kx");
+		assertEquals(16, id.length());
+		assertEquals("a3Kx", store.peek(id));
+		assertEquals("a3Kx", store.peek(id));
+		assertEquals("a3Kx", store.take(id));
+		assertNull(store.take(id));
+		assertNull(store.peek(id));
+		assertNotEquals(store.put("a3Kx"), store.put("a3Kx"));
+	}
+
+	@Test
+	public void testPutBack() {
+		CaptchaStore store = newStore(100);
+		String id = store.put("a3Kx");
+		assertEquals("a3Kx", store.take(id));
+		assertTrue(store.putBack(id, "a3Kx"));
+		assertEquals("a3Kx", store.take(id));
+		assertFalse(store.putBack("不是验证码id", "a3Kx"));
+	}
+
+	@Test
+	public void testUnknownId() {
+		CaptchaStore store = newStore(100);
+		store.put("a3Kx");
+		assertNull(store.take(null));
+		assertNull(store.take(""));
+		assertNull(store.take("不是验证码id"));
+		assertNull(store.peek("0123456789abcdef"));
+	}
+
+	@Test
+	public void testFull() {
+		CaptchaStore store = newStore(2);
+		String first = store.put("1111");
+		store.put("2222");
+		try {
+			store.put("3333");
+			fail("存满了应该拒绝");
+		} catch (RejectedExecutionException e) {
+			// expected
+		}
+		// 用掉一个就又能存了
+		store.take(first);
+		assertNotNull(store.put("3333"));
+	}
+}
@@ -0,0 +1,79 @@
+package xyz.yuanwl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import xyz.yuanwl.config.AuthProperties;
+import xyz.yuanwl.crypto.CryptoService;
+import xyz.yuanwl.util.coder.AESCoder;
+import xyz.yuanwl.util.coder.RSACoder;
+import xyz.yuanwl.util.coder.RSASignature;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>异步加解密服务测试：结果和同步方法一致，出错时 Future 失败，线程池满了提交时直接拒绝
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 09:00
+ */
+public class CryptoServiceTest {
+
+	private CryptoService cryptoService;
+
+	@Before
+	public void setUp() {
+		AuthProperties authProperties = new AuthProperties();
+		// 一个线程、只排一个，占住线程、排满队列后再提交就会被拒绝
+		authProperties.setCryptoThreads(1);
+		authProperties.setCryptoQueueSize(1);
+		cryptoService = new CryptoService();
+		ReflectionTestUtils.setField(cryptoService, "authProperties", authProperties);
+		cryptoService.start();
+	}
+
+	@After
+	public void tearDown() {
+		cryptoService.close();
+	}
+
+	@Test
+	public void testSuccess() throws Exception {
+		assertEquals("111111", cryptoService.decryptAsync(RSACoder.encryptByPubKey("111111")).get(5, TimeUnit.SECONDS));
+
+		SecretKey key = AESCoder.generateKey(AESCoder.DEFAULT_KEY_SIZE);
+		SecretKey unwrapped = cryptoService.unwrapSessionKeyAsync(RSACoder.wrapSessionKey(key)).get(5, TimeUnit.SECONDS);
+		assertArrayEquals(key.getEncoded(), unwrapped.getEncoded());
+
+		String sign = cryptoService.signAsync("数据").get(5, TimeUnit.SECONDS);
+		assertTrue(RSASignature.verifyFromBase64("数据", sign));
+		assertTrue(cryptoService.verifyAsync("数据", sign).get(5, TimeUnit.SECONDS));
+		assertFalse(cryptoService.verifyAsync("数据!", sign).get(5, TimeUnit.SECONDS));
+		assertEquals(5, cryptoService.getExecutor().getRunTime().getCount());
+	}
+
+	@Test
+	public void testError() throws Exception {
+		try {
+			cryptoService.decryptAsync("不是密文").get(5, TimeUnit.SECONDS);
+			fail("密文不对应该失败");
+		} catch (ExecutionException e) {
+			assertFalse(e.getCause() instanceof RejectedExecutionException);
+		}
+		assertEquals(1, cryptoService.getExecutor().getFailed());
+	}
+
+	@Test
+	public void testRejected() throws Exception {
+		String encrypted = RSACoder.encryptByPubKey("111111");
+		try (SaturatedExecutor saturated = SaturatedExecutor.saturate(cryptoService.getExecutor())) {
+			saturated.assertRejected(() -> cryptoService.decryptAsync(encrypted));
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package xyz.yuanwl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import xyz.yuanwl.captcha.DataUri;
+
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>data URI 序列化测试：和先 Base64 再拼字符串的结果一样，嵌在别的对象里也是合法的 JSON
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 09:10
+ */
+public class DataUriTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void testSerialize() throws Exception {
+		// 最后一个比线程缓冲区大，要扩容
+		for (int size : new int[] { 0, 1, 2, 3, 100, 10000 }) {
+			byte[] data = new byte[size];
+			new Random(size).nextBytes(data);
+			String expected = "data:image/png;base64," + Base64.getEncoder().encodeToString(data);
+			assertEquals("\"" + expected + "\"", mapper.writeValueAsString(new DataUri("image/png", data)));
+
+			JsonNode node = mapper.readTree(mapper.writeValueAsString(
+					Collections.singletonMap("image", new DataUri("image/png", data))));
+			assertEquals(expected, node.get("image").asText());
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package xyz.yuanwl;
+
+import xyz.yuanwl.util.concurrent.BoundedExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * <p>测试用：占住一个线程、队列长度为1的线程池唯一的线程，再排满队列，之后再提交就会被拒绝，直到 release。
+ * 用 try-with-resources 包住，测试失败时也会放开线程
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 10:30
+ */
+final class SaturatedExecutor implements AutoCloseable {
+
+	private final BoundedExecutor executor;
+	private final CountDownLatch release = new CountDownLatch(1);
+	/** 排在队列里的任务 */
+	private final CompletableFuture<Object> queued;
+
+	private SaturatedExecutor(BoundedExecutor executor) throws InterruptedException {
+		this.executor = executor;
+		executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+		while (executor.getActiveCount() == 0) {
+			Thread.sleep(1);
+		}
+		queued = executor.submit(() -> null);
+	}
+
+	/**
+	 * 占满线程池
+	 *
+	 * @param executor 一个线程、队列长度为1的线程池
+	 */
+	static SaturatedExecutor saturate(BoundedExecutor executor) throws InterruptedException {
+		return new SaturatedExecutor(executor);
+	}
+
+	/**
+	 * 断言 action 往线程池提交时被拒绝，拒绝次数加1
+	 */
+	void assertRejected(Action action) throws Exception {
+		long rejected = executor.getRejected();
+		try {
+			action.run();
+			fail("线程池满了应该拒绝");
+		} catch (RejectedExecutionException e) {
+			assertEquals(rejected + 1, executor.getRejected());
+		}
+	}
+
+	/**
+	 * 放开占住的线程，等排队的任务做完，之后线程池就空了
+	 */
+	void release() throws Exception {
+		release.countDown();
+		queued.get(5, TimeUnit.SECONDS);
+	}
+
+	@Override
+	public void close() {
+		release.countDown();
+	}
+
+	/**
+	 * 会往线程池提交任务的操作
+	 */
+	interface Action {
+		void run() throws Exception;
+	}
+}
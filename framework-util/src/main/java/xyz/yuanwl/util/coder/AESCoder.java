@@ -0,0 +1,123 @@
+package xyz.yuanwl.util.coder;
+
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import xyz.yuanwl.util.id.TokenGenerator;
+
+/**
+ * <p>AES-GCM 对称加密解密工具类，配合 {@link RSACoder} 的会话密钥信封使用：
+ * <ol>
+ * <li>前端生成一个随机 AES 密钥，用 RSA 公钥加密（包装）后发给后台，后台用私钥解开并缓存起来，这一步每个会话只做一次；</li>
+ * <li>之后的请求数据都用这个 AES 密钥做 AES-GCM 加密，长度不受 RSA 117 字节的限制，解密也只是对称运算，开销很小。</li>
+ * </ol>
+ * 密文格式：IV(12字节) || 密文 || 认证标签(16字节)。GCM 同一个密钥绝对不能重复用同一个 IV，所以每次加密都随机生成新的 IV，
+ * Cipher 对象每个线程复用一个，每次都要重新 init。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 15:40
+ */
+public final class AESCoder {
+
+	/** 算法类型 */
+	public static final String KEY_ALGORITHM = "AES";
+	/** 加密模式 */
+	public static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+	/** 默认密钥长度（位） */
+	public static final int DEFAULT_KEY_SIZE = 128;
+	/** IV 长度（字节），GCM 推荐12字节 */
+	public static final int IV_LENGTH = 12;
+	/** 认证标签长度（位） */
+	public static final int TAG_LENGTH = 128;
+
+	private static final ThreadLocal<Cipher> CIPHER = new ThreadLocal<>();
+
+	private AESCoder() {
+	}
+
+	/**
+	 * 随机生成 AES 密钥
+	 *
+	 * @param keySize 密钥长度（位），128、192 或 256
+	 * @return 密钥
+	 * @throws NoSuchAlgorithmException
+	 */
+	public static SecretKey generateKey(int keySize) throws NoSuchAlgorithmException {
+		KeyGenerator generator = KeyGenerator.getInstance(KEY_ALGORITHM);
+		generator.init(keySize);
+		return generator.generateKey();
+	}
+
+	/**
+	 * 从字节数组还原 AES 密钥
+	 *
+	 * @param keyBytes 密钥字节，长度必须是16、24或32
+	 * @return 密钥
+	 */
+	public static SecretKey restoreKey(byte[] keyBytes) {
+		int len = keyBytes.length;
+		if (len != 16 && len != 24 && len != 32) {
+			throw new IllegalArgumentException("AES 密钥长度必须是16、24或32字节：" + len);
+		}
+		return new SecretKeySpec(keyBytes, KEY_ALGORITHM);
+	}
+
+	/**
+	 * 加密
+	 *
+	 * @param key 密钥
+	 * @param decoded 明文
+	 * @param aad 附加认证数据，不加密但参与认证，没有就传 null
+	 * @return IV || 密文 || 认证标签
+	 * @throws GeneralSecurityException
+	 */
+	public static byte[] encrypt(SecretKey key, byte[] decoded, byte[] aad) throws GeneralSecurityException {
+		byte[] out = new byte[IV_LENGTH + decoded.length + TAG_LENGTH / 8];
+		// 只有 IV 需要随机，从分条带的 SecureRandom 取，不进 NativePRNG 的全局锁
+		TokenGenerator.getDefault().nextBytes(out, 0, IV_LENGTH);
+		Cipher cipher = cipher();
+		cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, out, 0, IV_LENGTH));
+		if (aad != null) {
+			cipher.updateAAD(aad);
+		}
+		cipher.doFinal(decoded, 0, decoded.length, out, IV_LENGTH);
+		return out;
+	}
+
+	/**
+	 * 解密
+	 *
+	 * @param key 密钥
+	 * @param encoded IV || 密文 || 认证标签
+	 * @param aad 附加认证数据，要和加密时一致，没有就传 null
+	 * @return 明文
+	 * @throws GeneralSecurityException 密钥不对或数据被篡改时抛 AEADBadTagException
+	 */
+	public static byte[] decrypt(SecretKey key, byte[] encoded, byte[] aad) throws GeneralSecurityException {
+		if (encoded.length < IV_LENGTH + TAG_LENGTH / 8) {
+			throw new IllegalArgumentException("密文长度不足：" + encoded.length);
+		}
+		Cipher cipher = cipher();
+		cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, encoded, 0, IV_LENGTH));
+		if (aad != null) {
+			cipher.updateAAD(aad);
+		}
+		return cipher.doFinal(encoded, IV_LENGTH, encoded.length - IV_LENGTH);
+	}
+
+	private static Cipher cipher() throws GeneralSecurityException {
+		Cipher cipher = CIPHER.get();
+		if (cipher == null) {
+			cipher = JceProviders.cipher(CIPHER_ALGORITHM);
+			CIPHER.set(cipher);
+		}
+		return cipher;
+	}
+}
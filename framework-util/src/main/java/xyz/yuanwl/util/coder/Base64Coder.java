@@ -0,0 +1,358 @@
+package xyz.yuanwl.util.coder;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * <p>查表实现的 Base64 编码解码工具，用来替换 sun.misc.BASE64Encoder/BASE64Decoder。
+ * <ul>
+ * <li>整块编码、流式编码解码直接用 JDK 的 java.util.Base64，新版本 JDK 对它有内建优化；</li>
+ * <li>需要编码到调用方提供的 byte[]、char[]、ByteBuffer（指定起始位置）时用本类的查表实现，不产生中间数组；</li>
+ * <li>解码和 commons-codec 一样宽松：标准和 URL 安全两种字符都认，跳过换行、空格等非法字符，遇到 '=' 结束，
+ * 所以 MIME 分行格式（包括以前 sun.misc 生成的）也能直接解码；</li>
+ * <li>解码成新数组时先数出有效字符数，只分配一次刚好大小的数组。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 14:20
+ */
+public final class Base64Coder {
+
+	/** MIME 格式每行字符数，和 sun.misc.BASE64Encoder 一致 */
+	public static final int MIME_LINE_LENGTH = 76;
+
+	private static final byte[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+			.getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] ALPHABET_URL_SAFE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+			.getBytes(StandardCharsets.US_ASCII);
+	private static final byte PAD = '=';
+
+	/** 字符到数值的表，标准和 URL 安全字符都有，其他为-1 */
+	private static final byte[] VALUES = new byte[128];
+
+	static {
+		for (int i = 0; i < VALUES.length; i++) VALUES[i] = -1;
+		for (int i = 0; i < ALPHABET.length; i++) {
+			VALUES[ALPHABET[i]] = (byte) i;
+			VALUES[ALPHABET_URL_SAFE[i]] = (byte) i;
+		}
+	}
+
+	private Base64Coder() {
+	}
+
+	// 编码
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 编码后的长度（带 '=' 填充）
+	 *
+	 * @param len 原始字节数
+	 * @return 编码后的字符数
+	 */
+	public static int encodedLength(int len) {
+		return (len + 2) / 3 * 4;
+	}
+
+	/**
+	 * 编码成标准 Base64 字符串（不分行，带填充）
+	 *
+	 * @param src 字节数组
+	 * @return Base64字符串
+	 */
+	public static String encodeToString(byte[] src) {
+		return Base64.getEncoder().encodeToString(src);
+	}
+
+	/**
+	 * 编码成 MIME 格式：每76个字符一行，每行（包括最后一行）以系统换行符结尾，和 sun.misc.BASE64Encoder.encodeBuffer 的输出一致
+	 *
+	 * @param src 字节数组
+	 * @return Base64字符串
+	 */
+	public static String encodeToMimeString(byte[] src) {
+		if (src.length == 0) {
+			return "";
+		}
+		String separator = System.lineSeparator();
+		return Base64.getMimeEncoder(MIME_LINE_LENGTH, separator.getBytes(StandardCharsets.US_ASCII))
+				.encodeToString(src) + separator;
+	}
+
+	/**
+	 * 把 src 的一段编码成 ASCII 字节写到 dst 的指定位置，dst 至少要有 encodedLength(len) 的空间
+	 *
+	 * @param src 字节数组
+	 * @param off 起始位置
+	 * @param len 长度
+	 * @param dst 输出字节数组
+	 * @param dstOff 输出起始位置
+	 * @param urlSafe 是否用 URL 安全字符（- 和 _）
+	 * @return 写入的字节数
+	 */
+	public static int encode(byte[] src, int off, int len, byte[] dst, int dstOff, boolean urlSafe) {
+		byte[] alphabet = urlSafe ? ALPHABET_URL_SAFE : ALPHABET;
+		int end = off + len - len % 3;
+		int j = dstOff;
+		for (int i = off; i < end; i += 3) {
+			int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+			dst[j++] = alphabet[bits >>> 18];
+			dst[j++] = alphabet[(bits >>> 12) & 0x3F];
+			dst[j++] = alphabet[(bits >>> 6) & 0x3F];
+			dst[j++] = alphabet[bits & 0x3F];
+		}
+		int remain = len % 3;
+		if (remain > 0) {
+			int b0 = src[end] & 0xFF;
+			dst[j++] = alphabet[b0 >>> 2];
+			if (remain == 1) {
+				dst[j++] = alphabet[(b0 << 4) & 0x3F];
+				dst[j++] = PAD;
+			} else {
+				int b1 = src[end + 1] & 0xFF;
+				dst[j++] = alphabet[(b0 << 4) & 0x3F | (b1 >>> 4)];
+				dst[j++] = alphabet[(b1 << 2) & 0x3F];
+			}
+			dst[j++] = PAD;
+		}
+		return j - dstOff;
+	}
+
+	/**
+	 * 把 src 的一段编码后写到 dst 的指定位置，dst 至少要有 encodedLength(len) 的空间
+	 *
+	 * @param src 字节数组
+	 * @param off 起始位置
+	 * @param len 长度
+	 * @param dst 输出字符数组
+	 * @param dstOff 输出起始位置
+	 * @param urlSafe 是否用 URL 安全字符（- 和 _）
+	 * @return 写入的字符数
+	 */
+	public static int encode(byte[] src, int off, int len, char[] dst, int dstOff, boolean urlSafe) {
+		byte[] alphabet = urlSafe ? ALPHABET_URL_SAFE : ALPHABET;
+		int end = off + len - len % 3;
+		int j = dstOff;
+		for (int i = off; i < end; i += 3) {
+			int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+			dst[j++] = (char) alphabet[bits >>> 18];
+			dst[j++] = (char) alphabet[(bits >>> 12) & 0x3F];
+			dst[j++] = (char) alphabet[(bits >>> 6) & 0x3F];
+			dst[j++] = (char) alphabet[bits & 0x3F];
+		}
+		int remain = len % 3;
+		if (remain > 0) {
+			int b0 = src[end] & 0xFF;
+			dst[j++] = (char) alphabet[b0 >>> 2];
+			if (remain == 1) {
+				dst[j++] = (char) alphabet[(b0 << 4) & 0x3F];
+				dst[j++] = (char) PAD;
+			} else {
+				int b1 = src[end + 1] & 0xFF;
+				dst[j++] = (char) alphabet[(b0 << 4) & 0x3F | (b1 >>> 4)];
+				dst[j++] = (char) alphabet[(b1 << 2) & 0x3F];
+			}
+			dst[j++] = (char) PAD;
+		}
+		return j - dstOff;
+	}
+
+	/**
+	 * 把 src 中 position 到 limit 的数据编码后写入 dst，两者的 position 都会前移
+	 *
+	 * @param src 输入
+	 * @param dst 输出，至少要有 encodedLength(src.remaining()) 的剩余空间
+	 * @param urlSafe 是否用 URL 安全字符（- 和 _）
+	 * @return 写入的字节数
+	 */
+	public static int encode(ByteBuffer src, ByteBuffer dst, boolean urlSafe) {
+		int len = src.remaining();
+		int n = encodedLength(len);
+		if (dst.remaining() < n) {
+			throw new IllegalArgumentException("输出缓冲区空间不足，需要" + n + "，剩余" + dst.remaining());
+		}
+		if (src.hasArray() && dst.hasArray()) {
+			encode(src.array(), src.arrayOffset() + src.position(), len, dst.array(), dst.arrayOffset() + dst.position(),
+					urlSafe);
+			src.position(src.limit());
+			dst.position(dst.position() + n);
+			return n;
+		}
+		byte[] alphabet = urlSafe ? ALPHABET_URL_SAFE : ALPHABET;
+		while (src.remaining() >= 3) {
+			int bits = (src.get() & 0xFF) << 16 | (src.get() & 0xFF) << 8 | (src.get() & 0xFF);
+			dst.put(alphabet[bits >>> 18]).put(alphabet[(bits >>> 12) & 0x3F]).put(alphabet[(bits >>> 6) & 0x3F])
+					.put(alphabet[bits & 0x3F]);
+		}
+		if (src.hasRemaining()) {
+			int b0 = src.get() & 0xFF;
+			dst.put(alphabet[b0 >>> 2]);
+			if (!src.hasRemaining()) {
+				dst.put(alphabet[(b0 << 4) & 0x3F]).put(PAD);
+			} else {
+				int b1 = src.get() & 0xFF;
+				dst.put(alphabet[(b0 << 4) & 0x3F | (b1 >>> 4)]).put(alphabet[(b1 << 2) & 0x3F]);
+			}
+			dst.put(PAD);
+		}
+		return n;
+	}
+
+	/**
+	 * 包装输出流，写进去的数据编码成标准 Base64 后写到下层流，关闭时写出结尾的填充并关闭下层流
+	 *
+	 * @param out 下层输出流
+	 * @return 编码输出流
+	 */
+	public static OutputStream wrap(OutputStream out) {
+		return Base64.getEncoder().wrap(out);
+	}
+
+	// 解码
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 解码 Base64 字符序列，null 返回 null
+	 *
+	 * @param src Base64 字符序列
+	 * @return 字节数组
+	 */
+	public static byte[] decode(CharSequence src) {
+		if (src == null) {
+			return null;
+		}
+		int valid = 0;
+		for (int i = 0, n = src.length(); i < n; i++) {
+			char c = src.charAt(i);
+			if (c == PAD) break;
+			if (c < 128 && VALUES[c] >= 0) valid++;
+		}
+		byte[] dst = new byte[valid * 3 / 4];
+		decode(src, 0, src.length(), dst, 0);
+		return dst;
+	}
+
+	/**
+	 * 把 src 的一段解码到 dst 的指定位置，dst 至少要有 len * 3 / 4 的空间
+	 *
+	 * @param src Base64 字符序列
+	 * @param off 起始位置
+	 * @param len 长度
+	 * @param dst 输出字节数组
+	 * @param dstOff 输出起始位置
+	 * @return 写入的字节数
+	 */
+	public static int decode(CharSequence src, int off, int len, byte[] dst, int dstOff) {
+		int bits = 0, count = 0, j = dstOff;
+		for (int i = off, end = off + len; i < end; i++) {
+			char c = src.charAt(i);
+			if (c == PAD) break;
+			int v = c < 128 ? VALUES[c] : -1;
+			if (v < 0) continue;
+			bits = bits << 6 | v;
+			if (++count == 4) {
+				dst[j++] = (byte) (bits >> 16);
+				dst[j++] = (byte) (bits >> 8);
+				dst[j++] = (byte) bits;
+				bits = 0;
+				count = 0;
+			}
+		}
+		return j - dstOff + tail(bits, count, dst, j);
+	}
+
+	/**
+	 * 把 ASCII 字节表示的 Base64 数据解码到 dst 的指定位置，dst 至少要有 len * 3 / 4 的空间
+	 *
+	 * @param src Base64 ASCII 字节
+	 * @param off 起始位置
+	 * @param len 长度
+	 * @param dst 输出字节数组
+	 * @param dstOff 输出起始位置
+	 * @return 写入的字节数
+	 */
+	public static int decode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+		int bits = 0, count = 0, j = dstOff;
+		for (int i = off, end = off + len; i < end; i++) {
+			int c = src[i];
+			if (c == PAD) break;
+			int v = c >= 0 ? VALUES[c] : -1;
+			if (v < 0) continue;
+			bits = bits << 6 | v;
+			if (++count == 4) {
+				dst[j++] = (byte) (bits >> 16);
+				dst[j++] = (byte) (bits >> 8);
+				dst[j++] = (byte) bits;
+				bits = 0;
+				count = 0;
+			}
+		}
+		return j - dstOff + tail(bits, count, dst, j);
+	}
+
+	/**
+	 * 把 src 中 position 到 limit 的数据解码后写入 dst，两者的 position 都会前移
+	 *
+	 * @param src Base64 ASCII 字节
+	 * @param dst 输出，至少要有 src.remaining() * 3 / 4 的剩余空间
+	 * @return 写入的字节数
+	 */
+	public static int decode(ByteBuffer src, ByteBuffer dst) {
+		if (src.hasArray() && dst.hasArray()) {
+			int n = decode(src.array(), src.arrayOffset() + src.position(), src.remaining(), dst.array(),
+					dst.arrayOffset() + dst.position());
+			src.position(src.limit());
+			dst.position(dst.position() + n);
+			return n;
+		}
+		int bits = 0, count = 0, start = dst.position();
+		while (src.hasRemaining()) {
+			int c = src.get();
+			if (c == PAD) break;
+			int v = c >= 0 ? VALUES[c] : -1;
+			if (v < 0) continue;
+			bits = bits << 6 | v;
+			if (++count == 4) {
+				dst.put((byte) (bits >> 16)).put((byte) (bits >> 8)).put((byte) bits);
+				bits = 0;
+				count = 0;
+			}
+		}
+		if (count == 2) {
+			dst.put((byte) (bits >> 4));
+		} else if (count == 3) {
+			dst.put((byte) (bits >> 10)).put((byte) (bits >> 2));
+		}
+		src.position(src.limit());
+		return dst.position() - start;
+	}
+
+	/**
+	 * 包装输入流，从下层流读出 MIME 格式（允许换行）的 Base64 数据并解码
+	 *
+	 * @param in 下层输入流
+	 * @return 解码输入流
+	 */
+	public static InputStream wrap(InputStream in) {
+		return Base64.getMimeDecoder().wrap(in);
+	}
+
+	/**
+	 * 处理不满4个字符的结尾：2个字符出1字节，3个字符出2字节，1个字符丢弃（和 commons-codec 一致）
+	 */
+	private static int tail(int bits, int count, byte[] dst, int j) {
+		if (count == 2) {
+			dst[j] = (byte) (bits >> 4);
+			return 1;
+		}
+		if (count == 3) {
+			dst[j] = (byte) (bits >> 10);
+			dst[j + 1] = (byte) (bits >> 2);
+			return 2;
+		}
+		return 0;
+	}
+}
@@ -1,27 +1,19 @@
 package xyz.yuanwl.util.coder;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.net.URLEncoder;
 import java.security.InvalidKeyException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.UUID;
 
 import javax.crypto.KeyGenerator;
-import javax.crypto.Mac;
 import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.DecoderException;
-import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.binary.Hex;
-import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.lang3.RandomStringUtils;
-
-import sun.misc.*;
+import xyz.yuanwl.util.id.IdGenerator;
+import xyz.yuanwl.util.id.TokenGenerator;
 
 /**
  * 基础编码工具类。注意： <br>
@@ -68,7 +60,7 @@ public class BaseCoder {
 	 * @return 16进制字符串
 	 */
 	public static String bytesToHex(byte[] input) {
-		return Hex.encodeHexString(input);
+		return HexCoder.encodeToString(input);
 	}
 
 	/**
@@ -83,7 +75,11 @@ public class BaseCoder {
 	 * @throws DecoderException
 	 */
 	public static byte[] hexToBytes(String input) throws DecoderException {
-		return Hex.decodeHex(input.toCharArray());
+		try {
+			return HexCoder.decode(input);
+		} catch (IllegalArgumentException e) {
+			throw new DecoderException(e.getMessage(), e);
+		}
 	}
 
 	/**
@@ -97,8 +93,8 @@ public class BaseCoder {
 		// 安卓自带实现，因为安卓用不了Apache的实现，所以只能用自带的实现。注意，Base64.CRLF才对应Apache的默认模式！
 		// return Base64.encodeToString(key, Base64.CRLF);
 
-		// Apache实现，推荐！注意要使用org.apache.commons.codec.binary包下的，否则图片转Base64字符串时，前端无法识别成图片！
-		return new String(Base64.encodeBase64(key));
+		// 以前用 Apache 实现 new String(Base64.encodeBase64(key))，要多复制一次。现在用 JDK 自带实现，输出格式一样（不分行，带填充）
+		return Base64Coder.encodeToString(key);
 	}
 
 	/**
@@ -112,33 +108,34 @@ public class BaseCoder {
 		// 安卓自带实现
 		// return Base64.decode(key, Base64.CRLF);
 
-		// Apache实现
-		return Base64.decodeBase64(key);
+		// 查表实现，和 Apache 实现一样宽松（忽略换行等非法字符），直接解码到刚好大小的数组
+		return Base64Coder.decode(key);
 	}
 
 	/**
-	 * BASE64加密（Sun
-	 * Jdk自带实现，因为是在sun.misc下的类，随时可能会被Java官方删掉，不推荐使用，但是RSA要用到，所以保留）。
+	 * BASE64加密，MIME 分行格式。以前用 sun.misc.BASE64Encoder 实现，新版 JDK 已经没有这个类了，现在改用 JDK 的
+	 * java.util.Base64 实现，输出和原来一致：每76个字符一行，每行以换行符结尾，比较适合保存到文件。
 	 * 
 	 * @param key
 	 * @return
-	 * @throws Exception
 	 */
 	public static String encryptBase64Sun(byte[] key) {
-		return (new BASE64Encoder()).encodeBuffer(key);
+		return Base64Coder.encodeToMimeString(key);
 	}
 
 	/**
-	 * BASE64解密（Sun
-	 * Jdk自带实现，因为是在sun.misc下的类，随时可能会被Java官方删掉，不推荐使用，但是RSA要用到，所以保留）。
+	 * BASE64解密，MIME 分行格式。以前用 sun.misc.BASE64Decoder 实现，现在改用 JDK 的 java.util.Base64 实现。
 	 * 
 	 * @param key
 	 * @return
 	 * @throws IOException 
-	 * @throws Exception
 	 */
 	public static byte[] decryptBase64Sun(String key) throws IOException {
-		return (new BASE64Decoder()).decodeBuffer(key);
+		try {
+			return java.util.Base64.getMimeDecoder().decode(key);
+		} catch (IllegalArgumentException e) {
+			throw new IOException(e.getMessage(), e);
+		}
 	}
 
 	/**
@@ -150,9 +147,7 @@ public class BaseCoder {
 	 * @throws Exception
 	 */
 	public static byte[] encryptMD5(byte[] data) throws NoSuchAlgorithmException {
-		MessageDigest md5 = MessageDigest.getInstance(KEY_MD5);
-		md5.update(data);
-		return md5.digest();
+		return DigestEngine.digest(KEY_MD5, data);
 	}
 
 	/**
@@ -162,7 +157,41 @@ public class BaseCoder {
 	 * @return
 	 */
 	public static String encryptMD5(String str) {
-		return DigestUtils.md5Hex(str);
+		try {
+			return bytesToHex(DigestEngine.digest(KEY_MD5, str));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * MD5加密，输入流到16进制字符串。分块读取，不会把整个流读进内存，读完不关闭流
+	 *
+	 * @param in 输入流
+	 * @return 16进制字符串
+	 * @throws IOException
+	 */
+	public static String encryptMD5(InputStream in) throws IOException {
+		try {
+			return bytesToHex(StreamDigester.digest(KEY_MD5, in));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * MD5加密，文件到16进制字符串。用内存映射读取，适合大文件
+	 *
+	 * @param file 文件
+	 * @return 16进制字符串
+	 * @throws IOException
+	 */
+	public static String encryptMD5(File file) throws IOException {
+		try {
+			return bytesToHex(StreamDigester.digest(KEY_MD5, file.toPath()));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException(e);
+		}
 	}
 
 	/**
@@ -173,11 +202,12 @@ public class BaseCoder {
 	 */
 	public static String encryptTriMD5(String str) {
 		int count = 3;
-		String md5 = str;
-		for (int i = 0; i < count; i++) {
-			md5 = BaseCoder.encryptMD5(md5);
+		try {
+			// 每一轮对上一轮的16进制结果再做MD5，直接在字节层面迭代，不再来回生成 String
+			return bytesToHex(DigestEngine.iterateHex(KEY_MD5, str, count));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException(e);
 		}
-		return md5;
 	}
 
 	/**
@@ -189,11 +219,7 @@ public class BaseCoder {
 	 * @throws Exception
 	 */
 	public static byte[] encryptSHA(byte[] data) throws NoSuchAlgorithmException {
-
-		MessageDigest sha = MessageDigest.getInstance(KEY_SHA);
-		sha.update(data);
-		return sha.digest();
-
+		return DigestEngine.digest(KEY_SHA, data);
 	}
 
 	/**
@@ -206,7 +232,41 @@ public class BaseCoder {
 	 * @return
 	 */
 	public static String encryptSHA(String str) {
-		return DigestUtils.sha1Hex(str);
+		try {
+			return bytesToHex(DigestEngine.digest(KEY_SHA, str));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * SHA加密，输入流到16进制字符串。分块读取，不会把整个流读进内存，读完不关闭流
+	 *
+	 * @param in 输入流
+	 * @return 16进制字符串
+	 * @throws IOException
+	 */
+	public static String encryptSHA(InputStream in) throws IOException {
+		try {
+			return bytesToHex(StreamDigester.digest(KEY_SHA, in));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * SHA加密，文件到16进制字符串。用内存映射读取，适合大文件
+	 *
+	 * @param file 文件
+	 * @return 16进制字符串
+	 * @throws IOException
+	 */
+	public static String encryptSHA(File file) throws IOException {
+		try {
+			return bytesToHex(StreamDigester.digest(KEY_SHA, file.toPath()));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException(e);
+		}
 	}
 
 	/**
@@ -234,22 +294,19 @@ public class BaseCoder {
 	 * @throws Exception
 	 */
 	public static byte[] encryptHMAC(byte[] data, String key) throws NoSuchAlgorithmException, InvalidKeyException {
-
-		SecretKey secretKey = new SecretKeySpec(decryptBase64(key), KEY_MAC);
-		Mac mac = Mac.getInstance(secretKey.getAlgorithm());
-		mac.init(secretKey);
-
-		return mac.doFinal(data);
-
+		// 已 init 的 Mac 按密钥缓存在各线程里，不用每次都解码密钥、重新 init
+		return DigestEngine.hmac(KEY_MAC, key, data);
 	}
 
 	/**
-	 * 将 URL 编码
+	 * 将 URL 编码（UTF-8，查询参数格式），结果和 URLEncoder 一样，不需要转义时直接返回原字符串
+	 * 
+	 * @see UrlCodec#encode(String)
 	 */
 	public static String encodeURL(String str) {
 		String target;
 		try {
-			target = URLEncoder.encode(str, "UTF-8");
+			target = UrlCodec.encode(str);
 		} catch (Exception e) {
 			log.error("编码出错！", e);
 			throw new RuntimeException(e);
@@ -258,12 +315,14 @@ public class BaseCoder {
 	}
 
 	/**
-	 * 将 URL 解码
+	 * 将 URL 解码（UTF-8，查询参数格式），结果和 URLDecoder 一样，没有要解码的字符时直接返回原字符串
+	 * 
+	 * @see UrlCodec#decode(String)
 	 */
 	public static String decodeURL(String str) {
 		String target;
 		try {
-			target = URLDecoder.decode(str, "UTF-8");
+			target = UrlCodec.decode(str);
 		} catch (Exception e) {
 			log.error("解码出错！", e);
 			throw new RuntimeException(e);
@@ -272,17 +331,25 @@ public class BaseCoder {
 	}
 
 	/**
-	 * 创建随机数
+	 * 创建随机数（数字串）
+	 * <p>
+	 * 以前用 RandomStringUtils.randomNumeric，背后是一个共享的 java.util.Random，多线程有竞争，也不安全。
+	 * 现在从按线程分条带的 SecureRandom 里取，可以放心用作短信验证码等。
 	 */
 	public static String createRandom(int count) {
-		return RandomStringUtils.randomNumeric(count);
+		return TokenGenerator.getDefault().numeric(count);
 	}
 
 	/**
 	 * 获取 UUID（32位）
+	 * <p>
+	 * 格式和原来一样是32位大写16进制，但不再是随机 UUID（要走共享的 SecureRandom，还要正则替换、转大写），
+	 * 而是按时间递增的第7版 UUID，直接编码成字符，做主键时插入索引也更快。可以推算出生成时间，不要当作令牌用。
+	 * 
+	 * @see IdGenerator#nextUuidHex()
 	 */
 	public static String createUUID() {
-		return UUID.randomUUID().toString().replaceAll("-", "").toUpperCase();
+		return IdGenerator.getDefault().nextUuidHex();
 	}
 
 	public static void main(String[] args) throws UnsupportedEncodingException, Exception {
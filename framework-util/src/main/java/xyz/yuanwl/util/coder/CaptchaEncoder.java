@@ -0,0 +1,333 @@
+package xyz.yuanwl.util.coder;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStreamImpl;
+
+/**
+ * <p>验证码图片编码器。
+ * <p>
+ * ImageIO.write 每次都要按格式名查找 ImageWriter、新建缓冲区，而且验证码只有几种颜色却编成24位 JPEG。这里：
+ * <ul>
+ * <li>每个线程缓存各格式的 ImageWriter 和输出缓冲区，编码时不再查找、分配；</li>
+ * <li>PNG、GIF 先转成调色板图片：颜色不超过256种时用图片里实际出现的颜色做调色板，无损，
+ * 颜色少时还会用 1/2/4 位索引，比 JPEG 小得多；超过256种时交给 AWT 量化到默认调色板；</li>
+ * <li>编码结果是完整的字节数组，调用方可以先设置 Content-Length 再一次写出；
+ * 不需要留着结果的调用方可以用 {@link #encodeToBuffer} 直接读线程的缓冲区，不用再复制一份。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 02:15
+ */
+public final class CaptchaEncoder {
+
+	/**
+	 * 图片格式
+	 */
+	public enum Format {
+		/** 24位 JPEG，和原来的 ImageIO.write(..., "JPEG", ...) 一样 */
+		JPEG("jpeg", "image/jpeg", false),
+		/** 调色板 PNG，无损，验证码一般最小 */
+		PNG("png", "image/png", true),
+		/** 调色板 GIF */
+		GIF("gif", "image/gif", true);
+
+		private final String formatName;
+		private final String contentType;
+		private final boolean indexed;
+
+		Format(String formatName, String contentType, boolean indexed) {
+			this.formatName = formatName;
+			this.contentType = contentType;
+			this.indexed = indexed;
+		}
+
+		public String getContentType() {
+			return contentType;
+		}
+
+		/**
+		 * 按名字取格式，不区分大小写，JPG 也算 JPEG
+		 *
+		 * @param name 格式名
+		 * @return 格式
+		 * @throws IllegalArgumentException 不支持的格式
+		 */
+		public static Format of(String name) {
+			String upper = name.trim().toUpperCase();
+			return "JPG".equals(upper) ? JPEG : valueOf(upper);
+		}
+	}
+
+	/** 统计颜色的哈希表大小（2的幂），要比256大不少，冲突才少 */
+	private static final int COLOR_TABLE_BITS = 10;
+
+	/** 各线程的 ImageWriter 和输出缓冲区 */
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	private static final class Scratch {
+		final Map<Format, ImageWriter> writers = new EnumMap<>(Format.class);
+		final BufferOutputStream buffer = new BufferOutputStream(4096);
+		/** 统计颜色用的开放寻址哈希表，0 表示空位，颜色存 rgb | 0x1000000 以区分黑色 */
+		final int[] colors = new int[1 << COLOR_TABLE_BITS];
+		/** 哈希表每个位置上的颜色在调色板里的索引 */
+		final int[] indexes = new int[1 << COLOR_TABLE_BITS];
+
+		ImageWriter writer(Format format) {
+			ImageWriter writer = writers.get(format);
+			if (writer == null) {
+				Iterator<ImageWriter> it = ImageIO.getImageWritersByFormatName(format.formatName);
+				if (!it.hasNext()) {
+					throw new IllegalStateException("没有可用的图片编码器：" + format);
+				}
+				writer = it.next();
+				writers.put(format, writer);
+			}
+			return writer;
+		}
+	}
+
+	/**
+	 * 编码结果：线程缓冲区里的前 length 个字节。
+	 * <p>
+	 * 数组是各线程复用的，同一线程下次编码就会被覆盖，不能留着，也不能交给别的线程。
+	 */
+	public static final class Encoded {
+		private final BufferOutputStream buffer;
+
+		private Encoded(BufferOutputStream buffer) {
+			this.buffer = buffer;
+		}
+
+		/** 缓冲区数组，只有前 {@link #length()} 个字节有效 */
+		public byte[] array() {
+			return buffer.buf;
+		}
+
+		/** 编码后的字节数 */
+		public int length() {
+			return buffer.count;
+		}
+	}
+
+	/**
+	 * 写到可复用字节数组里的 ImageOutputStream。
+	 * <p>
+	 * MemoryCacheImageOutputStream 每次新建都要分配自己的块缓存，这里每个线程只建一个，编码前重置。
+	 */
+	private static final class BufferOutputStream extends ImageOutputStreamImpl {
+		byte[] buf;
+		/** 写到过的最大位置，即数据长度 */
+		int count;
+		final Encoded view = new Encoded(this);
+
+		BufferOutputStream(int capacity) {
+			buf = new byte[capacity];
+		}
+
+		/** 清空，下次从头写 */
+		void clear() {
+			count = 0;
+			streamPos = 0;
+			flushedPos = 0;
+			bitOffset = 0;
+			// GIF 编码器会改成小端，不恢复的话下一个 PNG 的整数全写反了
+			setByteOrder(ByteOrder.BIG_ENDIAN);
+		}
+
+		/** 写出还没凑满一个字节的位 */
+		void finish() throws IOException {
+			flushBits();
+		}
+
+		private void ensureCapacity(long capacity) {
+			if (capacity > Integer.MAX_VALUE - 8) {
+				throw new OutOfMemoryError("图片太大：" + capacity);
+			}
+			if (capacity > buf.length) {
+				buf = Arrays.copyOf(buf, (int) Math.max(capacity, Math.min(buf.length * 2L, Integer.MAX_VALUE - 8)));
+			}
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			flushBits();
+			ensureCapacity(streamPos + 1);
+			buf[(int) streamPos++] = (byte) b;
+			count = Math.max(count, (int) streamPos);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			flushBits();
+			ensureCapacity(streamPos + len);
+			System.arraycopy(b, off, buf, (int) streamPos, len);
+			streamPos += len;
+			count = Math.max(count, (int) streamPos);
+		}
+
+		@Override
+		public int read() throws IOException {
+			bitOffset = 0;
+			return streamPos < count ? buf[(int) streamPos++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			bitOffset = 0;
+			if (len == 0) {
+				return 0;
+			}
+			int n = (int) Math.min(len, count - streamPos);
+			if (n <= 0) {
+				return -1;
+			}
+			System.arraycopy(buf, (int) streamPos, b, off, n);
+			streamPos += n;
+			return n;
+		}
+
+		@Override
+		public long length() {
+			return count;
+		}
+	}
+
+	private CaptchaEncoder() {
+	}
+
+	/**
+	 * 编码图片
+	 *
+	 * @param image 图片
+	 * @param format 格式
+	 * @return 编码后的字节
+	 * @throws IOException
+	 */
+	public static byte[] encode(BufferedImage image, Format format) throws IOException {
+		Encoded encoded = encodeToBuffer(image, format);
+		return Arrays.copyOf(encoded.array(), encoded.length());
+	}
+
+	/**
+	 * 编码图片到当前线程的缓冲区，不复制
+	 *
+	 * @param image 图片
+	 * @param format 格式
+	 * @return 编码结果，同一线程下次编码前有效
+	 * @throws IOException
+	 */
+	public static Encoded encodeToBuffer(BufferedImage image, Format format) throws IOException {
+		Scratch scratch = SCRATCH.get();
+		write(scratch, image, format);
+		return scratch.buffer.view;
+	}
+
+	/**
+	 * 编码图片写到输出流
+	 *
+	 * @param image 图片
+	 * @param format 格式
+	 * @param out 输出流，不会关闭
+	 * @throws IOException
+	 */
+	public static void encode(BufferedImage image, Format format, OutputStream out) throws IOException {
+		Encoded encoded = encodeToBuffer(image, format);
+		out.write(encoded.array(), 0, encoded.length());
+	}
+
+	private static void write(Scratch scratch, BufferedImage image, Format format) throws IOException {
+		BufferedImage target = format.indexed ? toIndexed(scratch, image) : image;
+		ImageWriter writer = scratch.writer(format);
+		BufferOutputStream buffer = scratch.buffer;
+		buffer.clear();
+		try {
+			writer.setOutput(buffer);
+			writer.write(target);
+			buffer.finish();
+		} finally {
+			writer.reset();
+		}
+	}
+
+	/**
+	 * 转成调色板图片
+	 */
+	private static BufferedImage toIndexed(Scratch scratch, BufferedImage image) {
+		if (image.getType() == BufferedImage.TYPE_BYTE_INDEXED || image.getType() == BufferedImage.TYPE_BYTE_BINARY) {
+			return image;
+		}
+		int width = image.getWidth(), height = image.getHeight(), n = width * height;
+		int[] pixels = null;
+		if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+			pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		}
+		if (pixels == null || pixels.length != n) {
+			pixels = image.getRGB(0, 0, width, height, null, 0, width);
+		}
+
+		// 统计颜色，超过256种就放弃
+		int[] table = scratch.colors, indexes = scratch.indexes;
+		Arrays.fill(table, 0);
+		int[] palette = new int[256];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			int key = (pixels[i] & 0xFFFFFF) | 0x1000000;
+			int slot = slot(table, key);
+			if (table[slot] == 0) {
+				if (count == 256) {
+					// 颜色太多，交给 AWT 量化到默认的 256 色调色板
+					BufferedImage indexed = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED);
+					Graphics2D g = indexed.createGraphics();
+					try {
+						g.drawImage(image, 0, 0, null);
+					} finally {
+						g.dispose();
+					}
+					return indexed;
+				}
+				table[slot] = key;
+				indexes[slot] = count;
+				palette[count++] = key & 0xFFFFFF;
+			}
+		}
+
+		int bits = count <= 2 ? 1 : count <= 4 ? 2 : count <= 16 ? 4 : 8;
+		IndexColorModel colorModel = new IndexColorModel(bits, count, palette, 0, false, -1, DataBuffer.TYPE_BYTE);
+		WritableRaster raster = colorModel.createCompatibleWritableRaster(width, height);
+		int[] row = new int[width];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				row[x] = indexes[slot(table, (pixels[y * width + x] & 0xFFFFFF) | 0x1000000)];
+			}
+			raster.setSamples(0, y, width, 1, 0, row);
+		}
+		return new BufferedImage(colorModel, raster, false, null);
+	}
+
+	/**
+	 * 在开放寻址哈希表里找颜色所在的位置，没有则返回应该放的空位
+	 */
+	private static int slot(int[] table, int key) {
+		int mask = table.length - 1;
+		int slot = (key * 0x9E3779B1) >>> (32 - COLOR_TABLE_BITS);
+		while (table[slot] != 0 && table[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+}
@@ -0,0 +1,181 @@
+package xyz.yuanwl.util.coder;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+
+/**
+ * <p>已初始化 Cipher 对象池。
+ * <p>
+ * Cipher.getInstance 需要查找 Provider，cipher.init 需要解析、校验密钥，这两步在登录高峰时开销和 RSA 运算本身差不多。
+ * 而 RSA/ECB 这类无 IV 的 Cipher 在 doFinal 之后会自动回到 init 之后的状态，可以直接复用。
+ * <ul>
+ * <li>池是线程封闭的：每个线程各持有一份按（模式, 密钥）索引的 Cipher，互不共享，所以不需要加锁；</li>
+ * <li>每个线程最多缓存 maxPerThread 个 Cipher，超出后按 LRU 淘汰。这是每个线程的上限，不是整个池的：
+ * 整个池最多有 maxPerThread × 用过它的线程数 个 Cipher（Tomcat 工作线程、ForkJoin 公共池、加解密线程池各自一份），
+ * 线程结束后它的那份随之回收；</li>
+ * <li>密钥按对象引用区分，更换密钥对象后旧的 Cipher 会自然被淘汰；</li>
+ * <li>注意：只适用于不需要 IV 的变换（如 RSA/ECB/PKCS1Padding），GCM 之类每次加密都必须换 IV 的不要放进来。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 10:12
+ */
+public final class CipherPool {
+
+	/** 每个线程默认最多缓存的 Cipher 数 */
+	public static final int DEFAULT_MAX_PER_THREAD = 8;
+
+	/** 变换名称，如 RSA/ECB/PKCS1Padding */
+	private final String transformation;
+	/** 每个线程最多缓存的 Cipher 数 */
+	private final int maxPerThread;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private final ThreadLocal<Map<PoolKey, Cipher>> local;
+
+	public CipherPool(String transformation) {
+		this(transformation, DEFAULT_MAX_PER_THREAD);
+	}
+
+	/**
+	 * @param transformation 变换名称，如 RSA/ECB/PKCS1Padding
+	 * @param maxPerThread 每个线程最多缓存的 Cipher 数
+	 */
+	public CipherPool(String transformation, int maxPerThread) {
+		if (maxPerThread <= 0) {
+			throw new IllegalArgumentException("maxPerThread 必须大于0：" + maxPerThread);
+		}
+		this.transformation = transformation;
+		this.maxPerThread = maxPerThread;
+		this.local = ThreadLocal.withInitial(() -> new LinkedHashMap<PoolKey, Cipher>(maxPerThread * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<PoolKey, Cipher> eldest) {
+				if (size() > CipherPool.this.maxPerThread) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		});
+	}
+
+	/**
+	 * 取出当前线程中已用指定模式和密钥初始化好的 Cipher，没有就新建一个并放入池中。
+	 * <p>
+	 * 取出的 Cipher 只能在当前线程里用，并且要在下次调用 acquire 之前用完（doFinal）。
+	 *
+	 * @param mode Cipher.ENCRYPT_MODE 或 Cipher.DECRYPT_MODE
+	 * @param key 公钥或私钥对象
+	 * @return 已初始化的 Cipher
+	 * @throws NoSuchAlgorithmException
+	 * @throws NoSuchPaddingException
+	 * @throws InvalidKeyException
+	 */
+	public Cipher acquire(int mode, Key key)
+			throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException {
+		Map<PoolKey, Cipher> ciphers = local.get();
+		PoolKey poolKey = new PoolKey(mode, key);
+		Cipher cipher = ciphers.get(poolKey);
+		if (cipher != null) {
+			hits.increment();
+			return cipher;
+		}
+		misses.increment();
+		cipher = JceProviders.cipher(transformation);
+		cipher.init(mode, key);
+		ciphers.put(poolKey, cipher);
+		return cipher;
+	}
+
+	/**
+	 * 把当前线程中指定模式和密钥的 Cipher 移出池。doFinal 抛异常后调用，避免复用状态不确定的 Cipher。
+	 *
+	 * @param mode Cipher.ENCRYPT_MODE 或 Cipher.DECRYPT_MODE
+	 * @param key 公钥或私钥对象
+	 */
+	public void invalidate(int mode, Key key) {
+		local.get().remove(new PoolKey(mode, key));
+	}
+
+	/**
+	 * 清空当前线程缓存的所有 Cipher
+	 */
+	public void clear() {
+		local.get().clear();
+	}
+
+	public String getTransformation() {
+		return transformation;
+	}
+
+	/** 每个线程最多缓存的 Cipher 数 */
+	public int getMaxPerThread() {
+		return maxPerThread;
+	}
+
+	/** 命中次数 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** 未命中（新建 Cipher）次数 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** 因超出容量被淘汰的次数 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/** 命中率，还没有调用过时返回0 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0D : (double) h / total;
+	}
+
+	@Override
+	public String toString() {
+		return "CipherPool{" + transformation + ", maxPerThread=" + maxPerThread + ", hits=" + getHits() + ", misses="
+				+ getMisses() + ", evictions=" + getEvictions() + "}";
+	}
+
+	/**
+	 * 池的索引：模式 + 密钥对象引用。密钥的 equals 要比较编码，开销不小，这里按引用比较就够了。
+	 */
+	private static final class PoolKey {
+		private final int mode;
+		private final Key key;
+
+		PoolKey(int mode, Key key) {
+			this.mode = mode;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof PoolKey)) return false;
+			PoolKey other = (PoolKey) o;
+			return mode == other.mode && key == other.key;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(key) + mode;
+		}
+	}
+}
@@ -0,0 +1,438 @@
+package xyz.yuanwl.util.coder;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * <p>可复用的摘要（MD5、SHA）和 HMAC 引擎。
+ * <ul>
+ * <li>MessageDigest 每个线程每种算法只建一个，用完 reset 后继续用；</li>
+ * <li>Mac 按（算法, 密钥）先建一个已 init 的原型，各线程 clone 一份缓存起来，不用每次都解码密钥、new SecretKeySpec、init；</li>
+ * <li>支持 byte[]、ByteBuffer、CharSequence 输入，字符按 UTF-8 分块编码进线程内的缓冲区，不产生中间 String 和 byte[]；</li>
+ * <li>多次迭代摘要（如3次MD5）直接在线程内的缓冲区里做，每一轮对上一轮结果的小写16进制 ASCII 码再求摘要，结果和按字符串迭代一致。</li>
+ * </ul>
+ * 注意：通过 {@link #messageDigest(String)}、{@link #mac(String, byte[])} 拿到的对象属于当前线程，不要传给别的线程，也不要长期持有。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 11:05
+ */
+public final class DigestEngine {
+
+	/** 每个线程最多缓存的已 init 的 Mac 数 */
+	private static final int MAC_CACHE_PER_THREAD = 16;
+	/** Mac 原型最多缓存数，超出后淘汰最久没用的，防止密钥很多时无限增长 */
+	private static final int MAC_PROTOTYPE_MAX = 256;
+	/** 字符编码缓冲区大小 */
+	private static final int ENCODE_BUFFER_SIZE = 1024;
+
+	/** 各线程的 MessageDigest，按算法名称索引 */
+	private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+
+	/** 已 init 的 Mac 原型，只用来 clone，LRU 淘汰；只在线程缓存没命中时才查，用锁保护就够了 */
+	private static final Map<MacKey, Mac> MAC_PROTOTYPES = new LinkedHashMap<MacKey, Mac>(MAC_PROTOTYPE_MAX * 2, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<MacKey, Mac> eldest) {
+			return size() > MAC_PROTOTYPE_MAX;
+		}
+	};
+
+	/** 各线程 clone 出来的 Mac，LRU 淘汰 */
+	private static final ThreadLocal<Map<MacKey, Mac>> MACS = ThreadLocal.withInitial(
+			() -> new LinkedHashMap<MacKey, Mac>(MAC_CACHE_PER_THREAD * 2, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<MacKey, Mac> eldest) {
+					return size() > MAC_CACHE_PER_THREAD;
+				}
+			});
+
+	/** 各线程的字符编码器和缓冲区 */
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	private DigestEngine() {
+	}
+
+	// 摘要
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 获取当前线程的 MessageDigest，已 reset，可以直接 update
+	 *
+	 * @param algorithm 算法，如 MD5、SHA、SHA-256
+	 * @return 当前线程的 MessageDigest
+	 * @throws NoSuchAlgorithmException
+	 */
+	public static MessageDigest messageDigest(String algorithm) throws NoSuchAlgorithmException {
+		Map<String, MessageDigest> digests = DIGESTS.get();
+		MessageDigest md = digests.get(algorithm);
+		if (md == null) {
+			md = JceProviders.messageDigest(algorithm);
+			digests.put(algorithm, md);
+		} else {
+			md.reset();
+		}
+		return md;
+	}
+
+	/**
+	 * 对字节数组求摘要
+	 *
+	 * @param algorithm 算法
+	 * @param data 数据
+	 * @return 摘要
+	 * @throws NoSuchAlgorithmException
+	 */
+	public static byte[] digest(String algorithm, byte[] data) throws NoSuchAlgorithmException {
+		return messageDigest(algorithm).digest(data);
+	}
+
+	/**
+	 * 对 ByteBuffer 中 position 到 limit 的数据求摘要，读完后 position 等于 limit
+	 *
+	 * @param algorithm 算法
+	 * @param data 数据
+	 * @return 摘要
+	 * @throws NoSuchAlgorithmException
+	 */
+	public static byte[] digest(String algorithm, ByteBuffer data) throws NoSuchAlgorithmException {
+		MessageDigest md = messageDigest(algorithm);
+		md.update(data);
+		return md.digest();
+	}
+
+	/**
+	 * 对字符序列按 UTF-8 编码后求摘要，结果和 digest(algorithm, str.getBytes("UTF-8")) 一样
+	 *
+	 * @param algorithm 算法
+	 * @param data 字符序列
+	 * @return 摘要
+	 * @throws NoSuchAlgorithmException
+	 */
+	public static byte[] digest(String algorithm, CharSequence data) throws NoSuchAlgorithmException {
+		MessageDigest md = messageDigest(algorithm);
+		updateUtf8(md, null, data);
+		return md.digest();
+	}
+
+	/**
+	 * 对字节数组的一段求摘要，并把结果写到调用方提供的数组里，整个过程不分配内存
+	 *
+	 * @param algorithm 算法
+	 * @param data 数据
+	 * @param off 数据起始位置
+	 * @param len 数据长度
+	 * @param out 输出数组
+	 * @param outOff 输出起始位置
+	 * @return 摘要长度
+	 * @throws NoSuchAlgorithmException
+	 * @throws DigestException 输出数组空间不够
+	 */
+	public static int digest(String algorithm, byte[] data, int off, int len, byte[] out, int outOff)
+			throws NoSuchAlgorithmException, DigestException {
+		MessageDigest md = messageDigest(algorithm);
+		md.update(data, off, len);
+		return md.digest(out, outOff, out.length - outOff);
+	}
+
+	/**
+	 * 迭代求摘要：第一轮对原始数据求摘要，之后每一轮对上一轮结果的小写16进制 ASCII 码求摘要。
+	 * 结果和循环调用 md5Hex(md5Hex(...)) 一致，只是不再来回生成 String。
+	 *
+	 * @param algorithm 算法
+	 * @param data 原始数据
+	 * @param rounds 轮数，要求大于0
+	 * @return 最后一轮的摘要
+	 * @throws NoSuchAlgorithmException
+	 */
+	public static byte[] iterateHex(String algorithm, byte[] data, int rounds) throws NoSuchAlgorithmException {
+		MessageDigest md = messageDigest(algorithm);
+		md.update(data);
+		return iterateHex(md, rounds);
+	}
+
+	/**
+	 * 迭代求摘要，原始数据按 UTF-8 编码，参见 {@link #iterateHex(String, byte[], int)}
+	 *
+	 * @param algorithm 算法
+	 * @param data 原始字符序列
+	 * @param rounds 轮数，要求大于0
+	 * @return 最后一轮的摘要
+	 * @throws NoSuchAlgorithmException
+	 */
+	public static byte[] iterateHex(String algorithm, CharSequence data, int rounds) throws NoSuchAlgorithmException {
+		MessageDigest md = messageDigest(algorithm);
+		updateUtf8(md, null, data);
+		return iterateHex(md, rounds);
+	}
+
+	private static byte[] iterateHex(MessageDigest md, int rounds) {
+		if (rounds <= 0) {
+			throw new IllegalArgumentException("rounds 必须大于0：" + rounds);
+		}
+		int len = md.getDigestLength();
+		if (len <= 0 || rounds == 1) {
+			// 个别 Provider 不报摘要长度，只能走普通路径
+			byte[] result = md.digest();
+			for (int i = 1; i < rounds; i++) {
+				result = md.digest(HexCoder.encode(result, 0, result.length, new byte[result.length * 2], 0, false));
+			}
+			return result;
+		}
+		Scratch scratch = SCRATCH.get();
+		byte[] digest = scratch.digest(len);
+		byte[] hex = scratch.hex(len * 2);
+		try {
+			md.digest(digest, 0, len);
+			for (int i = 1; i < rounds; i++) {
+				md.update(HexCoder.encode(digest, 0, len, hex, 0, false), 0, len * 2);
+				md.digest(digest, 0, len);
+			}
+		} catch (DigestException e) {
+			// 缓冲区长度就是摘要长度，不会走到这里
+			throw new IllegalStateException(e);
+		}
+		return Arrays.copyOf(digest, len);
+	}
+
+	// HMAC
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 获取当前线程中已用指定密钥 init 的 Mac，可以直接 update
+	 *
+	 * @param algorithm 算法，如 HmacMD5、HmacSHA256
+	 * @param key 密钥
+	 * @return 当前线程的 Mac
+	 * @throws NoSuchAlgorithmException
+	 * @throws InvalidKeyException
+	 */
+	public static Mac mac(String algorithm, byte[] key) throws NoSuchAlgorithmException, InvalidKeyException {
+		return mac(new MacKey(algorithm, key));
+	}
+
+	/**
+	 * 获取当前线程中已用指定 Base64 密钥 init 的 Mac。按密钥字符串缓存，命中时不用再 Base64 解码
+	 *
+	 * @param algorithm 算法，如 HmacMD5、HmacSHA256
+	 * @param keyBase64 用 Base64 编码的密钥
+	 * @return 当前线程的 Mac
+	 * @throws NoSuchAlgorithmException
+	 * @throws InvalidKeyException
+	 */
+	public static Mac mac(String algorithm, String keyBase64) throws NoSuchAlgorithmException, InvalidKeyException {
+		return mac(new MacKey(algorithm, keyBase64));
+	}
+
+	/**
+	 * HMAC 字节数组
+	 *
+	 * @param algorithm 算法
+	 * @param keyBase64 用 Base64 编码的密钥
+	 * @param data 数据
+	 * @return HMAC
+	 * @throws NoSuchAlgorithmException
+	 * @throws InvalidKeyException
+	 */
+	public static byte[] hmac(String algorithm, String keyBase64, byte[] data)
+			throws NoSuchAlgorithmException, InvalidKeyException {
+		return mac(algorithm, keyBase64).doFinal(data);
+	}
+
+	/**
+	 * HMAC 字节数组
+	 *
+	 * @param algorithm 算法
+	 * @param key 密钥
+	 * @param data 数据
+	 * @return HMAC
+	 * @throws NoSuchAlgorithmException
+	 * @throws InvalidKeyException
+	 */
+	public static byte[] hmac(String algorithm, byte[] key, byte[] data)
+			throws NoSuchAlgorithmException, InvalidKeyException {
+		return mac(algorithm, key).doFinal(data);
+	}
+
+	/**
+	 * HMAC ByteBuffer 中 position 到 limit 的数据
+	 *
+	 * @param algorithm 算法
+	 * @param key 密钥
+	 * @param data 数据
+	 * @return HMAC
+	 * @throws NoSuchAlgorithmException
+	 * @throws InvalidKeyException
+	 */
+	public static byte[] hmac(String algorithm, byte[] key, ByteBuffer data)
+			throws NoSuchAlgorithmException, InvalidKeyException {
+		Mac mac = mac(algorithm, key);
+		mac.update(data);
+		return mac.doFinal();
+	}
+
+	/**
+	 * HMAC 字符序列（UTF-8 编码）
+	 *
+	 * @param algorithm 算法
+	 * @param key 密钥
+	 * @param data 字符序列
+	 * @return HMAC
+	 * @throws NoSuchAlgorithmException
+	 * @throws InvalidKeyException
+	 */
+	public static byte[] hmac(String algorithm, byte[] key, CharSequence data)
+			throws NoSuchAlgorithmException, InvalidKeyException {
+		Mac mac = mac(algorithm, key);
+		updateUtf8(null, mac, data);
+		return mac.doFinal();
+	}
+
+	private static Mac mac(MacKey macKey) throws NoSuchAlgorithmException, InvalidKeyException {
+		Map<MacKey, Mac> macs = MACS.get();
+		Mac mac = macs.get(macKey);
+		if (mac != null) {
+			// 上次 doFinal 后已自动 reset，这里是防止上次只 update 没 doFinal
+			mac.reset();
+			return mac;
+		}
+		// 缓存里存一份密钥拷贝，防止调用方之后改动字节数组
+		macKey = macKey.copy();
+		Mac prototype;
+		synchronized (MAC_PROTOTYPES) {
+			prototype = MAC_PROTOTYPES.get(macKey);
+		}
+		if (prototype == null) {
+			// init 放在锁外面，两个线程同时 init 同一个密钥也只是多做一次
+			prototype = newMac(macKey);
+			synchronized (MAC_PROTOTYPES) {
+				MAC_PROTOTYPES.putIfAbsent(macKey, prototype);
+			}
+		}
+		try {
+			mac = (Mac) prototype.clone();
+		} catch (CloneNotSupportedException e) {
+			// 有的 Provider 不支持 clone，只能自己 init 一个
+			mac = newMac(macKey);
+		}
+		macs.put(macKey, mac);
+		return mac;
+	}
+
+	private static Mac newMac(MacKey macKey) throws NoSuchAlgorithmException, InvalidKeyException {
+		byte[] keyBytes = macKey.key instanceof String ? BaseCoder.decryptBase64((String) macKey.key) : (byte[]) macKey.key;
+		Mac mac = JceProviders.mac(macKey.algorithm);
+		mac.init(new SecretKeySpec(keyBytes, macKey.algorithm));
+		return mac;
+	}
+
+	// 内部工具
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 把字符序列分块编码成 UTF-8，依次喂给 md 或 mac（二选一），不合法的代理字符按 String.getBytes 的方式替换成 '?'
+	 */
+	private static void updateUtf8(MessageDigest md, Mac mac, CharSequence data) {
+		Scratch scratch = SCRATCH.get();
+		CharsetEncoder encoder = scratch.encoder.reset();
+		ByteBuffer out = scratch.encodeBuffer;
+		CharBuffer in = CharBuffer.wrap(data);
+		while (true) {
+			out.clear();
+			CoderResult result = encoder.encode(in, out, true);
+			if (result.isError()) {
+				// 已设置为 REPLACE，不会出现
+				throw new IllegalStateException(result.toString());
+			}
+			boolean done = result.isUnderflow();
+			if (done) {
+				encoder.flush(out);
+			}
+			out.flip();
+			if (md != null) {
+				md.update(out);
+			} else {
+				mac.update(out);
+			}
+			if (done) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 每个线程一份的临时缓冲区
+	 */
+	private static final class Scratch {
+		final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		final ByteBuffer encodeBuffer = ByteBuffer.allocate(ENCODE_BUFFER_SIZE);
+		private byte[] digest = new byte[64];
+		private byte[] hex = new byte[128];
+
+		byte[] digest(int len) {
+			if (digest.length < len) digest = new byte[len];
+			return digest;
+		}
+
+		byte[] hex(int len) {
+			if (hex.length < len) hex = new byte[len];
+			return hex;
+		}
+	}
+
+	/**
+	 * Mac 缓存的索引：算法 + 密钥。密钥可以是 Base64 字符串，也可以是字节数组（按内容比较）
+	 */
+	private static final class MacKey {
+		final String algorithm;
+		final Object key;
+		private final int hash;
+
+		MacKey(String algorithm, Object key) {
+			this.algorithm = algorithm;
+			this.key = key;
+			int h = key instanceof byte[] ? Arrays.hashCode((byte[]) key) : key.hashCode();
+			this.hash = 31 * algorithm.hashCode() + h;
+		}
+
+		MacKey copy() {
+			return key instanceof byte[] ? new MacKey(algorithm, ((byte[]) key).clone()) : this;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof MacKey)) return false;
+			MacKey other = (MacKey) o;
+			if (hash != other.hash || !algorithm.equals(other.algorithm)) return false;
+			if (key instanceof byte[]) {
+				return other.key instanceof byte[] && Arrays.equals((byte[]) key, (byte[]) other.key);
+			}
+			return key.equals(other.key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package xyz.yuanwl.util.coder;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>字形图集：某个字号下每个字符预先光栅化好的覆盖度蒙版。
+ * <p>
+ * 用 AWT 字体管线画字很慢，内部还有锁，服务器上第一次用还要加载字体。这里每个字号只用 AWT 画一次，
+ * 把每个字符的像素覆盖度（0~255）存成 byte 数组，之后画验证码直接按蒙版往 int[] 像素里混色，
+ * 不再经过字体管线，多线程没有竞争。
+ * <ul>
+ * <li>每个字符第一次用到时才画，验证码只用到字母表里的几十个字符；</li>
+ * <li>字号不超过 {@value #MAX_FONT_SIZE}，最多缓存 {@value #MAX_CACHED_SIZES} 种字号，按最近使用时间淘汰，
+ * 字号由图片高度算出来，而高度是前端传的，不能让它把缓存撑大；</li>
+ * <li>字号和 {@link VerificationCoder} 原来一样用 "Default" 逻辑字体，不开抗锯齿，画出来的样子不变。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 01:30
+ */
+public final class GlyphAtlas {
+
+	/** 字体名，和原来 Graphics.drawString 用的一样 */
+	private static final String FONT_NAME = "Default";
+	/** 最大字号（像素），验证码图片高度 200 时的字号 */
+	public static final int MAX_FONT_SIZE = 160;
+	/** 用数组存的字符范围：ASCII 可见字符 */
+	private static final char FIRST = 33, LAST = 126;
+	/** 最多缓存多少种字号 */
+	private static final int MAX_CACHED_SIZES = 8;
+
+	/** 按字号缓存的图集；命中时不加锁，只有新建、淘汰时才锁 {@link #ATLASES_LOCK} */
+	private static final ConcurrentMap<Integer, GlyphAtlas> ATLASES = new ConcurrentHashMap<>();
+	private static final Object ATLASES_LOCK = new Object();
+
+	private final int fontSize;
+	private final Font font;
+	/** 最近一次用到的时间（约毫秒），淘汰时按它近似 LRU；同一毫秒内不重复写，免得各线程抢同一个缓存行 */
+	private volatile long lastUsed;
+	/** ASCII 字符的蒙版，用到时才画；多个线程同时画同一个字符只是多画一次，Glyph 的字段都是 final，直接写数组是安全的 */
+	private final Glyph[] ascii = new Glyph[LAST + 1];
+	private final ConcurrentMap<Character, Glyph> others = new ConcurrentHashMap<>();
+
+	/**
+	 * 一个字符的蒙版
+	 */
+	public static final class Glyph {
+		/** 蒙版宽高 */
+		final int width, height;
+		/** 蒙版左上角相对于画笔位置（基线左端）的偏移 */
+		final int offsetX, offsetY;
+		/** 每个像素的覆盖度，0~255，按行存 */
+		final byte[] coverage;
+
+		Glyph(int width, int height, int offsetX, int offsetY, byte[] coverage) {
+			this.width = width;
+			this.height = height;
+			this.offsetX = offsetX;
+			this.offsetY = offsetY;
+			this.coverage = coverage;
+		}
+	}
+
+	private GlyphAtlas(int fontSize) {
+		this.fontSize = fontSize;
+		this.font = new Font(FONT_NAME, Font.PLAIN, fontSize);
+	}
+
+	/**
+	 * 取某个字号的图集，没有就建一个（不画任何字符，很轻）
+	 *
+	 * @param fontSize 字号（像素），1~{@value #MAX_FONT_SIZE}
+	 * @return 图集
+	 */
+	public static GlyphAtlas forSize(int fontSize) {
+		if (fontSize <= 0 || fontSize > MAX_FONT_SIZE) {
+			throw new IllegalArgumentException("字号必须在 1~" + MAX_FONT_SIZE + " 之间：" + fontSize);
+		}
+		long now = System.nanoTime() >>> 20;
+		GlyphAtlas atlas = ATLASES.get(fontSize);
+		if (atlas == null) {
+			synchronized (ATLASES_LOCK) {
+				atlas = ATLASES.get(fontSize);
+				if (atlas == null) {
+					if (ATLASES.size() >= MAX_CACHED_SIZES) {
+						evictLeastRecentlyUsed();
+					}
+					atlas = new GlyphAtlas(fontSize);
+					atlas.lastUsed = now;
+					ATLASES.put(fontSize, atlas);
+				}
+			}
+		}
+		if (atlas.lastUsed != now) {
+			atlas.lastUsed = now;
+		}
+		return atlas;
+	}
+
+	/**
+	 * 淘汰最久没用的字号，调用方持有 {@link #ATLASES_LOCK}
+	 */
+	private static void evictLeastRecentlyUsed() {
+		GlyphAtlas eldest = null;
+		for (GlyphAtlas atlas : ATLASES.values()) {
+			if (eldest == null || atlas.lastUsed < eldest.lastUsed) {
+				eldest = atlas;
+			}
+		}
+		if (eldest != null) {
+			ATLASES.remove(eldest.fontSize);
+		}
+	}
+
+	/**
+	 * 取一个字符的蒙版
+	 *
+	 * @param c 字符
+	 * @return 蒙版，空白字符的蒙版宽高可能为0
+	 */
+	public Glyph glyph(char c) {
+		if (c >= FIRST && c <= LAST) {
+			Glyph glyph = ascii[c];
+			if (glyph == null) {
+				ascii[c] = glyph = rasterize(c);
+			}
+			return glyph;
+		}
+		return others.computeIfAbsent(c, this::rasterize);
+	}
+
+	public int getFontSize() {
+		return fontSize;
+	}
+
+	/**
+	 * 用 AWT 把字符画到灰度图上，白字黑底，灰度值就是覆盖度
+	 */
+	private Glyph rasterize(char c) {
+		// 先用一个 1x1 的图拿字体度量
+		BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+		Graphics2D g = probe.createGraphics();
+		FontMetrics metrics = g.getFontMetrics(font);
+		g.dispose();
+
+		// 斜体、宽字符可能画出边界，左右各留一个字号的余量，画完再裁掉空白
+		int pad = fontSize;
+		int cellWidth = metrics.charWidth(c) + pad * 2;
+		int cellHeight = metrics.getAscent() + metrics.getDescent() + pad * 2;
+		BufferedImage cell = new BufferedImage(Math.max(cellWidth, 1), Math.max(cellHeight, 1), BufferedImage.TYPE_BYTE_GRAY);
+		g = cell.createGraphics();
+		g.setColor(Color.WHITE);
+		g.setFont(font);
+		int baselineX = pad, baselineY = pad + metrics.getAscent();
+		g.drawString(String.valueOf(c), baselineX, baselineY);
+		g.dispose();
+
+		byte[] pixels = ((DataBufferByte) cell.getRaster().getDataBuffer()).getData();
+		int w = cell.getWidth(), h = cell.getHeight();
+		int minX = w, minY = h, maxX = -1, maxY = -1;
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				if (pixels[y * w + x] != 0) {
+					minX = Math.min(minX, x);
+					maxX = Math.max(maxX, x);
+					minY = Math.min(minY, y);
+					maxY = Math.max(maxY, y);
+				}
+			}
+		}
+		if (maxX < 0) {
+			return new Glyph(0, 0, 0, 0, new byte[0]);
+		}
+		int gw = maxX - minX + 1, gh = maxY - minY + 1;
+		byte[] coverage = new byte[gw * gh];
+		for (int y = 0; y < gh; y++) {
+			System.arraycopy(pixels, (minY + y) * w + minX, coverage, y * gw, gw);
+		}
+		return new Glyph(gw, gh, minX - baselineX, minY - baselineY, coverage);
+	}
+}
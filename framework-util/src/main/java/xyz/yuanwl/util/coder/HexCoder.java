@@ -0,0 +1,174 @@
+package xyz.yuanwl.util.coder;
+
+/**
+ * <p>查表实现的16进制编码解码工具，可以直接编码到调用方提供的 char[]、byte[] 里（指定起始位置），也可以从 CharSequence 直接解码到 byte[]。
+ * <p>
+ * 编码输出小写，和 commons-codec 的 Hex 一致；解码大小写都接受，长度为奇数或含非16进制字符时抛 IllegalArgumentException。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 14:02
+ */
+public final class HexCoder {
+
+	private static final char[] DIGITS_LOWER = "0123456789abcdef".toCharArray();
+	private static final char[] DIGITS_UPPER = "0123456789ABCDEF".toCharArray();
+
+	/** 字符到数值的表，非16进制字符为-1 */
+	private static final byte[] VALUES = new byte[128];
+
+	static {
+		for (int i = 0; i < VALUES.length; i++) VALUES[i] = -1;
+		for (int i = 0; i < 10; i++) VALUES['0' + i] = (byte) i;
+		for (int i = 0; i < 6; i++) {
+			VALUES['a' + i] = (byte) (10 + i);
+			VALUES['A' + i] = (byte) (10 + i);
+		}
+	}
+
+	private HexCoder() {
+	}
+
+	/**
+	 * 编码成小写16进制字符串
+	 *
+	 * @param src 字节数组
+	 * @return 16进制字符串
+	 */
+	public static String encodeToString(byte[] src) {
+		return new String(encode(src, 0, src.length, new char[src.length * 2], 0, false));
+	}
+
+	/**
+	 * 编码成16进制字符串
+	 *
+	 * @param src 字节数组
+	 * @param upperCase 是否输出大写
+	 * @return 16进制字符串
+	 */
+	public static String encodeToString(byte[] src, boolean upperCase) {
+		return new String(encode(src, 0, src.length, new char[src.length * 2], 0, upperCase));
+	}
+
+	/**
+	 * 把 src 的一段编码到 dst 的指定位置，dst 至少要有 len * 2 的空间
+	 *
+	 * @param src 字节数组
+	 * @param off 起始位置
+	 * @param len 长度
+	 * @param dst 输出字符数组
+	 * @param dstOff 输出起始位置
+	 * @param upperCase 是否输出大写
+	 * @return dst
+	 */
+	public static char[] encode(byte[] src, int off, int len, char[] dst, int dstOff, boolean upperCase) {
+		char[] digits = upperCase ? DIGITS_UPPER : DIGITS_LOWER;
+		for (int i = off, end = off + len, j = dstOff; i < end; i++) {
+			int b = src[i] & 0xFF;
+			dst[j++] = digits[b >>> 4];
+			dst[j++] = digits[b & 0x0F];
+		}
+		return dst;
+	}
+
+	/**
+	 * 把 src 的一段编码成 ASCII 字节写到 dst 的指定位置，dst 至少要有 len * 2 的空间
+	 *
+	 * @param src 字节数组
+	 * @param off 起始位置
+	 * @param len 长度
+	 * @param dst 输出字节数组
+	 * @param dstOff 输出起始位置
+	 * @param upperCase 是否输出大写
+	 * @return dst
+	 */
+	public static byte[] encode(byte[] src, int off, int len, byte[] dst, int dstOff, boolean upperCase) {
+		char[] digits = upperCase ? DIGITS_UPPER : DIGITS_LOWER;
+		for (int i = off, end = off + len, j = dstOff; i < end; i++) {
+			int b = src[i] & 0xFF;
+			dst[j++] = (byte) digits[b >>> 4];
+			dst[j++] = (byte) digits[b & 0x0F];
+		}
+		return dst;
+	}
+
+	/**
+	 * 把一个 long 按大端编码成16个16进制字符写到 dst 的指定位置（高位的0也输出）
+	 *
+	 * @param value 数值
+	 * @param dst 输出字符数组，至少要有16个字符的空间
+	 * @param dstOff 输出起始位置
+	 * @param upperCase 是否输出大写
+	 * @return dst
+	 */
+	public static char[] encode(long value, char[] dst, int dstOff, boolean upperCase) {
+		char[] digits = upperCase ? DIGITS_UPPER : DIGITS_LOWER;
+		for (int j = dstOff + 15; j >= dstOff; j--) {
+			dst[j] = digits[(int) value & 0x0F];
+			value >>>= 4;
+		}
+		return dst;
+	}
+
+	/**
+	 * 解码16进制字符序列
+	 *
+	 * @param src 16进制字符序列
+	 * @return 字节数组
+	 */
+	public static byte[] decode(CharSequence src) {
+		byte[] dst = new byte[decodedLength(src.length())];
+		decode(src, 0, src.length(), dst, 0);
+		return dst;
+	}
+
+	/**
+	 * 把 src 的一段解码到 dst 的指定位置
+	 *
+	 * @param src 16进制字符序列
+	 * @param off 起始位置
+	 * @param len 长度，必须是偶数
+	 * @param dst 输出字节数组
+	 * @param dstOff 输出起始位置
+	 * @return 写入的字节数
+	 */
+	public static int decode(CharSequence src, int off, int len, byte[] dst, int dstOff) {
+		int n = decodedLength(len);
+		for (int i = off, j = dstOff, end = off + len; i < end; i += 2) {
+			dst[j++] = (byte) ((value(src.charAt(i), i) << 4) | value(src.charAt(i + 1), i + 1));
+		}
+		return n;
+	}
+
+	/**
+	 * 把 ASCII 字节表示的16进制数据解码到 dst 的指定位置
+	 *
+	 * @param src 16进制 ASCII 字节
+	 * @param off 起始位置
+	 * @param len 长度，必须是偶数
+	 * @param dst 输出字节数组
+	 * @param dstOff 输出起始位置
+	 * @return 写入的字节数
+	 */
+	public static int decode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+		int n = decodedLength(len);
+		for (int i = off, j = dstOff, end = off + len; i < end; i += 2) {
+			dst[j++] = (byte) ((value((char) (src[i] & 0xFF), i) << 4) | value((char) (src[i + 1] & 0xFF), i + 1));
+		}
+		return n;
+	}
+
+	private static int decodedLength(int len) {
+		if ((len & 1) != 0) {
+			throw new IllegalArgumentException("16进制字符串长度必须是偶数：" + len);
+		}
+		return len >> 1;
+	}
+
+	private static int value(char c, int index) {
+		int v = c < 128 ? VALUES[c] : -1;
+		if (v < 0) {
+			throw new IllegalArgumentException("非法的16进制字符 " + c + "，位置：" + index);
+		}
+		return v;
+	}
+}
@@ -0,0 +1,119 @@
+package xyz.yuanwl.util.coder;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Signature;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+
+/**
+ * <p>JCE 对象的统一创建入口：各算法可以指定（钉住）用哪个 Provider，没有指定的按 JDK 默认顺序查找。
+ * <p>
+ * {@link DigestEngine}、{@link CipherPool}、{@link SignaturePool}、{@link AESCoder} 新建 MessageDigest、Mac、Cipher、Signature
+ * 都从这里取，所以一处指定、全局生效。一般由 {@link ProviderCalibrator} 在启动时测出每个算法最快的 Provider 后钉住。
+ * <p>
+ * 注意：各对象池按线程缓存已经建好的对象，钉住之前建好的不会换，所以要在启动时、第一次加解密之前钉住。
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 07:40
+ */
+public final class JceProviders {
+
+	/**
+	 * JCE 服务类型
+	 */
+	public enum Type {
+		MESSAGE_DIGEST("MessageDigest"),
+		MAC("Mac"),
+		CIPHER("Cipher"),
+		SIGNATURE("Signature");
+
+		private final String serviceName;
+
+		Type(String serviceName) {
+			this.serviceName = serviceName;
+		}
+
+		/** JCE 里的服务名，如 MessageDigest */
+		public String getServiceName() {
+			return serviceName;
+		}
+	}
+
+	/** 钉住的 Provider，key 为 服务名.算法 */
+	private static final ConcurrentMap<String, Provider> PINNED = new ConcurrentHashMap<>();
+
+	private JceProviders() {
+	}
+
+	/**
+	 * 指定某个算法用哪个 Provider
+	 *
+	 * @param type 服务类型
+	 * @param algorithm 算法，要和调用方用的写法一致（Cipher 是完整的变换名，如 RSA/ECB/PKCS1Padding）
+	 * @param provider Provider，为null则取消指定
+	 */
+	public static void pin(Type type, String algorithm, Provider provider) {
+		if (provider == null) {
+			PINNED.remove(key(type, algorithm));
+		} else {
+			PINNED.put(key(type, algorithm), provider);
+		}
+	}
+
+	/**
+	 * 某个算法指定的 Provider
+	 *
+	 * @return Provider，没有指定返回 null
+	 */
+	public static Provider pinned(Type type, String algorithm) {
+		return PINNED.get(key(type, algorithm));
+	}
+
+	/**
+	 * 所有指定，key 为 服务名.算法，value 为 Provider 名称，按 key 排序
+	 */
+	public static Map<String, String> getPinned() {
+		Map<String, String> pinned = new TreeMap<>();
+		PINNED.forEach((key, provider) -> pinned.put(key, provider.getName()));
+		return pinned;
+	}
+
+	/**
+	 * 取消所有指定
+	 */
+	public static void clear() {
+		PINNED.clear();
+	}
+
+	public static MessageDigest messageDigest(String algorithm) throws NoSuchAlgorithmException {
+		Provider provider = pinned(Type.MESSAGE_DIGEST, algorithm);
+		return provider == null ? MessageDigest.getInstance(algorithm) : MessageDigest.getInstance(algorithm, provider);
+	}
+
+	public static Mac mac(String algorithm) throws NoSuchAlgorithmException {
+		Provider provider = pinned(Type.MAC, algorithm);
+		return provider == null ? Mac.getInstance(algorithm) : Mac.getInstance(algorithm, provider);
+	}
+
+	public static Cipher cipher(String transformation) throws NoSuchAlgorithmException, NoSuchPaddingException {
+		Provider provider = pinned(Type.CIPHER, transformation);
+		return provider == null ? Cipher.getInstance(transformation) : Cipher.getInstance(transformation, provider);
+	}
+
+	public static Signature signature(String algorithm) throws NoSuchAlgorithmException {
+		Provider provider = pinned(Type.SIGNATURE, algorithm);
+		return provider == null ? Signature.getInstance(algorithm) : Signature.getInstance(algorithm, provider);
+	}
+
+	static String key(Type type, String algorithm) {
+		return type.serviceName + "." + algorithm;
+	}
+}
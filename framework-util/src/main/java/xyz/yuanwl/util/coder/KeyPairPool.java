@@ -0,0 +1,178 @@
+package xyz.yuanwl.util.coder;
+
+import java.io.Closeable;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>预生成密钥对池。
+ * <p>
+ * 生成 RSA 密钥对要几十到几百毫秒，刚启动的容器熵不够时还可能卡住。这里用一个低优先级的后台守护线程提前生成好，
+ * 放到有界队列里，队列满了就停下等着；按租户、按会话发密钥时直接从队列里拿，不用在请求线程里现生成。
+ * <ul>
+ * <li>队列空了（发得比生成得快）就在调用线程里现生成一个，记一次未命中，不会无限等；</li>
+ * <li>生成出错只记日志，隔一会儿再试；</li>
+ * <li>用完调用 {@link #close()} 停掉后台线程。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 21:10
+ */
+@Slf4j
+public final class KeyPairPool implements Closeable {
+
+	/** 生成出错后隔多久再试 */
+	private static final long RETRY_DELAY_MILLIS = 1000;
+
+	private final String description;
+	private final Callable<KeyPair> generator;
+	private final BlockingQueue<KeyPair> queue;
+	private final Thread refiller;
+	private volatile boolean closed;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder generated = new LongAdder();
+
+	/**
+	 * @param algorithm 密钥算法，如 RSA
+	 * @param keySize 密钥长度
+	 * @param capacity 最多预生成多少对
+	 */
+	public KeyPairPool(String algorithm, int keySize, int capacity) {
+		this(algorithm + "-" + keySize, () -> {
+			KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(algorithm);
+			keyPairGenerator.initialize(keySize);
+			return keyPairGenerator.generateKeyPair();
+		}, capacity);
+	}
+
+	/**
+	 * @param scheme 签名方案，按它的密钥参数生成
+	 * @param capacity 最多预生成多少对
+	 */
+	public KeyPairPool(SignatureScheme scheme, int capacity) {
+		this(scheme.name(), scheme::generateKeyPair, capacity);
+	}
+
+	private KeyPairPool(String description, Callable<KeyPair> generator, int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity 必须大于0：" + capacity);
+		}
+		this.description = description;
+		this.generator = generator;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.refiller = new Thread(this::refill, "key-pair-pool-" + description);
+		this.refiller.setDaemon(true);
+		this.refiller.setPriority(Thread.MIN_PRIORITY);
+		this.refiller.start();
+	}
+
+	/**
+	 * 取一对密钥，池里没有就现生成
+	 *
+	 * @return 密钥对，每对只会发出去一次
+	 * @throws GeneralSecurityException
+	 */
+	public KeyPair take() throws GeneralSecurityException {
+		KeyPair keyPair = queue.poll();
+		if (keyPair != null) {
+			hits.increment();
+			return keyPair;
+		}
+		misses.increment();
+		return generate();
+	}
+
+	/**
+	 * 取一对预生成的密钥，池里没有时最多等 timeout
+	 *
+	 * @param timeout 最多等多久
+	 * @param unit 时间单位
+	 * @return 密钥对，超时返回 null
+	 * @throws InterruptedException
+	 */
+	public KeyPair poll(long timeout, TimeUnit unit) throws InterruptedException {
+		KeyPair keyPair = queue.poll(timeout, unit);
+		if (keyPair != null) {
+			hits.increment();
+		} else {
+			misses.increment();
+		}
+		return keyPair;
+	}
+
+	private void refill() {
+		while (!closed) {
+			try {
+				queue.put(generate());
+			} catch (InterruptedException e) {
+				break;
+			} catch (GeneralSecurityException | RuntimeException e) {
+				log.error("预生成密钥对出错：{}", description, e);
+				try {
+					Thread.sleep(RETRY_DELAY_MILLIS);
+				} catch (InterruptedException ie) {
+					break;
+				}
+			}
+		}
+	}
+
+	private KeyPair generate() throws GeneralSecurityException {
+		try {
+			KeyPair keyPair = generator.call();
+			generated.increment();
+			return keyPair;
+		} catch (GeneralSecurityException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new GeneralSecurityException(e);
+		}
+	}
+
+	/** 当前池里有多少对 */
+	public int size() {
+		return queue.size();
+	}
+
+	public int getCapacity() {
+		return queue.size() + queue.remainingCapacity();
+	}
+
+	/** 直接从池里拿到的次数 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** 池空了只能现生成（或等超时）的次数 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** 一共生成了多少对，包括后台和现生成的 */
+	public long getGenerated() {
+		return generated.sum();
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		refiller.interrupt();
+		queue.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "KeyPairPool{" + description + ", size=" + size() + ", capacity=" + getCapacity() + ", hits="
+				+ getHits() + ", misses=" + getMisses() + ", generated=" + getGenerated() + "}";
+	}
+}
@@ -0,0 +1,313 @@
+package xyz.yuanwl.util.coder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * <p>密钥环：多个带版本号（密钥ID）的密钥对，其中一个是当前在用的。
+ * <p>
+ * 对象不可变，换密钥时整个换成新的密钥环（见 {@link RSACoder#setKeyRing}），读的一方拿到的永远是完整的一份，不用加锁。
+ * 密文、签名前面加上 "密钥ID:" 标明用的哪个版本，换密钥期间老版本的密文、签名照样能解、能验；
+ * {@link #DEFAULT_ID} 版本不加前缀，和换密钥之前的格式完全一样。
+ * <p>
+ * 文件格式（properties）：
+ * <pre>
+ * active=2026-10
+ * keys.2026-10.pubKey=MIGfMA0G...
+ * keys.2026-10.priKey=MIICdQIB...
+ * keys.2026-04.pubKey=MIGfMA0G...
+ * keys.2026-04.priKey=MIICdQIB...
+ * </pre>
+ * 只用来验签的版本可以只配公钥。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 20:10
+ */
+public final class KeyRing {
+
+	/** 默认版本的密钥ID，这个版本的密文、签名不加前缀 */
+	public static final String DEFAULT_ID = "default";
+
+	/** 密钥ID 和密文、签名之间的分隔符，Base64 和16进制里都不会出现 */
+	public static final char ID_SEPARATOR = ':';
+
+	/** 合法的密钥ID */
+	private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+	private static final String KEY_ACTIVE = "active";
+	private static final String KEY_PREFIX = "keys.";
+	private static final String KEY_PUB = ".pubKey";
+	private static final String KEY_PRI = ".priKey";
+
+	private final String activeId;
+	private final Map<String, KeyVersion> versions;
+
+	/**
+	 * @param activeId 当前在用的密钥ID
+	 * @param versions 所有版本
+	 */
+	public KeyRing(String activeId, Collection<KeyVersion> versions) {
+		Map<String, KeyVersion> map = new LinkedHashMap<>();
+		for (KeyVersion version : versions) {
+			map.put(version.getId(), version);
+		}
+		if (!map.containsKey(activeId)) {
+			throw new IllegalArgumentException("密钥环里没有当前版本：" + activeId);
+		}
+		this.activeId = activeId;
+		this.versions = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * 当前在用的版本，加密、签名都用它
+	 */
+	public KeyVersion active() {
+		return versions.get(activeId);
+	}
+
+	/**
+	 * 按密钥ID取版本
+	 *
+	 * @param id 密钥ID
+	 * @return 版本，没有返回 null
+	 */
+	public KeyVersion get(String id) {
+		return versions.get(id);
+	}
+
+	/**
+	 * 按密文、签名上的密钥ID找版本：没有前缀的属于 {@link #DEFAULT_ID} 版本，密钥环里没有默认版本时用当前版本
+	 *
+	 * @param id 密钥ID，可以为 null
+	 * @return 版本
+	 * @throws IllegalArgumentException 密钥环里没有这个版本
+	 */
+	public KeyVersion resolve(String id) {
+		if (id == null) {
+			KeyVersion version = versions.get(DEFAULT_ID);
+			return version != null ? version : active();
+		}
+		KeyVersion version = versions.get(id);
+		if (version == null) {
+			throw new IllegalArgumentException("未知的密钥ID：" + id);
+		}
+		return version;
+	}
+
+	/**
+	 * 加入或替换一个版本，返回新的密钥环
+	 *
+	 * @param version 版本
+	 * @return 新的密钥环
+	 */
+	public KeyRing withVersion(KeyVersion version) {
+		Map<String, KeyVersion> map = new LinkedHashMap<>(versions);
+		map.put(version.getId(), version);
+		return new KeyRing(activeId, map.values());
+	}
+
+	/**
+	 * 换当前版本，返回新的密钥环
+	 *
+	 * @param id 密钥ID，必须已在密钥环里
+	 * @return 新的密钥环
+	 */
+	public KeyRing withActive(String id) {
+		return new KeyRing(id, versions.values());
+	}
+
+	public String getActiveId() {
+		return activeId;
+	}
+
+	public Map<String, KeyVersion> getVersions() {
+		return versions;
+	}
+
+	@Override
+	public String toString() {
+		return "KeyRing{active=" + activeId + ", versions=" + versions.keySet() + "}";
+	}
+
+	// 密钥ID前缀
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+	/**
+	 * 给密文、签名加上密钥ID前缀，默认版本不加
+	 *
+	 * @param id 密钥ID
+	 * @param payload 密文或签名（Base64 或16进制）
+	 * @return "密钥ID:密文"
+	 */
+	public static String tag(String id, String payload) {
+		return DEFAULT_ID.equals(id) ? payload : id + ID_SEPARATOR + payload;
+	}
+
+	/**
+	 * 取出密文、签名上的密钥ID
+	 *
+	 * @param tagged 可能带前缀的密文或签名
+	 * @return 密钥ID，没有前缀返回 null
+	 */
+	public static String idOf(String tagged) {
+		int i = tagged.indexOf(ID_SEPARATOR);
+		return i < 0 ? null : tagged.substring(0, i);
+	}
+
+	/**
+	 * 去掉密文、签名上的密钥ID前缀
+	 *
+	 * @param tagged 可能带前缀的密文或签名
+	 * @return 密文或签名本身
+	 */
+	public static String payloadOf(String tagged) {
+		int i = tagged.indexOf(ID_SEPARATOR);
+		return i < 0 ? tagged : tagged.substring(i + 1);
+	}
+
+	// 从文件加载
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+	/**
+	 * 从 properties 文件加载密钥环，格式见类注释
+	 *
+	 * @param file 文件
+	 * @param keyAlgorithm 密钥算法，如 RSA
+	 * @return 密钥环
+	 * @throws IOException
+	 * @throws GeneralSecurityException 密钥格式不对
+	 * @throws IllegalArgumentException 文件内容不对
+	 */
+	public static KeyRing load(Path file, String keyAlgorithm) throws IOException, GeneralSecurityException {
+		Properties props = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			props.load(in);
+		}
+		String activeId = props.getProperty(KEY_ACTIVE);
+		if (activeId == null) {
+			throw new IllegalArgumentException("密钥环文件缺少 " + KEY_ACTIVE + "：" + file);
+		}
+		TreeSet<String> ids = new TreeSet<>();
+		for (String name : props.stringPropertyNames()) {
+			if (name.startsWith(KEY_PREFIX) && (name.endsWith(KEY_PUB) || name.endsWith(KEY_PRI))) {
+				ids.add(name.substring(KEY_PREFIX.length(), name.length() - KEY_PUB.length()));
+			}
+		}
+		Map<String, KeyVersion> versions = new LinkedHashMap<>();
+		for (String id : ids) {
+			versions.put(id, KeyVersion.of(id, props.getProperty(KEY_PREFIX + id + KEY_PUB),
+					props.getProperty(KEY_PREFIX + id + KEY_PRI), keyAlgorithm));
+		}
+		return new KeyRing(activeId.trim(), versions.values());
+	}
+
+	/**
+	 * 一个版本的密钥对
+	 */
+	public static final class KeyVersion {
+		private final String id;
+		private final PublicKey publicKey;
+		private final PrivateKey privateKey;
+		/** 公钥指纹 SHA-256(公钥编码)，验签结果缓存用；没有公钥时为 null */
+		private final byte[] fingerprint;
+
+		/**
+		 * @param id 密钥ID，只能是字母、数字和 . _ -
+		 * @param publicKey 公钥，可以为 null
+		 * @param privateKey 私钥，可以为 null
+		 */
+		public KeyVersion(String id, PublicKey publicKey, PrivateKey privateKey) {
+			if (id == null || !ID_PATTERN.matcher(id).matches()) {
+				throw new IllegalArgumentException("密钥ID不合法：" + id);
+			}
+			this.id = id;
+			this.publicKey = publicKey;
+			this.privateKey = privateKey;
+			this.fingerprint = publicKey == null ? null : fingerprint(publicKey);
+		}
+
+		private static byte[] fingerprint(PublicKey key) {
+			try {
+				return DigestEngine.digest("SHA-256", key.getEncoded());
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * 用 Base64 编码的密钥创建
+		 *
+		 * @param id 密钥ID
+		 * @param pubKey X509 编码的公钥，Base64 字符串，可以为 null
+		 * @param priKey PKCS8 编码的私钥，Base64 字符串，可以为 null
+		 * @param keyAlgorithm 密钥算法，如 RSA
+		 * @return 版本
+		 * @throws GeneralSecurityException
+		 */
+		public static KeyVersion of(String id, String pubKey, String priKey, String keyAlgorithm)
+				throws GeneralSecurityException {
+			KeyFactory factory = KeyFactory.getInstance(keyAlgorithm);
+			return new KeyVersion(id,
+					pubKey == null ? null : factory.generatePublic(new X509EncodedKeySpec(BaseCoder.decryptBase64(pubKey.trim()))),
+					priKey == null ? null : factory.generatePrivate(new PKCS8EncodedKeySpec(BaseCoder.decryptBase64(priKey.trim()))));
+		}
+
+		public KeyVersion withPublicKey(PublicKey publicKey) {
+			return new KeyVersion(id, publicKey, privateKey);
+		}
+
+		public KeyVersion withPrivateKey(PrivateKey privateKey) {
+			return new KeyVersion(id, publicKey, privateKey);
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * @return 公钥，没有时抛 IllegalStateException
+		 */
+		public PublicKey requirePublicKey() {
+			if (publicKey == null) {
+				throw new IllegalStateException("密钥版本 " + id + " 没有公钥");
+			}
+			return publicKey;
+		}
+
+		/**
+		 * @return 私钥，没有时抛 IllegalStateException
+		 */
+		public PrivateKey requirePrivateKey() {
+			if (privateKey == null) {
+				throw new IllegalStateException("密钥版本 " + id + " 没有私钥");
+			}
+			return privateKey;
+		}
+
+		public PublicKey getPublicKey() {
+			return publicKey;
+		}
+
+		public PrivateKey getPrivateKey() {
+			return privateKey;
+		}
+
+		public byte[] getFingerprint() {
+			return fingerprint;
+		}
+	}
+}
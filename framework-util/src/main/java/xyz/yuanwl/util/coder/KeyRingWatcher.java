@@ -0,0 +1,82 @@
+package xyz.yuanwl.util.coder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>监视密钥环文件，文件被改写（或删掉重建）后回调重新加载。
+ * <p>
+ * 用 WatchService 监视文件所在目录，只在一个后台守护线程里回调，回调里抛的异常只记日志，不会让监视停掉。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 20:30
+ */
+@Slf4j
+public final class KeyRingWatcher implements Closeable {
+
+	private final Path file;
+	private final WatchService watchService;
+	private final Thread thread;
+
+	/**
+	 * 创建并开始监视
+	 *
+	 * @param file 密钥环文件
+	 * @param onChange 文件变了之后的回调
+	 * @throws IOException
+	 */
+	public KeyRingWatcher(Path file, Consumer<Path> onChange) throws IOException {
+		this.file = file.toAbsolutePath();
+		this.watchService = FileSystems.getDefault().newWatchService();
+		this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+		this.thread = new Thread(() -> watch(onChange), "key-ring-watcher");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	private void watch(Consumer<Path> onChange) {
+		Path name = file.getFileName();
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (name.equals(event.context())) {
+						changed = true;
+					}
+				}
+				key.reset();
+				if (changed) {
+					try {
+						onChange.accept(file);
+					} catch (RuntimeException e) {
+						log.error("重新加载密钥环出错：{}", file, e);
+					}
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// 关闭了
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+		thread.interrupt();
+	}
+}
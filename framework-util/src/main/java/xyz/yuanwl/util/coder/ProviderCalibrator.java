@@ -0,0 +1,547 @@
+package xyz.yuanwl.util.coder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import xyz.yuanwl.util.coder.JceProviders.Type;
+
+/**
+ * <p>JCE Provider 校准：启动时对项目用到的每个算法，把所有支持它的 Provider 都跑一遍小基准，选出最快的钉到 {@link JceProviders}。
+ * <p>
+ * 哪个 Provider 快和 JDK 版本、CPU 关系很大（比如有的 JDK 的 SHA、AES 有硬件加速，有的没有；BouncyCastle 的 RSA 有时更快），
+ * 写死哪一个都不合适，所以测一下：
+ * <ul>
+ * <li>每个候选先校验结果正确（和默认 Provider 的结果一致，或者能被默认 Provider 验证/解开），不正确的直接淘汰；</li>
+ * <li>每个候选预热后计时跑 millisPerCandidate 毫秒，按每秒次数比较；只有比默认 Provider 快 {@value #MIN_SPEEDUP_PERCENT}% 以上才换，
+ * 避免因为测量误差来回换；</li>
+ * <li>结果连同环境指纹（JDK、CPU 架构和核数、Provider 列表）保存到文件，下次启动指纹一样就直接用，不再测；</li>
+ * <li>测完打印每个算法各 Provider 的成绩和选择。</li>
+ * </ul>
+ * BouncyCastle 没注册时会注册到最后（不影响默认顺序），让它也参加比较。
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 07:50
+ */
+@Slf4j
+public final class ProviderCalibrator {
+
+	/** 比默认 Provider 快多少（百分比）才换 */
+	public static final int MIN_SPEEDUP_PERCENT = 10;
+
+	/** 缓存文件里环境指纹的 key */
+	private static final String KEY_FINGERPRINT = "fingerprint";
+	/** 测试数据大小 */
+	private static final int PAYLOAD_SIZE = 1024;
+
+	/**
+	 * 要校准的算法
+	 */
+	public static final class Target {
+		private final Type type;
+		private final String algorithm;
+		/** RSA 密钥长度，其他算法为0 */
+		private final int keySize;
+
+		public Target(Type type, String algorithm, int keySize) {
+			this.type = type;
+			this.algorithm = algorithm;
+			this.keySize = keySize;
+		}
+
+		public Type getType() {
+			return type;
+		}
+
+		public String getAlgorithm() {
+			return algorithm;
+		}
+
+		@Override
+		public String toString() {
+			return JceProviders.key(type, algorithm);
+		}
+	}
+
+	/**
+	 * 一个算法的校准结果
+	 */
+	public static final class Choice {
+		private final Target target;
+		/** 默认 Provider 名称 */
+		private final String defaultProvider;
+		/** 选中的 Provider 名称 */
+		private final String provider;
+		/** 各 Provider 的每秒次数，结果不正确或不可用的不在里面 */
+		private final Map<String, Double> opsPerSecond;
+
+		Choice(Target target, String defaultProvider, String provider, Map<String, Double> opsPerSecond) {
+			this.target = target;
+			this.defaultProvider = defaultProvider;
+			this.provider = provider;
+			this.opsPerSecond = opsPerSecond;
+		}
+
+		public Target getTarget() {
+			return target;
+		}
+
+		public String getDefaultProvider() {
+			return defaultProvider;
+		}
+
+		public String getProvider() {
+			return provider;
+		}
+
+		public Map<String, Double> getOpsPerSecond() {
+			return Collections.unmodifiableMap(opsPerSecond);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder().append(target).append(" -> ").append(provider);
+			opsPerSecond.forEach((name, ops) -> sb.append("，").append(name).append(' ').append(Math.round(ops)).append("次/秒"));
+			return sb.toString();
+		}
+	}
+
+	private final long millisPerCandidate;
+
+	/**
+	 * @param millisPerCandidate 每个候选 Provider 计时跑多少毫秒（另外预热四分之一的时间）
+	 */
+	public ProviderCalibrator(long millisPerCandidate) {
+		if (millisPerCandidate <= 0) {
+			throw new IllegalArgumentException("millisPerCandidate 必须大于0：" + millisPerCandidate);
+		}
+		this.millisPerCandidate = millisPerCandidate;
+	}
+
+	/**
+	 * 项目里用到的算法：摘要（BaseCoder、VerifyCache、KeyRing）、HMAC（BaseCoder）、
+	 * RSA 加解密（RSACoder）、AES-GCM（AESCoder，会话密钥）、RSA 签名（RSASignature、SignatureScheme）
+	 */
+	public static List<Target> defaultTargets() {
+		return Arrays.asList(
+				new Target(Type.MESSAGE_DIGEST, "MD5", 0),
+				new Target(Type.MESSAGE_DIGEST, "SHA", 0),
+				new Target(Type.MESSAGE_DIGEST, "SHA-256", 0),
+				new Target(Type.MAC, "HmacMD5", 0),
+				new Target(Type.MAC, "HmacSHA256", 0),
+				new Target(Type.CIPHER, "RSA/ECB/PKCS1Padding", 1024),
+				new Target(Type.CIPHER, AESCoder.CIPHER_ALGORITHM, 0),
+				new Target(Type.SIGNATURE, RSASignature.SIGNATURE_ALGORITHM, 1024),
+				new Target(Type.SIGNATURE, "SHA256WithRSA", 2048));
+	}
+
+	/**
+	 * 有缓存且环境没变就用缓存的结果，否则重新校准并保存，最后把结果钉到 {@link JceProviders}
+	 *
+	 * @param cacheFile 缓存文件，为null则不缓存
+	 * @return 各算法选中的 Provider 名称，key 为 服务名.算法
+	 */
+	public Map<String, String> calibrateAndPin(Path cacheFile) {
+		registerBouncyCastle();
+		String fingerprint = fingerprint();
+		Map<String, String> choices = cacheFile == null ? null : load(cacheFile, fingerprint);
+		if (choices != null) {
+			log.info("JCE Provider 使用缓存的校准结果（{}）：{}", cacheFile, choices);
+		} else {
+			long start = System.nanoTime();
+			choices = new LinkedHashMap<>();
+			for (Target target : defaultTargets()) {
+				Choice choice = calibrate(target);
+				if (choice != null) {
+					log.info("JCE Provider 校准：{}", choice);
+					choices.put(target.toString(), choice.getProvider());
+				}
+			}
+			log.info("JCE Provider 校准完成，用时 {} 毫秒", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			if (cacheFile != null) {
+				save(cacheFile, fingerprint, choices);
+			}
+		}
+		pin(choices);
+		return choices;
+	}
+
+	/**
+	 * 校准一个算法，不钉住
+	 *
+	 * @param target 算法
+	 * @return 结果，默认 Provider 都不支持这个算法时返回 null
+	 */
+	public Choice calibrate(Target target) {
+		Workload reference;
+		try {
+			reference = Workload.create(target);
+		} catch (Exception e) {
+			log.warn("JCE Provider 校准：默认 Provider 不支持 {}，跳过", target, e);
+			return null;
+		}
+		String defaultProvider = reference.providerName();
+		Map<String, Double> opsPerSecond = new LinkedHashMap<>();
+		for (Provider provider : Security.getProviders()) {
+			Operation operation;
+			try {
+				operation = reference.candidate(provider);
+			} catch (Exception e) {
+				// 不支持这个算法
+				continue;
+			}
+			try {
+				if (!reference.verify(operation.run())) {
+					log.warn("JCE Provider 校准：{} 的 {} 结果不正确，不使用", provider.getName(), target);
+					continue;
+				}
+				opsPerSecond.put(provider.getName(), measure(operation));
+			} catch (Exception e) {
+				log.warn("JCE Provider 校准：{} 的 {} 运行出错，不使用", provider.getName(), target, e);
+			}
+		}
+		String best = defaultProvider;
+		double bestOps = opsPerSecond.getOrDefault(defaultProvider, 0.0) * (100 + MIN_SPEEDUP_PERCENT) / 100;
+		for (Map.Entry<String, Double> entry : opsPerSecond.entrySet()) {
+			if (entry.getValue() > bestOps) {
+				best = entry.getKey();
+				bestOps = entry.getValue();
+			}
+		}
+		return new Choice(target, defaultProvider, best, opsPerSecond);
+	}
+
+	/**
+	 * 把结果钉到 {@link JceProviders}，已经不存在的 Provider 忽略
+	 *
+	 * @param choices key 为 服务名.算法，value 为 Provider 名称
+	 */
+	public static void pin(Map<String, String> choices) {
+		for (Target target : defaultTargets()) {
+			String name = choices.get(target.toString());
+			Provider provider = name == null ? null : Security.getProvider(name);
+			if (name != null && provider == null) {
+				log.warn("JCE Provider {} 不存在，{} 用默认的", name, target);
+			}
+			JceProviders.pin(target.type, target.algorithm, provider);
+		}
+	}
+
+	/**
+	 * 计时：预热四分之一的时间，再跑 millisPerCandidate 毫秒
+	 */
+	private double measure(Operation operation) throws Exception {
+		long warmupEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millisPerCandidate) / 4;
+		while (System.nanoTime() < warmupEnd) {
+			operation.run();
+		}
+		long start = System.nanoTime(), end = start + TimeUnit.MILLISECONDS.toNanos(millisPerCandidate);
+		long ops = 0, now;
+		do {
+			operation.run();
+			ops++;
+		} while ((now = System.nanoTime()) < end);
+		return ops * 1e9 / (now - start);
+	}
+
+	// 缓存文件
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 环境指纹：JDK、操作系统、CPU 架构和核数、Provider 列表，任何一项变了都要重新校准
+	 */
+	static String fingerprint() {
+		StringBuilder sb = new StringBuilder();
+		for (String key : new String[] { "java.vendor", "java.version", "os.name", "os.arch" }) {
+			sb.append(System.getProperty(key)).append('|');
+		}
+		sb.append(Runtime.getRuntime().availableProcessors());
+		for (Provider provider : Security.getProviders()) {
+			sb.append('|').append(provider.getName()).append(' ').append(provider.getVersion());
+		}
+		return sb.toString();
+	}
+
+	private static Map<String, String> load(Path cacheFile, String fingerprint) {
+		if (!Files.isRegularFile(cacheFile)) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(cacheFile)) {
+			properties.load(in);
+		} catch (IOException e) {
+			log.warn("读取 JCE Provider 校准缓存 {} 失败，重新校准", cacheFile, e);
+			return null;
+		}
+		if (!fingerprint.equals(properties.getProperty(KEY_FINGERPRINT))) {
+			log.info("JCE Provider 校准缓存 {} 的环境和当前不一样，重新校准", cacheFile);
+			return null;
+		}
+		Map<String, String> choices = new LinkedHashMap<>();
+		for (Target target : defaultTargets()) {
+			String provider = properties.getProperty(target.toString());
+			if (provider != null) {
+				choices.put(target.toString(), provider);
+			}
+		}
+		return choices;
+	}
+
+	private static void save(Path cacheFile, String fingerprint, Map<String, String> choices) {
+		Properties properties = new Properties();
+		properties.setProperty(KEY_FINGERPRINT, fingerprint);
+		choices.forEach(properties::setProperty);
+		try {
+			if (cacheFile.getParent() != null) {
+				Files.createDirectories(cacheFile.getParent());
+			}
+			try (OutputStream out = Files.newOutputStream(cacheFile)) {
+				properties.store(out, "JCE Provider 校准结果，环境指纹变了会重新校准，删掉本文件也会重新校准");
+			}
+		} catch (IOException e) {
+			log.warn("保存 JCE Provider 校准缓存 {} 失败", cacheFile, e);
+		}
+	}
+
+	private static void registerBouncyCastle() {
+		if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+			Security.addProvider(new BouncyCastleProvider());
+		}
+	}
+
+	// 各类算法的测试负载
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 一次被测操作，返回结果用来校验正确性
+	 */
+	private interface Operation {
+		byte[] run() throws Exception;
+	}
+
+	/**
+	 * 一个算法的测试负载：用默认 Provider 准备好数据、密钥和参考结果，再为每个候选 Provider 建被测操作。
+	 * 操作和项目里的用法一样：摘要、HMAC 对 1KB 数据；RSA 用建好的 Cipher 解密、用建好的 Signature 签名（和对象池一样）；
+	 * AES-GCM 每次重新 init 再解密（和 AESCoder 一样）
+	 */
+	private abstract static class Workload {
+		final Target target;
+		final byte[] data = new byte[PAYLOAD_SIZE];
+
+		Workload(Target target) {
+			this.target = target;
+			new Random(PAYLOAD_SIZE).nextBytes(data);
+		}
+
+		static Workload create(Target target) throws Exception {
+			switch (target.type) {
+			case MESSAGE_DIGEST:
+				return new DigestWorkload(target);
+			case MAC:
+				return new MacWorkload(target);
+			case CIPHER:
+				return target.algorithm.startsWith("RSA") ? new RsaCipherWorkload(target) : new GcmWorkload(target);
+			default:
+				return new SignatureWorkload(target);
+			}
+		}
+
+		/** 默认 Provider 名称 */
+		abstract String providerName();
+
+		/** 为候选 Provider 建被测操作，不支持时抛异常 */
+		abstract Operation candidate(Provider provider) throws Exception;
+
+		/** 校验候选的结果 */
+		abstract boolean verify(byte[] result) throws Exception;
+	}
+
+	private static final class DigestWorkload extends Workload {
+		private final MessageDigest reference;
+		private final byte[] expected;
+
+		DigestWorkload(Target target) throws Exception {
+			super(target);
+			reference = MessageDigest.getInstance(target.algorithm);
+			expected = reference.digest(data);
+		}
+
+		@Override
+		String providerName() {
+			return reference.getProvider().getName();
+		}
+
+		@Override
+		Operation candidate(Provider provider) throws Exception {
+			MessageDigest md = MessageDigest.getInstance(target.algorithm, provider);
+			return () -> md.digest(data);
+		}
+
+		@Override
+		boolean verify(byte[] result) {
+			return Arrays.equals(expected, result);
+		}
+	}
+
+	private static final class MacWorkload extends Workload {
+		private final SecretKeySpec key;
+		private final Mac reference;
+		private final byte[] expected;
+
+		MacWorkload(Target target) throws Exception {
+			super(target);
+			key = new SecretKeySpec(Arrays.copyOf(data, 32), target.algorithm);
+			reference = Mac.getInstance(target.algorithm);
+			reference.init(key);
+			expected = reference.doFinal(data);
+		}
+
+		@Override
+		String providerName() {
+			return reference.getProvider().getName();
+		}
+
+		@Override
+		Operation candidate(Provider provider) throws Exception {
+			Mac mac = Mac.getInstance(target.algorithm, provider);
+			mac.init(key);
+			return () -> mac.doFinal(data);
+		}
+
+		@Override
+		boolean verify(byte[] result) {
+			return Arrays.equals(expected, result);
+		}
+	}
+
+	private static final class RsaCipherWorkload extends Workload {
+		private final KeyPair keyPair;
+		private final Cipher reference;
+		private final byte[] message = Arrays.copyOf(data, 64);
+		private final byte[] encrypted;
+
+		RsaCipherWorkload(Target target) throws Exception {
+			super(target);
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(target.keySize);
+			keyPair = generator.generateKeyPair();
+			reference = Cipher.getInstance(target.algorithm);
+			reference.init(Cipher.ENCRYPT_MODE, keyPair.getPublic());
+			encrypted = reference.doFinal(message);
+		}
+
+		@Override
+		String providerName() {
+			return reference.getProvider().getName();
+		}
+
+		@Override
+		Operation candidate(Provider provider) throws Exception {
+			// 私钥解密是登录时的热点，测它
+			Cipher cipher = Cipher.getInstance(target.algorithm, provider);
+			cipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+			return () -> cipher.doFinal(encrypted);
+		}
+
+		@Override
+		boolean verify(byte[] result) {
+			return Arrays.equals(message, result);
+		}
+	}
+
+	private static final class GcmWorkload extends Workload {
+		private final SecretKeySpec key;
+		private final GCMParameterSpec spec;
+		private final Cipher reference;
+		private final byte[] encrypted;
+
+		GcmWorkload(Target target) throws Exception {
+			super(target);
+			key = new SecretKeySpec(Arrays.copyOf(data, AESCoder.DEFAULT_KEY_SIZE / 8), AESCoder.KEY_ALGORITHM);
+			spec = new GCMParameterSpec(AESCoder.TAG_LENGTH, Arrays.copyOfRange(data, 32, 32 + AESCoder.IV_LENGTH));
+			reference = Cipher.getInstance(target.algorithm);
+			reference.init(Cipher.ENCRYPT_MODE, key, spec);
+			encrypted = reference.doFinal(data);
+		}
+
+		@Override
+		String providerName() {
+			return reference.getProvider().getName();
+		}
+
+		@Override
+		Operation candidate(Provider provider) throws Exception {
+			// GCM 加密不能重复用同一个 IV，测解密
+			Cipher cipher = Cipher.getInstance(target.algorithm, provider);
+			return () -> {
+				cipher.init(Cipher.DECRYPT_MODE, key, spec);
+				return cipher.doFinal(encrypted);
+			};
+		}
+
+		@Override
+		boolean verify(byte[] result) {
+			return Arrays.equals(data, result);
+		}
+	}
+
+	private static final class SignatureWorkload extends Workload {
+		private final KeyPair keyPair;
+		private final Signature reference;
+
+		SignatureWorkload(Target target) throws Exception {
+			super(target);
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(target.keySize);
+			keyPair = generator.generateKeyPair();
+			reference = Signature.getInstance(target.algorithm);
+			reference.initVerify(keyPair.getPublic());
+		}
+
+		@Override
+		String providerName() {
+			return reference.getProvider().getName();
+		}
+
+		@Override
+		Operation candidate(Provider provider) throws Exception {
+			Signature signature = Signature.getInstance(target.algorithm, provider);
+			signature.initSign(keyPair.getPrivate());
+			return () -> {
+				signature.update(data);
+				return signature.sign();
+			};
+		}
+
+		@Override
+		boolean verify(byte[] result) throws Exception {
+			// 用默认 Provider 验签
+			reference.update(data);
+			return reference.verify(result);
+		}
+	}
+}
@@ -2,11 +2,13 @@ package xyz.yuanwl.util.coder;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.KeyFactory;
 import java.security.KeyPair;
-import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
@@ -15,11 +17,15 @@ import java.security.interfaces.RSAPublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
 
+import javax.annotation.PreDestroy;
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
@@ -70,20 +76,37 @@ public class RSACoder extends BaseCoder {
 	 */
 	private static final String CIPHER_ALGORITHM = "RSA/ECB/PKCS1Padding";
 
+	/** 加密解密用的 Cipher 池，每个线程按（模式, 密钥）缓存已初始化的 Cipher，省掉每次 getInstance 和 init 的开销 */
+	private static final CipherPool CIPHER_POOL = new CipherPool(CIPHER_ALGORITHM);
+
 	/** 由公钥字节数组用Base64编码成的字符串，方便传播、储存 */
 	private static String PUB_KEY_BASE64 = "MIGfMA0GCSqGSIb3DQEBAQUAA4GNADCBiQKBgQCPhuLKVwg6iyzpwRzkQPDPa3z5w/qwr2S5Nb7TczJZK7pRF5r+Va4h3EKxSn+jBpbmufvJgbpBr4uuJ8U0sPSx3GqoyIUiovbB7SLTKNRxMCfT+O3Qa+cKTqM3269ol8iW6QcmLXwM0nIwy0gLLWqUSPLjnAWJTJsIHDVEYW3rQQIDAQAB";
 	/** 由私钥字节数组用Base64编码成的字符串，方便传播、储存 */
 	private static String PRI_KEY_BASE64 = "MIICdQIBADANBgkqhkiG9w0BAQEFAASCAl8wggJbAgEAAoGBAI+G4spXCDqLLOnBHORA8M9rfPnD+rCvZLk1vtNzMlkrulEXmv5VriHcQrFKf6MGlua5+8mBukGvi64nxTSw9LHcaqjIhSKi9sHtItMo1HEwJ9P47dBr5wpOozfbr2iXyJbpByYtfAzScjDLSAstapRI8uOcBYlMmwgcNURhbetBAgMBAAECgYAWmChprAvKk5BNeC4hLKv8KzKwaw6y89mKYpCY3wClEwIws+OdeEWCZRdGq7CuLGJjDhI6Jab5ojX+A5rC8byDacKz7ybU5v7RpKS1LZAk/yaD6WSoJmO6kR/9b/imU+Lpt14YweKTj8dYOaCc+cPltOpzaQaRLqaLwYeQUpCicQJBAOwH8pO2XW3PFP4o2x5dQKTOk1w9IcShp/sIP1ncoCA6AzzbIb++adx2XD0DSDMkvjKLZQRerjXQ1co7L9RXCQUCQQCbq3KLMGKNxUZE2NKXOV2Sx6uoz1A2X30nTLH9BRKL7DuHQRSuked8mUvPSKRynvqqyNqwHk1sgIpOhRa06n4NAkA6kx5YGgHFpoaHLIx0VKAeRkW7tlATBCsz2TAflOkIFl2HVLpjY1XSKG1rlszsJEovMPi4xOZm5JSpw1ZzU8YhAkBeYeHOAGUQndZP8cIlDBPu5X7vl9qDTPv9suOLi+LF0VH6XHwkp7PZeLxdDicek8NZfvQQqh65NWol102AHViVAkBybolSBahmdF7pL9uW7q5YKefzbvC0IQ0dF8Jpyvqw5w0nQiKOSXyIjn5vMdUuJeAdCKl8skUK6ewDjrPqQtbi";
-	/** 公钥对象 */
-	protected static PublicKey PUB_KEY;
-	/** 私钥对象 */
-	protected static PrivateKey PRI_KEY;
+	/** 密钥环，换密钥时整个替换，读的一方不用加锁；默认版本是上面内置的这对密钥 */
+	private static final AtomicReference<KeyRing> KEY_RING = new AtomicReference<>();
+	/** 密钥环文件监视器，没配置密钥环文件时为 null */
+	private static volatile KeyRingWatcher KEY_RING_WATCHER;
+
+	// 初始化
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	// 静态代码块，用内置的密钥初始化密钥环，供后面使用
+	static {
+		try {
+			KEY_RING.set(new KeyRing(KeyRing.DEFAULT_ID, Collections.singleton(new KeyRing.KeyVersion(KeyRing.DEFAULT_ID,
+					restorePubKey(PUB_KEY_BASE64), restorePriKey(PRI_KEY_BASE64)))));
+		} catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+			log.error("初始化出错", e);
+		}
+	}
 
 	@Value("${xyz.yuanwl.security.auth.pubKey}") // 静态属性不能用这个注解注入，只能放到普通public set方法上面，简介注入
 	public void setPubKey(String pubKey){
 		PUB_KEY_BASE64 = pubKey;
 		try {
-			PUB_KEY = restorePubKey(PUB_KEY_BASE64);
+			PublicKey key = restorePubKey(PUB_KEY_BASE64);
+			KEY_RING.updateAndGet(ring -> ring.withVersion(defaultVersion(ring).withPublicKey(key)));
 		} catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
 			log.error("初始化公钥出错", e);
 		}
@@ -93,24 +116,100 @@ public class RSACoder extends BaseCoder {
 	public void setPriKey(String priKey){
 		PRI_KEY_BASE64 = priKey;
 		try {
-			PRI_KEY = restorePriKey(PRI_KEY_BASE64);
+			PrivateKey key = restorePriKey(PRI_KEY_BASE64);
+			KEY_RING.updateAndGet(ring -> ring.withVersion(defaultVersion(ring).withPrivateKey(key)));
 		} catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
 			log.error("初始化私钥出错", e);
 		}
 	}
 
-	// 初始化
-	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+	/**
+	 * 配置了密钥环文件时，加载并监视它，文件改了自动换密钥，不用重启
+	 *
+	 * @param keyRingFile 密钥环文件路径，格式见 {@link KeyRing}，为空表示只用 pubKey、priKey 这一对密钥
+	 */
+	@Value("${xyz.yuanwl.security.auth.keyRingFile:}")
+	public void setKeyRingFile(String keyRingFile) {
+		closeKeyRingWatcher();
+		if (keyRingFile == null || keyRingFile.trim().isEmpty()) {
+			return;
+		}
+		Path file = Paths.get(keyRingFile.trim());
+		try {
+			loadKeyRing(file);
+			KEY_RING_WATCHER = new KeyRingWatcher(file, f -> {
+				try {
+					loadKeyRing(f);
+				} catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+					// 文件可能还没写完，保留原来的密钥环，等下一次修改
+					log.error("重新加载密钥环出错，继续用原来的：{}", f, e);
+				}
+			});
+		} catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+			log.error("加载密钥环出错：{}", file, e);
+		}
+	}
+
+	/**
+	 * 停止监视密钥环文件
+	 */
+	@PreDestroy
+	public void closeKeyRingWatcher() {
+		KeyRingWatcher watcher = KEY_RING_WATCHER;
+		KEY_RING_WATCHER = null;
+		if (watcher != null) {
+			try {
+				watcher.close();
+			} catch (IOException e) {
+				log.warn("关闭密钥环监视出错", e);
+			}
+		}
+	}
+
+	/**
+	 * 从文件加载密钥环并换上。文件里没有默认版本时保留当前的默认版本，没加前缀的老密文、签名照样能用。
+	 *
+	 * @param file 密钥环文件
+	 * @return 新的密钥环
+	 * @throws IOException
+	 * @throws GeneralSecurityException
+	 */
+	public static KeyRing loadKeyRing(Path file) throws IOException, GeneralSecurityException {
+		KeyRing loaded = KeyRing.load(file, KEY_ALGORITHM);
+		KeyRing ring = KEY_RING.updateAndGet(current -> {
+			KeyRing.KeyVersion defaultVersion = current == null ? null : current.get(KeyRing.DEFAULT_ID);
+			return loaded.get(KeyRing.DEFAULT_ID) == null && defaultVersion != null ? loaded.withVersion(defaultVersion)
+					: loaded;
+		});
+		log.info("已加载密钥环：{}", ring);
+		return ring;
+	}
+
+	/**
+	 * 换上新的密钥环。之后的加密、签名用新的当前版本，正在进行的操作不受影响。
+	 *
+	 * @param keyRing 密钥环
+	 */
+	public static void setKeyRing(KeyRing keyRing) {
+		if (keyRing == null) {
+			throw new IllegalArgumentException("密钥环不能为空");
+		}
+		KEY_RING.set(keyRing);
+	}
 
-	// 静态代码块，初始化密钥对象，供后面使用
-//	static {
-//		try {
-//			PUB_KEY = restorePubKey(PUB_KEY_BASE64);
-//			PRI_KEY = restorePriKey(PRI_KEY_BASE64);
-//		} catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-//			log.error("初始化出错", e);
-//		}
-//	}
+	/**
+	 * 获取当前的密钥环。一次操作里只取一次，保证前后用的是同一份。
+	 *
+	 * @return 密钥环
+	 */
+	public static KeyRing getKeyRing() {
+		return KEY_RING.get();
+	}
+
+	private static KeyRing.KeyVersion defaultVersion(KeyRing ring) {
+		KeyRing.KeyVersion version = ring.get(KeyRing.DEFAULT_ID);
+		return version != null ? version : new KeyRing.KeyVersion(KeyRing.DEFAULT_ID, null, null);
+	}
 
 	/**
 	 * 还原公钥，X509EncodedKeySpec 用于构建公钥的规范
@@ -228,9 +327,7 @@ public class RSACoder extends BaseCoder {
 			BadPaddingException, UnsupportedEncodingException {
 		// 如果不传字符编码就默认用utf-8
 		String c = ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0];
-		Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-		cipher.init(Cipher.ENCRYPT_MODE, key);
-		return encryptBase64(cipher.doFinal(decoded.getBytes(c)));
+		return encryptBase64(doFinal(Cipher.ENCRYPT_MODE, key, decoded.getBytes(c)));
 	}
 
 	/**
@@ -264,9 +361,44 @@ public class RSACoder extends BaseCoder {
 			throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, UnsupportedEncodingException,
 			IllegalBlockSizeException, BadPaddingException {
 		String c = ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0];
-		Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-		cipher.init(Cipher.DECRYPT_MODE, key);
-		return new String(cipher.doFinal(decryptBase64(encoded)), c);
+		return new String(doFinal(Cipher.DECRYPT_MODE, key, decryptBase64(encoded)), c);
+	}
+
+	/**
+	 * 从 Cipher 池中取出已初始化的 Cipher 完成加密或解密。出错时把该 Cipher 移出池，下次重新初始化。
+	 *
+	 * @param mode
+	 *            Cipher.ENCRYPT_MODE 或 Cipher.DECRYPT_MODE
+	 * @param key
+	 *            公钥或私钥对象
+	 * @param input
+	 *            输入字节数组
+	 * @return 输出字节数组
+	 * @throws NoSuchAlgorithmException
+	 * @throws NoSuchPaddingException
+	 * @throws InvalidKeyException
+	 * @throws IllegalBlockSizeException
+	 * @throws BadPaddingException
+	 */
+	private static byte[] doFinal(int mode, Key key, byte[] input)
+			throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, IllegalBlockSizeException,
+			BadPaddingException {
+		Cipher cipher = CIPHER_POOL.acquire(mode, key);
+		try {
+			return cipher.doFinal(input);
+		} catch (IllegalBlockSizeException | BadPaddingException | RuntimeException e) {
+			CIPHER_POOL.invalidate(mode, key);
+			throw e;
+		}
+	}
+
+	/**
+	 * 获取加密解密用的 Cipher 池，可用来查看命中、未命中次数等统计信息。
+	 *
+	 * @return Cipher 池
+	 */
+	public static CipherPool getCipherPool() {
+		return CIPHER_POOL;
 	}
 
 	/**
@@ -290,7 +422,8 @@ public class RSACoder extends BaseCoder {
 	public static String encryptByPubKey(String decoded, String... charset)
 			throws InvalidKeyException, NoSuchAlgorithmException, NoSuchPaddingException, IllegalBlockSizeException,
 			BadPaddingException, UnsupportedEncodingException {
-		return encrypt(PUB_KEY, decoded, charset);
+		KeyRing.KeyVersion version = KEY_RING.get().active();
+		return KeyRing.tag(version.getId(), encrypt(version.requirePublicKey(), decoded, charset));
 	}
 
 	/**
@@ -309,7 +442,8 @@ public class RSACoder extends BaseCoder {
 	 */
 	public static String decryptByPriKey(String encoded, String... charset)
 			throws UnsupportedEncodingException, Exception {
-		return decrypt(PRI_KEY, encoded, charset);
+		KeyRing.KeyVersion version = KEY_RING.get().resolve(KeyRing.idOf(encoded));
+		return decrypt(version.requirePrivateKey(), KeyRing.payloadOf(encoded), charset);
 	}
 
 	/**
@@ -338,7 +472,8 @@ public class RSACoder extends BaseCoder {
 	public static String encryptByPriKey(String decoded, String... charset)
 			throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, IllegalBlockSizeException,
 			BadPaddingException, UnsupportedEncodingException {
-		return encrypt(PRI_KEY, decoded, charset);
+		KeyRing.KeyVersion version = KEY_RING.get().active();
+		return KeyRing.tag(version.getId(), encrypt(version.requirePrivateKey(), decoded, charset));
 	}
 
 	/**
@@ -369,9 +504,79 @@ public class RSACoder extends BaseCoder {
 	public static String decryptByPubKey(String encoded, String... charset)
 			throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, UnsupportedEncodingException,
 			IllegalBlockSizeException, BadPaddingException {
-		return decrypt(PUB_KEY, encoded, charset);
+		KeyRing.KeyVersion version = KEY_RING.get().resolve(KeyRing.idOf(encoded));
+		return decrypt(version.requirePublicKey(), KeyRing.payloadOf(encoded), charset);
+	}
+
+
+	// 会话密钥信封：RSA 只用来包装 AES 密钥，每个会话做一次，之后的数据都用 AES-GCM 加密解密
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+	/**
+	 * 用私钥解开前端用公钥包装的会话密钥（AES 密钥）。这是整个会话里唯一一次私钥运算，解开后的密钥由调用方缓存（如放到 session 里）。
+	 *
+	 * @param wrapped
+	 *            被公钥加密的 AES 密钥原始字节，用 Base64 编码成的字符串
+	 * @return AES 密钥
+	 * @throws GeneralSecurityException
+	 */
+	public static SecretKey unwrapSessionKey(String wrapped) throws GeneralSecurityException {
+		KeyRing.KeyVersion version = KEY_RING.get().resolve(KeyRing.idOf(wrapped));
+		return AESCoder.restoreKey(
+				doFinal(Cipher.DECRYPT_MODE, version.requirePrivateKey(), decryptBase64(KeyRing.payloadOf(wrapped))));
+	}
+
+	/**
+	 * 用公钥包装会话密钥，前端做的事情，这里给 Java 客户端和测试用
+	 *
+	 * @param sessionKey
+	 *            AES 密钥
+	 * @return 被公钥加密的 AES 密钥，用 Base64 编码成的字符串
+	 * @throws GeneralSecurityException
+	 */
+	public static String wrapSessionKey(SecretKey sessionKey) throws GeneralSecurityException {
+		KeyRing.KeyVersion version = KEY_RING.get().active();
+		return KeyRing.tag(version.getId(),
+				encryptBase64(doFinal(Cipher.ENCRYPT_MODE, version.requirePublicKey(), sessionKey.getEncoded())));
+	}
+
+	/**
+	 * 用会话密钥加密（AES-GCM），明文长度不受 RSA 的限制
+	 *
+	 * @param sessionKey
+	 *            AES 密钥
+	 * @param decoded
+	 *            明文字符串
+	 * @param charset
+	 *            字符编码
+	 * @return (IV || 密文 || 认证标签) 用Base64编码成的字符串
+	 * @throws GeneralSecurityException
+	 * @throws UnsupportedEncodingException
+	 */
+	public static String encryptBySessionKey(SecretKey sessionKey, String decoded, String... charset)
+			throws GeneralSecurityException, UnsupportedEncodingException {
+		String c = ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0];
+		return encryptBase64(AESCoder.encrypt(sessionKey, decoded.getBytes(c), null));
 	}
 
+	/**
+	 * 用会话密钥解密（AES-GCM）
+	 *
+	 * @param sessionKey
+	 *            AES 密钥
+	 * @param encoded
+	 *            (IV || 密文 || 认证标签) 用Base64编码成的字符串
+	 * @param charset
+	 *            字符编码
+	 * @return 明文字符串
+	 * @throws GeneralSecurityException
+	 *             密钥不对或密文被篡改
+	 * @throws UnsupportedEncodingException
+	 */
+	public static String decryptBySessionKey(SecretKey sessionKey, String encoded, String... charset)
+			throws GeneralSecurityException, UnsupportedEncodingException {
+		String c = ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0];
+		return new String(AESCoder.decrypt(sessionKey, decryptBase64(encoded), null), c);
+	}
 	
 	// 更换密钥对
 	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
@@ -388,9 +593,7 @@ public class RSACoder extends BaseCoder {
 	 */
 	public static void generateKeyPair() {
 		try {
-			KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(KEY_ALGORITHM);
-			keyPairGenerator.initialize(KEY_SIZE);
-			KeyPair keyPair = keyPairGenerator.generateKeyPair();
+			KeyPair keyPair = takeKeyPair();
 
 			RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
 			// 公钥、私钥用 encryptBase64 还是 encryptBase64Sun 加密都可以，后者的 Base64 是多行的，比较适合保存到文件的方式储存
@@ -398,9 +601,38 @@ public class RSACoder extends BaseCoder {
 
 			RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
 			log.info("新私钥：{}", encryptBase64(privateKey.getEncoded()));
-		} catch (NoSuchAlgorithmException e) {
+		} catch (GeneralSecurityException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * 取一对新的RSA密钥，从后台预生成的池里拿，池空了才现生成。按租户、按会话发密钥时用这个，请求线程不用等密钥生成。
+	 * 第一次调用时才启动后台生成线程。
+	 *
+	 * @return 新的密钥对，每对只会发出去一次
+	 * @throws GeneralSecurityException
+	 */
+	public static KeyPair takeKeyPair() throws GeneralSecurityException {
+		return KeyPairPoolHolder.POOL.take();
+	}
+
+	/**
+	 * 获取预生成密钥对池，可用来查看命中率等统计信息
+	 *
+	 * @return 密钥对池
+	 */
+	public static KeyPairPool getKeyPairPool() {
+		return KeyPairPoolHolder.POOL;
+	}
+
+	/**
+	 * 延迟初始化，用到时才开始预生成
+	 */
+	private static final class KeyPairPoolHolder {
+		/** 最多预生成的密钥对数 */
+		private static final int CAPACITY = 4;
+		private static final KeyPairPool POOL = new KeyPairPool(KEY_ALGORITHM, KEY_SIZE, CAPACITY);
+	}
+
 }
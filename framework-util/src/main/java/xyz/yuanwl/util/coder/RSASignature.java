@@ -1,8 +1,19 @@
 package xyz.yuanwl.util.coder;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
 import java.security.Signature;
 import java.security.SignatureException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.lang3.ArrayUtils;
@@ -17,22 +28,45 @@ public class RSASignature extends RSACoder {
 	 */
 	public static final String SIGNATURE_ALGORITHM = "SHA1WithRSA";
 
+	/** 签名方案，和 SIGNATURE_ALGORITHM 对应；其他方案用 {@link Signer} */
+	public static final SignatureScheme SIGNATURE_SCHEME = SignatureScheme.SHA1_WITH_RSA;
+
+	/** 验签结果缓存，默认不开启 */
+	private static volatile VerifyCache VERIFY_CACHE;
+
 	/**
 	 * 用RSA私钥对信息生成数字签名。 <br>
 	 * <br>
 	 * 创建人： yuanwl <br>
 	 * 创建时间： 2017年10月28日 下午5:44:42 <br>
 	 *
+	 * @param version
+	 *            密钥版本
 	 * @param encoded
 	 *            加密字符串转换的字节数组
 	 * @return Signature，方便进一步转换为其他数据
 	 * @throws Exception
 	 */
-	private static Signature sign(byte[] encoded) throws Exception {
-		Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-		signature.initSign(PRI_KEY);
-		signature.update(encoded);
-		return signature;
+	private static byte[] sign(KeyRing.KeyVersion version, byte[] encoded) throws GeneralSecurityException {
+		// 签名方案从池里取当前线程已 initSign 的 Signature，sign() 之后会自动回到初始化后的状态，可以接着用
+		return SIGNATURE_SCHEME.sign(version.requirePrivateKey(), encoded);
+	}
+
+	/**
+	 * 用RSA公钥校验签名，使用池中已 initVerify 的 Signature
+	 *
+	 * @param version
+	 *            密钥版本
+	 * @param data
+	 *            原始数据
+	 * @param signed
+	 *            签名
+	 * @return 校验成功返回true 失败返回false
+	 * @throws GeneralSecurityException
+	 */
+	private static boolean verify(KeyRing.KeyVersion version, byte[] data, byte[] signed)
+			throws GeneralSecurityException {
+		return SIGNATURE_SCHEME.verify(version.requirePublicKey(), data, signed);
 	}
 
 	/**
@@ -54,7 +88,8 @@ public class RSASignature extends RSACoder {
 			throws SignatureException, UnsupportedEncodingException, Exception {
 		// 如果不传字符编码就默认用utf-8
 		String c = ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0];
-		return encryptBase64(sign(encoded.getBytes(c)).sign());
+		KeyRing.KeyVersion version = getKeyRing().active();
+		return KeyRing.tag(version.getId(), encryptBase64(sign(version, encoded.getBytes(c))));
 	}
 
 	/**
@@ -75,11 +110,12 @@ public class RSASignature extends RSACoder {
 	public static String signToHex(String encoded, String...charset)
 			throws SignatureException, UnsupportedEncodingException, Exception {
 		String c = ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0];
-		return bytesToHex(sign(encoded.getBytes(c)).sign());
+		KeyRing.KeyVersion version = getKeyRing().active();
+		return KeyRing.tag(version.getId(), bytesToHex(sign(version, encoded.getBytes(c))));
 	}
 
 	/**
-	 * 用RSA公钥校验数字签名。 <br>
+	 * 用RSA公钥校验数字签名。每次都新建 Signature，返回给调用方自己 verify；本类的校验方法走的是 Signature 池。 <br>
 	 * <br>
 	 * 创建人： yuanwl <br>
 	 * 创建时间： 2017年10月28日 下午5:56:35 <br>
@@ -92,8 +128,8 @@ public class RSASignature extends RSACoder {
 	 * @throws Exception
 	 */
 	public static Signature verify(byte[] data) throws Exception {
-		Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-		signature.initVerify(PUB_KEY);
+		Signature signature = SIGNATURE_SCHEME.newSignature();
+		signature.initVerify(getKeyRing().active().requirePublicKey());
 		signature.update(data);
 		return signature;
 	}
@@ -118,7 +154,7 @@ public class RSASignature extends RSACoder {
 	public static boolean verifyFromBase64(String encoded, String signed, String...charset)
 			throws SignatureException, UnsupportedEncodingException, Exception {
 		String c = ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0];
-		return verify(encoded.getBytes(c)).verify(decryptBase64(signed));
+		return verifyCached(getKeyRing(), encoded.getBytes(c), signed, false);
 	}
 
 	/**
@@ -142,7 +178,184 @@ public class RSASignature extends RSACoder {
 	public static boolean verifyFromHex(String data, String signed, String...charset)
 			throws SignatureException, UnsupportedEncodingException, DecoderException, Exception {
 		String c = ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0];
-		return verify(data.getBytes(c)).verify(hexToBytes(signed));
+		return verifyCached(getKeyRing(), data.getBytes(c), signed, true);
+	}
+
+	// 验签结果缓存
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+	/**
+	 * 开启验签结果缓存。开启后 verifyFromBase64、verifyFromHex 和批量验签会先查缓存，同样的（公钥, 数据, 签名）只做一次公钥运算。
+	 * 重复调用会换成新的空缓存。
+	 *
+	 * @param maxSize
+	 *            最多缓存的条数
+	 * @param ttl
+	 *            过期时间
+	 * @param unit
+	 *            过期时间单位
+	 */
+	public static void enableVerifyCache(int maxSize, long ttl, TimeUnit unit) {
+		VERIFY_CACHE = new VerifyCache(maxSize, ttl, unit);
+	}
+
+	/**
+	 * 关闭验签结果缓存
+	 */
+	public static void disableVerifyCache() {
+		VERIFY_CACHE = null;
+	}
+
+	/**
+	 * 获取验签结果缓存，可用来查看命中率等统计信息
+	 *
+	 * @return 验签结果缓存，没开启时返回 null
+	 */
+	public static VerifyCache getVerifyCache() {
+		return VERIFY_CACHE;
+	}
+
+	/**
+	 * 先查缓存再验签
+	 *
+	 * @param ring
+	 *            密钥环
+	 * @param data
+	 *            原始数据
+	 * @param signed
+	 *            签名字符串，可能带密钥ID前缀
+	 * @param hex
+	 *            签名是16进制（true）还是Base64（false）
+	 * @return 校验成功返回true 失败返回false
+	 */
+	private static boolean verifyCached(KeyRing ring, byte[] data, String signed, boolean hex)
+			throws GeneralSecurityException, DecoderException {
+		// 签名前面带了密钥ID就用对应版本的公钥，没带的是默认版本
+		KeyRing.KeyVersion version = ring.resolve(KeyRing.idOf(signed));
+		String payload = KeyRing.payloadOf(signed);
+		byte[] signature = hex ? hexToBytes(payload) : decryptBase64(payload);
+		VerifyCache cache = VERIFY_CACHE;
+		if (cache == null) {
+			return verify(version, data, signature);
+		}
+		// 按解码后的签名查缓存：16进制字符串也是合法的Base64，按字符串查会把一种编码的结果用到另一种上
+		VerifyCache.Key key = VerifyCache.key(version.getFingerprint(), data, signature);
+		Boolean cached = cache.get(key);
+		if (cached != null) {
+			return cached;
+		}
+		boolean verified = verify(version, data, signature);
+		cache.put(key, verified);
+		return verified;
+	}
+
+	// 批量签名、验签
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+	/**
+	 * 批量用RSA私钥生成Base64数字签名，在公共 ForkJoinPool 上并行计算，结果和输入顺序一致。
+	 *
+	 * @param data
+	 *            待签名的字符串
+	 * @param charset
+	 *            字符编码
+	 * @return 签名列表，已用Base64编码
+	 */
+	public static List<String> signToBase64Batch(Collection<String> data, String... charset) {
+		return signToBase64Batch(data, ForkJoinPool.commonPool(), charset);
+	}
+
+	/**
+	 * 批量用RSA私钥生成Base64数字签名，在指定的 ForkJoinPool 上并行计算，每个工作线程复用自己的 Signature，结果和输入顺序一致。
+	 *
+	 * @param data
+	 *            待签名的字符串
+	 * @param pool
+	 *            执行并行计算的线程池
+	 * @param charset
+	 *            字符编码
+	 * @return 签名列表，已用Base64编码
+	 */
+	public static List<String> signToBase64Batch(Collection<String> data, ForkJoinPool pool, String... charset) {
+		Charset c = Charset.forName(ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0]);
+		// 先拷成数组再并行按下标取，LinkedList 之类按下标取是 O(n) 的
+		String[] items = data.toArray(new String[0]);
+		String[] result = new String[items.length];
+		// 整批用同一个密钥版本，批量进行中换密钥也不会混用
+		KeyRing.KeyVersion version = getKeyRing().active();
+		runParallel(result.length, pool, i -> {
+			try {
+				result[i] = KeyRing.tag(version.getId(), encryptBase64(sign(version, items[i].getBytes(c))));
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException("签名出错，第" + i + "条", e);
+			}
+		});
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * 批量用RSA公钥校验Base64数字签名，在公共 ForkJoinPool 上并行计算，结果和输入顺序一致。
+	 *
+	 * @param items
+	 *            数据和签名
+	 * @param charset
+	 *            字符编码
+	 * @return 每条的校验结果，签名格式不对等异常也算校验失败
+	 */
+	public static boolean[] verifyFromBase64Batch(Collection<SignedData> items, String... charset) {
+		return verifyFromBase64Batch(items.stream(), ForkJoinPool.commonPool(), charset);
+	}
+
+	/**
+	 * 批量用RSA公钥校验Base64数字签名，在指定的 ForkJoinPool 上并行计算，每个工作线程复用自己的 Signature，结果和输入顺序一致。
+	 *
+	 * @param items
+	 *            数据和签名，会先按顺序收集起来再并行校验
+	 * @param pool
+	 *            执行并行计算的线程池
+	 * @param charset
+	 *            字符编码
+	 * @return 每条的校验结果，签名格式不对等异常也算校验失败
+	 */
+	public static boolean[] verifyFromBase64Batch(Stream<SignedData> items, ForkJoinPool pool, String... charset) {
+		Charset c = Charset.forName(ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0]);
+		SignedData[] list = items.toArray(SignedData[]::new);
+		boolean[] result = new boolean[list.length];
+		KeyRing ring = getKeyRing();
+		runParallel(result.length, pool, i -> {
+			SignedData item = list[i];
+			try {
+				result[i] = verifyCached(ring, item.getData().getBytes(c), item.getSigned(), false);
+			} catch (GeneralSecurityException | DecoderException | RuntimeException e) {
+				result[i] = false;
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 在指定线程池上并行执行 0 ~ n-1 的任务
+	 */
+	private static void runParallel(int n, ForkJoinPool pool, IntConsumer task) {
+		if (n == 0) {
+			return;
+		}
+		try {
+			pool.submit(() -> IntStream.range(0, n).parallel().forEach(task)).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("批量处理被中断", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * 获取签名验签用的 Signature 池（所有签名方案共用），可用来查看命中、未命中次数等统计信息。
+	 *
+	 * @return Signature 池
+	 */
+	public static SignaturePool getSignaturePool() {
+		return SignatureScheme.getSignaturePool();
 	}
 
 }
@@ -0,0 +1,240 @@
+package xyz.yuanwl.util.coder;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>已初始化 Signature 对象池，和 {@link CipherPool} 一样是线程封闭的。
+ * <p>
+ * Signature 在 sign()/verify() 之后会自动回到 initSign/initVerify 之后的状态，同一个线程可以一直复用，
+ * 省掉每次 Signature.getInstance 查找 Provider 和 init 解析密钥的开销。批量签名验签时每个工作线程各用各的，互不干扰。
+ * <ul>
+ * <li>按（算法, Provider, 签名/验签, 密钥对象引用）索引，每个线程最多缓存 maxPerThread 个，超出后按 LRU 淘汰。
+ * 和 {@link CipherPool} 一样这是每个线程的上限，整个池最多有 maxPerThread × 用过它的线程数 个；</li>
+ * <li>取出的 Signature 只能在当前线程里用，并且要在下次 acquire 之前 sign()/verify() 完；</li>
+ * <li>sign()/verify() 抛异常后要调用 invalidate，避免复用状态不确定的对象。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 16:50
+ */
+public final class SignaturePool {
+
+	/** 每个线程默认最多缓存的 Signature 数 */
+	public static final int DEFAULT_MAX_PER_THREAD = 8;
+
+	private static final int MODE_SIGN = 1;
+	private static final int MODE_VERIFY = 2;
+
+	private final int maxPerThread;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private final ThreadLocal<Map<PoolKey, Signature>> local;
+
+	public SignaturePool() {
+		this(DEFAULT_MAX_PER_THREAD);
+	}
+
+	public SignaturePool(int maxPerThread) {
+		if (maxPerThread <= 0) {
+			throw new IllegalArgumentException("maxPerThread 必须大于0：" + maxPerThread);
+		}
+		this.maxPerThread = maxPerThread;
+		this.local = ThreadLocal.withInitial(() -> new LinkedHashMap<PoolKey, Signature>(maxPerThread * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<PoolKey, Signature> eldest) {
+				if (size() > SignaturePool.this.maxPerThread) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		});
+	}
+
+	/**
+	 * 取出当前线程中已用私钥 initSign 的 Signature，用默认 Provider
+	 *
+	 * @param algorithm 签名算法，如 SHA1WithRSA
+	 * @param key 私钥
+	 * @return 已初始化的 Signature
+	 * @throws NoSuchAlgorithmException
+	 * @throws InvalidKeyException
+	 */
+	public Signature acquireSigner(String algorithm, PrivateKey key)
+			throws NoSuchAlgorithmException, InvalidKeyException {
+		try {
+			return acquire(algorithm, null, MODE_SIGN, key);
+		} catch (NoSuchProviderException e) {
+			// 不指定 Provider 时不会出现
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 取出当前线程中已用私钥 initSign 的 Signature
+	 *
+	 * @param algorithm 签名算法，如 SHA256withECDSA
+	 * @param provider Provider 名称，null 表示用默认的
+	 * @param key 私钥
+	 * @return 已初始化的 Signature
+	 * @throws NoSuchAlgorithmException
+	 * @throws NoSuchProviderException
+	 * @throws InvalidKeyException
+	 */
+	public Signature acquireSigner(String algorithm, String provider, PrivateKey key)
+			throws NoSuchAlgorithmException, NoSuchProviderException, InvalidKeyException {
+		return acquire(algorithm, provider, MODE_SIGN, key);
+	}
+
+	/**
+	 * 取出当前线程中已用公钥 initVerify 的 Signature，用默认 Provider
+	 *
+	 * @param algorithm 签名算法，如 SHA1WithRSA
+	 * @param key 公钥
+	 * @return 已初始化的 Signature
+	 * @throws NoSuchAlgorithmException
+	 * @throws InvalidKeyException
+	 */
+	public Signature acquireVerifier(String algorithm, PublicKey key)
+			throws NoSuchAlgorithmException, InvalidKeyException {
+		try {
+			return acquire(algorithm, null, MODE_VERIFY, key);
+		} catch (NoSuchProviderException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 取出当前线程中已用公钥 initVerify 的 Signature
+	 *
+	 * @param algorithm 签名算法，如 SHA256withECDSA
+	 * @param provider Provider 名称，null 表示用默认的
+	 * @param key 公钥
+	 * @return 已初始化的 Signature
+	 * @throws NoSuchAlgorithmException
+	 * @throws NoSuchProviderException
+	 * @throws InvalidKeyException
+	 */
+	public Signature acquireVerifier(String algorithm, String provider, PublicKey key)
+			throws NoSuchAlgorithmException, NoSuchProviderException, InvalidKeyException {
+		return acquire(algorithm, provider, MODE_VERIFY, key);
+	}
+
+	/**
+	 * 把当前线程中对应的 Signature 移出池（默认 Provider）
+	 *
+	 * @param algorithm 签名算法
+	 * @param key 私钥或公钥
+	 */
+	public void invalidate(String algorithm, Key key) {
+		invalidate(algorithm, null, key);
+	}
+
+	/**
+	 * 把当前线程中对应的 Signature 移出池
+	 *
+	 * @param algorithm 签名算法
+	 * @param provider Provider 名称，null 表示默认的
+	 * @param key 私钥或公钥
+	 */
+	public void invalidate(String algorithm, String provider, Key key) {
+		local.get().remove(new PoolKey(algorithm, provider, key instanceof PrivateKey ? MODE_SIGN : MODE_VERIFY, key));
+	}
+
+	private Signature acquire(String algorithm, String provider, int mode, Key key)
+			throws NoSuchAlgorithmException, NoSuchProviderException, InvalidKeyException {
+		Map<PoolKey, Signature> signatures = local.get();
+		PoolKey poolKey = new PoolKey(algorithm, provider, mode, key);
+		Signature signature = signatures.get(poolKey);
+		if (signature != null) {
+			hits.increment();
+			return signature;
+		}
+		misses.increment();
+		signature = provider == null ? JceProviders.signature(algorithm) : Signature.getInstance(algorithm, provider);
+		if (mode == MODE_SIGN) {
+			signature.initSign((PrivateKey) key);
+		} else {
+			signature.initVerify((PublicKey) key);
+		}
+		signatures.put(poolKey, signature);
+		return signature;
+	}
+
+	public int getMaxPerThread() {
+		return maxPerThread;
+	}
+
+	/** 命中次数 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** 未命中（新建 Signature）次数 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** 因超出容量被淘汰的次数 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/** 命中率，还没有调用过时返回0 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0D : (double) h / total;
+	}
+
+	@Override
+	public String toString() {
+		return "SignaturePool{maxPerThread=" + maxPerThread + ", hits=" + getHits() + ", misses=" + getMisses()
+				+ ", evictions=" + getEvictions() + "}";
+	}
+
+	/**
+	 * 池的索引：算法 + Provider + 模式 + 密钥对象引用
+	 */
+	private static final class PoolKey {
+		private final String algorithm;
+		private final String provider;
+		private final int mode;
+		private final Key key;
+
+		PoolKey(String algorithm, String provider, int mode, Key key) {
+			this.algorithm = algorithm;
+			this.provider = provider;
+			this.mode = mode;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof PoolKey)) return false;
+			PoolKey other = (PoolKey) o;
+			return mode == other.mode && key == other.key && algorithm.equals(other.algorithm)
+					&& (provider == null ? other.provider == null : provider.equals(other.provider));
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * System.identityHashCode(key) + algorithm.hashCode()) * 31 + mode;
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package xyz.yuanwl.util.coder;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Security;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+/**
+ * <p>签名方案：签名算法 + 密钥算法 + 密钥参数 + Provider。
+ * <ul>
+ * <li>SHA1_WITH_RSA：原来 {@link RSASignature} 用的方案，保留兼容；</li>
+ * <li>SHA256_WITH_RSA：RSA 换成 SHA-256 摘要；</li>
+ * <li>SHA256_WITH_ECDSA：P-256 曲线的 ECDSA，用项目里已有的 BouncyCastle 实现。签名比同等强度的 RSA 私钥运算便宜得多，签名也更短，
+ * 适合大批量签名。</li>
+ * </ul>
+ * 签名、验签用的 Signature 对象都来自同一个线程封闭的 {@link SignaturePool}，按（算法, Provider, 密钥）复用。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 19:10
+ */
+public enum SignatureScheme {
+
+	SHA1_WITH_RSA("SHA1WithRSA", "RSA", 1024, null, null),
+
+	SHA256_WITH_RSA("SHA256WithRSA", "RSA", 2048, null, null),
+
+	SHA256_WITH_ECDSA("SHA256withECDSA", "EC", 256, "secp256r1", BouncyCastleProvider.PROVIDER_NAME);
+
+	/** 签名验签用的 Signature 池，所有方案共用 */
+	private static final SignaturePool SIGNATURE_POOL = new SignaturePool();
+
+	static {
+		// BouncyCastle 只注册一次
+		if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+			Security.addProvider(new BouncyCastleProvider());
+		}
+	}
+
+	/** 签名算法 */
+	private final String algorithm;
+	/** 密钥算法 */
+	private final String keyAlgorithm;
+	/** 密钥长度（位） */
+	private final int keySize;
+	/** 椭圆曲线名称，RSA 为 null */
+	private final String curve;
+	/** Provider 名称，null 表示用默认的 */
+	private final String provider;
+
+	SignatureScheme(String algorithm, String keyAlgorithm, int keySize, String curve, String provider) {
+		this.algorithm = algorithm;
+		this.keyAlgorithm = keyAlgorithm;
+		this.keySize = keySize;
+		this.curve = curve;
+		this.provider = provider;
+	}
+
+	/**
+	 * 签名
+	 *
+	 * @param key 私钥
+	 * @param data 原始数据
+	 * @return 签名
+	 * @throws GeneralSecurityException
+	 */
+	public byte[] sign(PrivateKey key, byte[] data) throws GeneralSecurityException {
+		Signature signature = SIGNATURE_POOL.acquireSigner(algorithm, provider, key);
+		try {
+			signature.update(data);
+			return signature.sign();
+		} catch (SignatureException | RuntimeException e) {
+			SIGNATURE_POOL.invalidate(algorithm, provider, key);
+			throw e;
+		}
+	}
+
+	/**
+	 * 验签
+	 *
+	 * @param key 公钥
+	 * @param data 原始数据
+	 * @param signed 签名
+	 * @return 校验成功返回true 失败返回false
+	 * @throws GeneralSecurityException
+	 */
+	public boolean verify(PublicKey key, byte[] data, byte[] signed) throws GeneralSecurityException {
+		Signature signature = SIGNATURE_POOL.acquireVerifier(algorithm, provider, key);
+		try {
+			signature.update(data);
+			return signature.verify(signed);
+		} catch (SignatureException | RuntimeException e) {
+			SIGNATURE_POOL.invalidate(algorithm, provider, key);
+			throw e;
+		}
+	}
+
+	/**
+	 * 新建一个未初始化的 Signature 对象
+	 *
+	 * @return Signature
+	 * @throws GeneralSecurityException
+	 */
+	public Signature newSignature() throws GeneralSecurityException {
+		return provider == null ? JceProviders.signature(algorithm) : Signature.getInstance(algorithm, provider);
+	}
+
+	/**
+	 * 生成该方案的密钥对
+	 *
+	 * @return 密钥对
+	 * @throws GeneralSecurityException
+	 */
+	public KeyPair generateKeyPair() throws GeneralSecurityException {
+		KeyPairGenerator generator = provider == null ? KeyPairGenerator.getInstance(keyAlgorithm)
+				: KeyPairGenerator.getInstance(keyAlgorithm, provider);
+		if (curve != null) {
+			generator.initialize(new ECGenParameterSpec(curve));
+		} else {
+			generator.initialize(keySize);
+		}
+		return generator.generateKeyPair();
+	}
+
+	/**
+	 * 还原公钥
+	 *
+	 * @param keyBase64 X509 编码的公钥，用 Base64 编码成的字符串
+	 * @return 公钥
+	 * @throws GeneralSecurityException
+	 */
+	public PublicKey restorePublicKey(String keyBase64) throws GeneralSecurityException {
+		return keyFactory().generatePublic(new X509EncodedKeySpec(BaseCoder.decryptBase64(keyBase64)));
+	}
+
+	/**
+	 * 还原私钥
+	 *
+	 * @param keyBase64 PKCS8 编码的私钥，用 Base64 编码成的字符串
+	 * @return 私钥
+	 * @throws GeneralSecurityException
+	 */
+	public PrivateKey restorePrivateKey(String keyBase64) throws GeneralSecurityException {
+		return keyFactory().generatePrivate(new PKCS8EncodedKeySpec(BaseCoder.decryptBase64(keyBase64)));
+	}
+
+	private KeyFactory keyFactory() throws GeneralSecurityException {
+		return provider == null ? KeyFactory.getInstance(keyAlgorithm) : KeyFactory.getInstance(keyAlgorithm, provider);
+	}
+
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	public String getKeyAlgorithm() {
+		return keyAlgorithm;
+	}
+
+	public int getKeySize() {
+		return keySize;
+	}
+
+	public String getProvider() {
+		return provider;
+	}
+
+	/**
+	 * 获取所有方案共用的 Signature 池，可用来查看命中、未命中次数等统计信息
+	 *
+	 * @return Signature 池
+	 */
+	public static SignaturePool getSignaturePool() {
+		return SIGNATURE_POOL;
+	}
+}
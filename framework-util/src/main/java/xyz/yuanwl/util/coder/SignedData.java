@@ -0,0 +1,24 @@
+package xyz.yuanwl.util.coder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>待验签的数据和签名，批量验签用
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 17:02
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SignedData {
+
+	/** 原始数据 */
+	private String data;
+
+	/** 签名，已用Base64编码 */
+	private String signed;
+
+}
@@ -0,0 +1,171 @@
+package xyz.yuanwl.util.coder;
+
+import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * <p>按密钥选签名方案的签名器：一个签名方案 + 一对密钥，签名验签的用法和 {@link RSASignature} 一样（Base64/16进制）。
+ * <p>
+ * 不同的合作方、不同的业务可以各用各的方案，比如量大的签名换成 {@link SignatureScheme#SHA256_WITH_ECDSA}，
+ * 老接口继续用 {@link SignatureScheme#SHA1_WITH_RSA}。对象不可变，可以在多线程间共享。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 19:30
+ */
+public final class Signer {
+
+	private final SignatureScheme scheme;
+	/** 私钥，只验签时可以为 null */
+	private final PrivateKey privateKey;
+	private final PublicKey publicKey;
+
+	/**
+	 * @param scheme 签名方案
+	 * @param privateKey 私钥，只验签时可以为 null
+	 * @param publicKey 公钥，只签名时可以为 null
+	 */
+	public Signer(SignatureScheme scheme, PrivateKey privateKey, PublicKey publicKey) {
+		if (scheme == null) {
+			throw new IllegalArgumentException("签名方案不能为空");
+		}
+		this.scheme = scheme;
+		this.privateKey = privateKey;
+		this.publicKey = publicKey;
+	}
+
+	/**
+	 * 用密钥对创建签名器
+	 *
+	 * @param scheme 签名方案
+	 * @param keyPair 密钥对
+	 * @return 签名器
+	 */
+	public static Signer of(SignatureScheme scheme, KeyPair keyPair) {
+		return new Signer(scheme, keyPair.getPrivate(), keyPair.getPublic());
+	}
+
+	/**
+	 * 用 Base64 编码的密钥创建签名器
+	 *
+	 * @param scheme 签名方案
+	 * @param priKey PKCS8 编码的私钥，Base64 字符串，只验签时可以为 null
+	 * @param pubKey X509 编码的公钥，Base64 字符串，只签名时可以为 null
+	 * @return 签名器
+	 * @throws GeneralSecurityException
+	 */
+	public static Signer fromBase64(SignatureScheme scheme, String priKey, String pubKey)
+			throws GeneralSecurityException {
+		return new Signer(scheme, priKey == null ? null : scheme.restorePrivateKey(priKey),
+				pubKey == null ? null : scheme.restorePublicKey(pubKey));
+	}
+
+	/**
+	 * 签名
+	 *
+	 * @param data 原始数据
+	 * @return 签名
+	 * @throws GeneralSecurityException
+	 */
+	public byte[] sign(byte[] data) throws GeneralSecurityException {
+		if (privateKey == null) {
+			throw new IllegalStateException("没有私钥，不能签名");
+		}
+		return scheme.sign(privateKey, data);
+	}
+
+	/**
+	 * 验签
+	 *
+	 * @param data 原始数据
+	 * @param signed 签名
+	 * @return 校验成功返回true 失败返回false
+	 * @throws GeneralSecurityException
+	 */
+	public boolean verify(byte[] data, byte[] signed) throws GeneralSecurityException {
+		if (publicKey == null) {
+			throw new IllegalStateException("没有公钥，不能验签");
+		}
+		return scheme.verify(publicKey, data, signed);
+	}
+
+	/**
+	 * 生成Base64数字签名
+	 *
+	 * @param data 待签名的字符串
+	 * @param charset 字符编码，不传默认 UTF-8
+	 * @return 签名，已用Base64编码
+	 * @throws GeneralSecurityException
+	 * @throws UnsupportedEncodingException
+	 */
+	public String signToBase64(String data, String... charset)
+			throws GeneralSecurityException, UnsupportedEncodingException {
+		return BaseCoder.encryptBase64(sign(data.getBytes(charset(charset))));
+	}
+
+	/**
+	 * 生成16进制数字签名
+	 *
+	 * @param data 待签名的字符串
+	 * @param charset 字符编码，不传默认 UTF-8
+	 * @return 签名，已转16进制字符串
+	 * @throws GeneralSecurityException
+	 * @throws UnsupportedEncodingException
+	 */
+	public String signToHex(String data, String... charset)
+			throws GeneralSecurityException, UnsupportedEncodingException {
+		return BaseCoder.bytesToHex(sign(data.getBytes(charset(charset))));
+	}
+
+	/**
+	 * 校验Base64数字签名
+	 *
+	 * @param data 原始数据
+	 * @param signed 签名，已用Base64编码
+	 * @param charset 字符编码，不传默认 UTF-8
+	 * @return 校验成功返回true 失败返回false
+	 * @throws GeneralSecurityException
+	 * @throws UnsupportedEncodingException
+	 */
+	public boolean verifyFromBase64(String data, String signed, String... charset)
+			throws GeneralSecurityException, UnsupportedEncodingException {
+		return verify(data.getBytes(charset(charset)), BaseCoder.decryptBase64(signed));
+	}
+
+	/**
+	 * 校验16进制数字签名
+	 *
+	 * @param data 原始数据
+	 * @param signed 签名，16进制字符串
+	 * @param charset 字符编码，不传默认 UTF-8
+	 * @return 校验成功返回true 失败返回false
+	 * @throws GeneralSecurityException
+	 * @throws UnsupportedEncodingException
+	 * @throws DecoderException
+	 */
+	public boolean verifyFromHex(String data, String signed, String... charset)
+			throws GeneralSecurityException, UnsupportedEncodingException, DecoderException {
+		return verify(data.getBytes(charset(charset)), BaseCoder.hexToBytes(signed));
+	}
+
+	public SignatureScheme getScheme() {
+		return scheme;
+	}
+
+	public PrivateKey getPrivateKey() {
+		return privateKey;
+	}
+
+	public PublicKey getPublicKey() {
+		return publicKey;
+	}
+
+	private static String charset(String... charset) {
+		return ArrayUtils.isEmpty(charset) ? "UTF-8" : charset[0];
+	}
+}
@@ -0,0 +1,230 @@
+package xyz.yuanwl.util.coder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>流式、内存映射文件摘要工具，不用把整个文件读进堆里就能算校验和。
+ * <ul>
+ * <li>InputStream、ReadableByteChannel 用线程内复用的缓冲区分块读取；</li>
+ * <li>FileChannel 按窗口（默认64MB）做内存映射，数据不经过 Java 堆；</li>
+ * <li>树形摘要：把文件切成固定大小的块，用 ForkJoinPool 并行算出每块的摘要，再对所有块摘要按顺序拼接后求一次摘要作为根摘要。
+ * 适合好几个G的大文件。注意树形摘要和对整个文件直接求摘要的结果不同，两端要用同样的算法和块大小才能比对。</li>
+ * </ul>
+ * 摘要对象都来自 {@link DigestEngine}，每个线程复用。
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 13:20
+ */
+public final class StreamDigester {
+
+	/** 流读取缓冲区大小 */
+	public static final int BUFFER_SIZE = 64 * 1024;
+	/** 内存映射窗口大小 */
+	public static final long MAP_WINDOW_SIZE = 64L * 1024 * 1024;
+	/** 树形摘要默认块大小 */
+	public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+	private static final ThreadLocal<byte[]> HEAP_BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+	private static final ThreadLocal<ByteBuffer> DIRECT_BUFFER = ThreadLocal
+			.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+	private StreamDigester() {
+	}
+
+	/**
+	 * 对输入流求摘要，读到流末尾为止，不关闭流
+	 *
+	 * @param algorithm 算法，如 MD5、SHA-256
+	 * @param in 输入流
+	 * @return 摘要
+	 * @throws NoSuchAlgorithmException
+	 * @throws IOException
+	 */
+	public static byte[] digest(String algorithm, InputStream in) throws NoSuchAlgorithmException, IOException {
+		MessageDigest md = DigestEngine.messageDigest(algorithm);
+		byte[] buffer = HEAP_BUFFER.get();
+		int n;
+		while ((n = in.read(buffer)) != -1) {
+			md.update(buffer, 0, n);
+		}
+		return md.digest();
+	}
+
+	/**
+	 * 对通道求摘要，读到通道末尾为止，不关闭通道
+	 *
+	 * @param algorithm 算法
+	 * @param channel 通道
+	 * @return 摘要
+	 * @throws NoSuchAlgorithmException
+	 * @throws IOException
+	 */
+	public static byte[] digest(String algorithm, ReadableByteChannel channel)
+			throws NoSuchAlgorithmException, IOException {
+		if (channel instanceof FileChannel) {
+			FileChannel fileChannel = (FileChannel) channel;
+			long position = fileChannel.position();
+			byte[] result = digest(algorithm, fileChannel, position, fileChannel.size() - position);
+			fileChannel.position(fileChannel.size());
+			return result;
+		}
+		MessageDigest md = DigestEngine.messageDigest(algorithm);
+		ByteBuffer buffer = DIRECT_BUFFER.get();
+		buffer.clear();
+		while (channel.read(buffer) != -1) {
+			buffer.flip();
+			md.update(buffer);
+			buffer.clear();
+		}
+		return md.digest();
+	}
+
+	/**
+	 * 对文件的一段求摘要，按窗口做内存映射，不改变通道的 position
+	 *
+	 * @param algorithm 算法
+	 * @param channel 文件通道
+	 * @param position 起始位置
+	 * @param size 长度
+	 * @return 摘要
+	 * @throws NoSuchAlgorithmException
+	 * @throws IOException
+	 */
+	public static byte[] digest(String algorithm, FileChannel channel, long position, long size)
+			throws NoSuchAlgorithmException, IOException {
+		MessageDigest md = DigestEngine.messageDigest(algorithm);
+		update(md, channel, position, size);
+		return md.digest();
+	}
+
+	/**
+	 * 对整个文件求摘要（内存映射）
+	 *
+	 * @param algorithm 算法
+	 * @param file 文件路径
+	 * @return 摘要
+	 * @throws NoSuchAlgorithmException
+	 * @throws IOException
+	 */
+	public static byte[] digest(String algorithm, Path file) throws NoSuchAlgorithmException, IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return digest(algorithm, channel, 0, channel.size());
+		}
+	}
+
+	/**
+	 * 用默认块大小和公共 ForkJoinPool 对文件求树形摘要
+	 *
+	 * @param algorithm 算法
+	 * @param file 文件路径
+	 * @return 根摘要
+	 * @throws NoSuchAlgorithmException
+	 * @throws IOException
+	 */
+	public static byte[] treeDigest(String algorithm, Path file) throws NoSuchAlgorithmException, IOException {
+		return treeDigest(algorithm, file, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 并行对文件求树形摘要：根摘要 = H(H(块0) || H(块1) || ... || H(块n-1))，最后一块可以不满。空文件按一个空块算。
+	 *
+	 * @param algorithm 算法
+	 * @param file 文件路径
+	 * @param chunkSize 块大小（字节），要求大于0
+	 * @param pool 执行并行计算的线程池
+	 * @return 根摘要
+	 * @throws NoSuchAlgorithmException
+	 * @throws IOException
+	 */
+	public static byte[] treeDigest(String algorithm, Path file, int chunkSize, ForkJoinPool pool)
+			throws NoSuchAlgorithmException, IOException {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize 必须大于0：" + chunkSize);
+		}
+		// 先检查算法是否存在，免得在工作线程里才报错
+		DigestEngine.messageDigest(algorithm);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+			byte[][] leaves = new byte[chunks][];
+			try {
+				pool.invoke(new ChunkTask(algorithm, channel, size, chunkSize, leaves, 0, chunks));
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			MessageDigest root = DigestEngine.messageDigest(algorithm);
+			for (byte[] leaf : leaves) {
+				root.update(leaf);
+			}
+			return root.digest();
+		}
+	}
+
+	private static void update(MessageDigest md, FileChannel channel, long position, long size) throws IOException {
+		long end = position + size;
+		for (long pos = position; pos < end; pos += MAP_WINDOW_SIZE) {
+			long len = Math.min(MAP_WINDOW_SIZE, end - pos);
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+			md.update(mapped);
+		}
+	}
+
+	/**
+	 * 计算 [from, to) 范围内各块摘要的任务，范围大于1块时对半拆分
+	 */
+	private static final class ChunkTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final String algorithm;
+		private final transient FileChannel channel;
+		private final long fileSize;
+		private final int chunkSize;
+		private final byte[][] leaves;
+		private final int from;
+		private final int to;
+
+		ChunkTask(String algorithm, FileChannel channel, long fileSize, int chunkSize, byte[][] leaves, int from,
+				int to) {
+			this.algorithm = algorithm;
+			this.channel = channel;
+			this.fileSize = fileSize;
+			this.chunkSize = chunkSize;
+			this.leaves = leaves;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ChunkTask(algorithm, channel, fileSize, chunkSize, leaves, from, mid),
+						new ChunkTask(algorithm, channel, fileSize, chunkSize, leaves, mid, to));
+				return;
+			}
+			long position = (long) from * chunkSize;
+			long len = Math.min(chunkSize, fileSize - position);
+			try {
+				MessageDigest md = DigestEngine.messageDigest(algorithm);
+				update(md, channel, position, len);
+				leaves[from] = md.digest();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
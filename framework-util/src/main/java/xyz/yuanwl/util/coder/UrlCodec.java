@@ -0,0 +1,405 @@
+package xyz.yuanwl.util.coder;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>URL 编码解码工具，UTF-8。
+ * <p>
+ * URLEncoder/URLDecoder 每次都按字符集名查找字符集，不管需不需要转义都新建 String，转义时还要先把一段字符转成字节数组。
+ * 这里：
+ * <ul>
+ * <li>先扫描一遍，不需要转义的（大部分参数都是这样）直接返回原字符串，不分配任何对象；</li>
+ * <li>需要转义时在线程缓存的 char[] 里一次编码完，UTF-8 直接按码点算，不经过字符集和字节数组；</li>
+ * <li>可以编码解码到调用方提供的 StringBuilder、CharBuffer、ByteBuffer 里，拼 URL 时不产生中间字符串；</li>
+ * <li>两种模式：{@link Mode#QUERY} 和 URLEncoder/URLDecoder 完全一致（表单格式，空格编码成 +），
+ * {@link Mode#PATH} 按 RFC 3986 编码路径段（空格编码成 %20，+ 原样保留，: @ 等路径里合法的字符不转义）。</li>
+ * </ul>
+ * 解码时 % 后面不是两个16进制字符抛 IllegalArgumentException，和 URLDecoder 一样；不合法的 UTF-8 字节替换成 U+FFFD。
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 06:50
+ */
+public final class UrlCodec {
+
+	/**
+	 * 编码模式
+	 */
+	public enum Mode {
+		/** 查询参数（application/x-www-form-urlencoded），和 URLEncoder 一致：只保留字母数字和 .-*_，空格编码成 + */
+		QUERY(".-*_", true),
+		/** 路径段（RFC 3986 pchar）：保留字母数字、-._~、!$&'()*+,;= 和 :@，空格编码成 %20，/ 要转义 */
+		PATH("-._~!$&'()*+,;=:@", false);
+
+		/** ASCII 字符是否不用转义 */
+		private final boolean[] safe = new boolean[128];
+		/** 空格是否编码成 + */
+		private final boolean plusForSpace;
+
+		Mode(String safeSymbols, boolean plusForSpace) {
+			for (char c = '0'; c <= '9'; c++) safe[c] = true;
+			for (char c = 'A'; c <= 'Z'; c++) safe[c] = true;
+			for (char c = 'a'; c <= 'z'; c++) safe[c] = true;
+			for (int i = 0; i < safeSymbols.length(); i++) safe[safeSymbols.charAt(i)] = true;
+			this.plusForSpace = plusForSpace;
+		}
+
+		boolean isSafe(char c) {
+			return c < 128 && safe[c];
+		}
+	}
+
+	private static final char[] HEX_UPPER = "0123456789ABCDEF".toCharArray();
+	/** 线程缓存的缓冲区超过这么大就不留着，防止一个超长 URL 让缓存一直占着内存 */
+	private static final int MAX_CACHED_SCRATCH = 1 << 16;
+
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	private static final class Scratch {
+		char[] chars = new char[256];
+		byte[] bytes = new byte[64];
+
+		char[] chars(int size) {
+			if (size <= chars.length) {
+				return chars;
+			}
+			char[] grown = new char[Math.max(size, chars.length * 2)];
+			if (grown.length <= MAX_CACHED_SCRATCH) {
+				chars = grown;
+			}
+			return grown;
+		}
+
+		byte[] bytes(int size) {
+			if (size <= bytes.length) {
+				return bytes;
+			}
+			byte[] grown = new byte[Math.max(size, bytes.length * 2)];
+			if (grown.length <= MAX_CACHED_SCRATCH) {
+				bytes = grown;
+			}
+			return grown;
+		}
+	}
+
+	private UrlCodec() {
+	}
+
+	// 编码
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 按查询参数格式编码，结果和 URLEncoder.encode(s, "UTF-8") 一样
+	 *
+	 * @param s 字符串
+	 * @return 编码结果，不需要转义时就是 s 本身
+	 */
+	public static String encode(String s) {
+		return encode(s, Mode.QUERY);
+	}
+
+	/**
+	 * 编码
+	 *
+	 * @param s 字符串
+	 * @param mode 模式
+	 * @return 编码结果，不需要转义时就是 s 本身
+	 */
+	public static String encode(String s, Mode mode) {
+		int first = firstUnsafe(s, mode);
+		if (first < 0) {
+			return s;
+		}
+		char[] out = SCRATCH.get().chars(maxEncodedLength(s.length()));
+		return new String(out, 0, encode(s, first, mode, out));
+	}
+
+	/**
+	 * 编码后追加到 out
+	 *
+	 * @param s 字符序列
+	 * @param mode 模式
+	 * @param out 输出
+	 * @return out
+	 */
+	public static StringBuilder encode(CharSequence s, Mode mode, StringBuilder out) {
+		int first = firstUnsafe(s, mode);
+		if (first < 0) {
+			return out.append(s);
+		}
+		char[] buf = SCRATCH.get().chars(maxEncodedLength(s.length()));
+		return out.append(buf, 0, encode(s, first, mode, buf));
+	}
+
+	/**
+	 * 编码后以 ASCII 字节写到 out 当前位置
+	 *
+	 * @param s 字符序列
+	 * @param mode 模式
+	 * @param out 输出
+	 * @return 写入的字节数
+	 * @throws BufferOverflowException out 剩余空间不够
+	 */
+	public static int encode(CharSequence s, Mode mode, ByteBuffer out) {
+		int first = firstUnsafe(s, mode);
+		int len;
+		char[] buf;
+		if (first < 0) {
+			len = s.length();
+			buf = null;
+		} else {
+			buf = SCRATCH.get().chars(maxEncodedLength(s.length()));
+			len = encode(s, first, mode, buf);
+		}
+		if (out.remaining() < len) {
+			throw new BufferOverflowException();
+		}
+		for (int i = 0; i < len; i++) {
+			out.put((byte) (buf == null ? s.charAt(i) : buf[i]));
+		}
+		return len;
+	}
+
+	/**
+	 * 是否有字符需要转义
+	 */
+	public static boolean needsEncoding(CharSequence s, Mode mode) {
+		return firstUnsafe(s, mode) >= 0;
+	}
+
+	/**
+	 * 第一个要转义的字符的位置，没有返回-1
+	 */
+	private static int firstUnsafe(CharSequence s, Mode mode) {
+		for (int i = 0, n = s.length(); i < n; i++) {
+			if (!mode.isSafe(s.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** 一个 char 最多编码成 %XX%XX%XX 9个字符（代理对2个 char 编码成12个字符） */
+	private static int maxEncodedLength(int length) {
+		return length * 9;
+	}
+
+	/**
+	 * 从 first 开始编码，first 前面的原样复制
+	 *
+	 * @return 写到 out 的字符数
+	 */
+	private static int encode(CharSequence s, int first, Mode mode, char[] out) {
+		int j = 0;
+		for (int i = 0; i < first; i++) {
+			out[j++] = s.charAt(i);
+		}
+		for (int i = first, n = s.length(); i < n; i++) {
+			char c = s.charAt(i);
+			if (mode.isSafe(c)) {
+				out[j++] = c;
+			} else if (c == ' ' && mode.plusForSpace) {
+				out[j++] = '+';
+			} else if (c < 0x80) {
+				j = percent(c, out, j);
+			} else if (c < 0x800) {
+				j = percent(0xC0 | (c >> 6), out, j);
+				j = percent(0x80 | (c & 0x3F), out, j);
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, s.charAt(++i));
+				j = percent(0xF0 | (cp >> 18), out, j);
+				j = percent(0x80 | ((cp >> 12) & 0x3F), out, j);
+				j = percent(0x80 | ((cp >> 6) & 0x3F), out, j);
+				j = percent(0x80 | (cp & 0x3F), out, j);
+			} else if (Character.isSurrogate(c)) {
+				// 落单的代理字符，和 URLEncoder 一样编码成 ?
+				j = percent('?', out, j);
+			} else {
+				j = percent(0xE0 | (c >> 12), out, j);
+				j = percent(0x80 | ((c >> 6) & 0x3F), out, j);
+				j = percent(0x80 | (c & 0x3F), out, j);
+			}
+		}
+		return j;
+	}
+
+	private static int percent(int b, char[] out, int j) {
+		out[j++] = '%';
+		out[j++] = HEX_UPPER[(b >> 4) & 0x0F];
+		out[j++] = HEX_UPPER[b & 0x0F];
+		return j;
+	}
+
+	// 解码
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 按查询参数格式解码，结果和 URLDecoder.decode(s, "UTF-8") 一样
+	 *
+	 * @param s 字符串
+	 * @return 解码结果，没有要解码的字符时就是 s 本身
+	 * @throws IllegalArgumentException % 后面不是两个16进制字符
+	 */
+	public static String decode(String s) {
+		return decode(s, Mode.QUERY);
+	}
+
+	/**
+	 * 解码
+	 *
+	 * @param s 字符串
+	 * @param mode 模式，QUERY 模式下 + 解码成空格
+	 * @return 解码结果，没有要解码的字符时就是 s 本身
+	 * @throws IllegalArgumentException % 后面不是两个16进制字符
+	 */
+	public static String decode(String s, Mode mode) {
+		int first = firstEscaped(s, mode);
+		if (first < 0) {
+			return s;
+		}
+		Scratch scratch = SCRATCH.get();
+		char[] out = scratch.chars(s.length());
+		return new String(out, 0, decode(s, first, mode, out, scratch));
+	}
+
+	/**
+	 * 解码后追加到 out
+	 *
+	 * @param s 字符序列
+	 * @param mode 模式
+	 * @param out 输出
+	 * @return out
+	 * @throws IllegalArgumentException % 后面不是两个16进制字符
+	 */
+	public static StringBuilder decode(CharSequence s, Mode mode, StringBuilder out) {
+		int first = firstEscaped(s, mode);
+		if (first < 0) {
+			return out.append(s);
+		}
+		Scratch scratch = SCRATCH.get();
+		char[] buf = scratch.chars(s.length());
+		return out.append(buf, 0, decode(s, first, mode, buf, scratch));
+	}
+
+	/**
+	 * 解码后写到 out 当前位置
+	 *
+	 * @param s 字符序列
+	 * @param mode 模式
+	 * @param out 输出
+	 * @return out
+	 * @throws IllegalArgumentException % 后面不是两个16进制字符
+	 * @throws BufferOverflowException out 剩余空间不够
+	 */
+	public static CharBuffer decode(CharSequence s, Mode mode, CharBuffer out) {
+		int first = firstEscaped(s, mode);
+		if (first < 0) {
+			return out.append(s);
+		}
+		Scratch scratch = SCRATCH.get();
+		char[] buf = scratch.chars(s.length());
+		return out.put(buf, 0, decode(s, first, mode, buf, scratch));
+	}
+
+	/**
+	 * 第一个要解码的字符（% 或 QUERY 模式下的 +）的位置，没有返回-1
+	 */
+	private static int firstEscaped(CharSequence s, Mode mode) {
+		for (int i = 0, n = s.length(); i < n; i++) {
+			char c = s.charAt(i);
+			if (c == '%' || (c == '+' && mode.plusForSpace)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 从 first 开始解码，first 前面的原样复制。解码结果不会比原来长
+	 *
+	 * @return 写到 out 的字符数
+	 */
+	private static int decode(CharSequence s, int first, Mode mode, char[] out, Scratch scratch) {
+		int j = 0;
+		for (int i = 0; i < first; i++) {
+			out[j++] = s.charAt(i);
+		}
+		int n = s.length();
+		for (int i = first; i < n;) {
+			char c = s.charAt(i);
+			if (c == '+' && mode.plusForSpace) {
+				out[j++] = ' ';
+				i++;
+			} else if (c == '%') {
+				// 连续的 %XX 是一串 UTF-8 字节，一起解码
+				byte[] bytes = scratch.bytes((n - i) / 3);
+				int count = 0;
+				while (i < n && s.charAt(i) == '%') {
+					if (i + 2 >= n) {
+						throw new IllegalArgumentException("URL 解码：% 后面不完整，位置：" + i);
+					}
+					int hi = Character.digit(s.charAt(i + 1), 16), lo = Character.digit(s.charAt(i + 2), 16);
+					if (hi < 0 || lo < 0) {
+						throw new IllegalArgumentException("URL 解码：% 后面不是16进制字符，位置：" + i);
+					}
+					bytes[count++] = (byte) ((hi << 4) | lo);
+					i += 3;
+				}
+				j = decodeUtf8(bytes, count, out, j);
+			} else {
+				out[j++] = c;
+				i++;
+			}
+		}
+		return j;
+	}
+
+	/**
+	 * UTF-8 解码到 out。合法的直接按码点算；遇到不合法的字节交给 JDK 解码（替换成 U+FFFD），保证结果和 URLDecoder 一样
+	 */
+	private static int decodeUtf8(byte[] bytes, int count, char[] out, int j) {
+		int start = j;
+		for (int i = 0; i < count;) {
+			int b = bytes[i] & 0xFF;
+			if (b < 0x80) {
+				out[j++] = (char) b;
+				i++;
+			} else if (b >= 0xC2 && b < 0xE0 && i + 1 < count && isContinuation(bytes[i + 1])) {
+				out[j++] = (char) (((b & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+				i += 2;
+			} else if (b >= 0xE0 && b < 0xF0 && i + 2 < count && isContinuation(bytes[i + 1]) && isContinuation(bytes[i + 2])) {
+				char c = (char) (((b & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+				if (c < 0x800 || Character.isSurrogate(c)) {
+					return slowDecode(bytes, count, out, start);
+				}
+				out[j++] = c;
+				i += 3;
+			} else if (b >= 0xF0 && b < 0xF5 && i + 3 < count && isContinuation(bytes[i + 1])
+					&& isContinuation(bytes[i + 2]) && isContinuation(bytes[i + 3])) {
+				int cp = ((b & 0x07) << 18) | ((bytes[i + 1] & 0x3F) << 12) | ((bytes[i + 2] & 0x3F) << 6)
+						| (bytes[i + 3] & 0x3F);
+				if (cp < 0x10000 || cp > Character.MAX_CODE_POINT) {
+					return slowDecode(bytes, count, out, start);
+				}
+				out[j++] = Character.highSurrogate(cp);
+				out[j++] = Character.lowSurrogate(cp);
+				i += 4;
+			} else {
+				return slowDecode(bytes, count, out, start);
+			}
+		}
+		return j;
+	}
+
+	private static boolean isContinuation(byte b) {
+		return (b & 0xC0) == 0x80;
+	}
+
+	private static int slowDecode(byte[] bytes, int count, char[] out, int j) {
+		String decoded = new String(bytes, 0, count, StandardCharsets.UTF_8);
+		decoded.getChars(0, decoded.length(), out, j);
+		return j + decoded.length();
+	}
+}
@@ -1,13 +1,16 @@
 package xyz.yuanwl.util.coder;
 
 import java.awt.Color;
-import java.awt.Font;
-import java.awt.Graphics;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.StringUtils;
 
+import xyz.yuanwl.util.id.TokenGenerator;
+
 /**
  * 验证码工具，包括字符串验证码（短信验证码）和图片验证码
  * <ul>
@@ -43,105 +46,183 @@ public class VerificationCoder {
 	private VerificationCoder() {
 	}
 
+	// 字母表
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	private static final String DIGITS = "0123456789";
+	private static final String UPPERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final String LOWERS = "abcdefghijklmnopqrstuvwxyz";
+
+	/** 字母表缓存最多保存多少种（类型 + 排除字符）组合，排除字符一般来自配置，超出的不缓存，防止被任意参数撑大 */
+	private static final int MAX_CACHED_ALPHABETS = 64;
+
+	/** 已编译的字母表，key 为 类型:排除字符 */
+	private static final ConcurrentMap<String, char[]> ALPHABETS = new ConcurrentHashMap<>();
+
 	/**
-	 * 生成随机颜色
+	 * 取验证码类型去掉排除字符后的字母表，同一组参数只编译一次
+	 *
+	 * @param type 验证码类型,参见本类的静态属性
+	 * @param excludeString 需排除的特殊字符（为空则用默认的）
+	 * @return 字母表的副本，不认识的类型返回空数组
+	 * @throws IllegalArgumentException 所有字符都被排除了
 	 */
-	private static Color generateRandomColor() {
-		Random random = new Random();
-		return new Color(random.nextInt(255), random.nextInt(255), random.nextInt(255));
+	public static char[] alphabet(int type, String excludeString) {
+		return cachedAlphabet(type, excludeString).clone();
 	}
 
 	/**
-	 * 生成验证码字符串
-	 * 
-	 * @param type
-	 *            验证码类型,参见本类的静态属性
-	 * @param length
-	 *            验证码长度,要求大于0的整数
-	 * @param excludeString
-	 *            需排除的特殊字符（无需排除则为null）
-	 * @return 验证码字符串
+	 * 取缓存的字母表，返回的数组是共享的，只给本类生成验证码用，不能修改
 	 */
-	public static String generateTextCode(int type, int length, String excludeString) {
-		if (length <= 0) {
-			return "";
-		}
-		// 如果没传排除字符，用默认的
-		if (StringUtils.isBlank(excludeString)) {
-			excludeString = DEFAULT_EXCLUDE_STRING;
+	private static char[] cachedAlphabet(int type, String excludeString) {
+		String exclude = StringUtils.isBlank(excludeString) ? DEFAULT_EXCLUDE_STRING : excludeString;
+		String key = type + ":" + exclude;
+		char[] alphabet = ALPHABETS.get(key);
+		if (alphabet == null) {
+			alphabet = compileAlphabet(type, exclude);
+			if (ALPHABETS.size() < MAX_CACHED_ALPHABETS) {
+				ALPHABETS.putIfAbsent(key, alphabet);
+			}
 		}
-		StringBuffer verifyCode = new StringBuffer();
-		int i = 0;
-		Random random = new Random();
+		return alphabet;
+	}
+
+	/**
+	 * 按类型拼出候选字符，再去掉排除字符
+	 */
+	private static char[] compileAlphabet(int type, String exclude) {
+		String candidates;
 		switch (type) {
 		case TYPE_NUM_ONLY:
-			while (i < length) {
-				int t = random.nextInt(10);
-				// 排除特殊字符
-				if (excludeString.indexOf(t + "") < 0) {
-					verifyCode.append(t);
-					i++;
-				}
-			}
+			candidates = DIGITS;
 			break;
 		case TYPE_LETTER_ONLY:
-			while (i < length) {
-				int t = random.nextInt(123);
-				if ((t >= 97 || (t >= 65 && t <= 90)) && excludeString.indexOf((char) t) < 0) {
-					verifyCode.append((char) t);
-					i++;
-				}
-			}
+			candidates = UPPERS + LOWERS;
 			break;
 		case TYPE_ALL_MIXED:
-			while (i < length) {
-				int t = random.nextInt(123);
-				if ((t >= 97 || (t >= 65 && t <= 90) || (t >= 48 && t <= 57)) && excludeString.indexOf((char) t) < 0) {
-					verifyCode.append((char) t);
-					i++;
-				}
-			}
+			candidates = DIGITS + UPPERS + LOWERS;
 			break;
 		case TYPE_NUM_UPPER:
-			while (i < length) {
-				int t = random.nextInt(91);
-				if ((t >= 65 || (t >= 48 && t <= 57)) && excludeString.indexOf((char) t) < 0) {
-					verifyCode.append((char) t);
-					i++;
-				}
-			}
+			candidates = DIGITS + UPPERS;
 			break;
 		case TYPE_NUM_LOWER:
-			while (i < length) {
-				int t = random.nextInt(123);
-				if ((t >= 97 || (t >= 48 && t <= 57)) && excludeString.indexOf((char) t) < 0) {
-					verifyCode.append((char) t);
-					i++;
-				}
-			}
+			candidates = DIGITS + LOWERS;
 			break;
 		case TYPE_UPPER_ONLY:
-			while (i < length) {
-				int t = random.nextInt(91);
-				if ((t >= 65) && (null == excludeString || excludeString.indexOf((char) t) < 0)) {
-					verifyCode.append((char) t);
-					i++;
-				}
-			}
+			candidates = UPPERS;
 			break;
 		case TYPE_LOWER_ONLY:
-			while (i < length) {
-				int t = random.nextInt(123);
-				if ((t >= 97) && excludeString.indexOf((char) t) < 0) {
-					verifyCode.append((char) t);
-					i++;
-				}
-			}
+			candidates = LOWERS;
 			break;
+		default:
+			return new char[0];
+		}
+		StringBuilder alphabet = new StringBuilder(candidates.length());
+		for (int i = 0; i < candidates.length(); i++) {
+			char c = candidates.charAt(i);
+			if (exclude.indexOf(c) < 0) {
+				alphabet.append(c);
+			}
 		}
-		return verifyCode.toString();
+		if (alphabet.length() == 0) {
+			throw new IllegalArgumentException("验证码类型 " + type + " 的字符全部被排除了：" + exclude);
+		}
+		return alphabet.toString().toCharArray();
 	}
 
+	// 验证码字符串
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * 生成验证码字符串，随机数取自 {@link TokenGenerator}（分条带的 SecureRandom），验证码不可预测
+	 * 
+	 * @param type
+	 *            验证码类型,参见本类的静态属性
+	 * @param length
+	 *            验证码长度,要求大于0的整数
+	 * @param excludeString
+	 *            需排除的特殊字符（无需排除则为null）
+	 * @return 验证码字符串
+	 */
+	public static String generateTextCode(int type, int length, String excludeString) {
+		if (length <= 0) {
+			return "";
+		}
+		char[] alphabet = cachedAlphabet(type, excludeString);
+		return alphabet.length == 0 ? "" : TokenGenerator.getDefault().next(alphabet, length);
+	}
+
+	/**
+	 * 生成验证码字符串，每个字符直接从字母表里随机取一个，不用丢弃重抽
+	 *
+	 * @param type
+	 *            验证码类型,参见本类的静态属性
+	 * @param length
+	 *            验证码长度,要求大于0的整数
+	 * @param excludeString
+	 *            需排除的特殊字符（无需排除则为null）
+	 * @param random
+	 *            随机数来源，对安全性要求高时传 SecureRandom
+	 * @return 验证码字符串
+	 */
+	public static String generateTextCode(int type, int length, String excludeString, Random random) {
+		if (length <= 0) {
+			return "";
+		}
+		char[] alphabet = cachedAlphabet(type, excludeString);
+		if (alphabet.length == 0) {
+			return "";
+		}
+		return new String(fill(alphabet, new char[length], random));
+	}
+
+	/**
+	 * 批量生成验证码字符串，字母表只查一次
+	 *
+	 * @param type
+	 *            验证码类型,参见本类的静态属性
+	 * @param length
+	 *            验证码长度,要求大于0的整数
+	 * @param excludeString
+	 *            需排除的特殊字符（无需排除则为null）
+	 * @param count
+	 *            生成个数
+	 * @param random
+	 *            随机数来源，为null则用 {@link TokenGenerator}
+	 * @return 验证码字符串数组
+	 */
+	public static String[] generateTextCodes(int type, int length, String excludeString, int count, Random random) {
+		String[] codes = new String[count];
+		char[] alphabet = cachedAlphabet(type, excludeString);
+		if (length <= 0 || alphabet.length == 0) {
+			Arrays.fill(codes, "");
+			return codes;
+		}
+		if (random == null) {
+			// 一次取够所有验证码的随机字符，再切开
+			char[] all = TokenGenerator.getDefault().fill(alphabet, new char[count * length], 0, count * length);
+			for (int i = 0; i < count; i++) {
+				codes[i] = new String(all, i * length, length);
+			}
+			return codes;
+		}
+		char[] buf = new char[length];
+		for (int i = 0; i < count; i++) {
+			codes[i] = new String(fill(alphabet, buf, random));
+		}
+		return codes;
+	}
+
+	private static char[] fill(char[] alphabet, char[] buf, Random random) {
+		for (int i = 0; i < buf.length; i++) {
+			buf[i] = alphabet[random.nextInt(alphabet.length)];
+		}
+		return buf;
+	}
+
+	// 验证码图片
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
 	/**
 	 * 生成图片验证码
 	 *
@@ -196,45 +277,8 @@ public class VerificationCoder {
 	 */
 	public static BufferedImage generateImageCode(String textCode, int width, int height, int interLine,
 			boolean randomLocation, Color bgColor, Color fontColor, Color lineColor) {
-		// 创建内存图像
-		BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-		// 获取图形上下文
-		Graphics graphics = bufferedImage.getGraphics();
-		// 画背景图
-		graphics.setColor(null == bgColor ? generateRandomColor() : bgColor);
-		graphics.fillRect(0, 0, width, height);
-		// 画干扰线
-		Random random = new Random();
-		if (interLine > 0) {
-			int x = 0, y = 0, x1 = width, y1 = 0;
-			for (int i = 0; i < interLine; i++) {
-				graphics.setColor(null == lineColor ? generateRandomColor() : lineColor);
-				y = random.nextInt(height);
-				y1 = random.nextInt(height);
-				graphics.drawLine(x, y, x1, y1);
-			}
-		}
-		// 字体大小为图片高度的80%
-		int fsize = (int) (height * 0.8);
-		// 字符横轴之间的间隔
-		int interval = (width - fsize * textCode.length()) / (textCode.length() + 1);
-		interval = interval > 0 ? interval : 0; // 确保间隔大于等于0
-		// 横轴坐标
-		int fx = (int) (interval + fsize * 0.2);
-		// 纵轴坐标
-		int fy = fsize;
-		// 设定字体
-		graphics.setFont(new Font("Default", Font.PLAIN, fsize));
-		// 写验证码字符
-		for (int i = 0; i < textCode.length(); i++) {
-			fy = randomLocation ? (int) ((Math.random() * 0.3 + 0.6) * height) : fy;
-			graphics.setColor(null == fontColor ? generateRandomColor() : fontColor);
-			// 将验证码字符显示到图象中
-			graphics.drawString(textCode.charAt(i) + "", fx, fy);
-			fx += fsize + interval;
-		}
-		graphics.dispose();
-		return bufferedImage;
+		// 用预先光栅化的字形直接画到像素数组，不经过 AWT 字体管线
+		return CaptchaRasterizer.render(textCode, width, height, interLine, randomLocation, bgColor, fontColor, lineColor);
 	}
 
 	/**
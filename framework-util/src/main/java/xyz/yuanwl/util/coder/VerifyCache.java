@@ -0,0 +1,282 @@
+package xyz.yuanwl.util.coder;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>验签结果缓存。合作方重试、轮询时会反复发同样的签名数据，命中缓存就只需一次摘要和查表，不用再做公钥运算。
+ * <ul>
+ * <li>索引是 SHA-256(密钥ID || 数据长度 || 数据 || 签名) 的摘要，签名是解码后的字节，不保存原始数据；</li>
+ * <li>有容量上限（总条数不超过 maxSize）和过期时间（从写入开始算）；</li>
+ * <li>淘汰策略是分段 LRU（SLRU）：新条目先进试用区，再次命中才升到保护区，保护区满了把最久没用的降回试用区，
+ * 淘汰只从试用区出。这样大量只出现一次的数据（扫描）只会挤掉试用区，不会把反复命中的热点冲掉；</li>
+ * <li>按摘要分成多个分段各自加锁，减少并发竞争；</li>
+ * <li>命中、未命中、淘汰、过期次数都有统计。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 18:05
+ */
+public final class VerifyCache {
+
+	/** 最多分多少段，必须是2的幂；maxSize 比它小时按 maxSize 取不超过它的2的幂，每段至少能放一条 */
+	private static final int MAX_SEGMENTS = 16;
+	/** 保护区占每个分段容量的比例 */
+	private static final double PROTECTED_RATIO = 0.8;
+	/** 生成索引用的摘要算法 */
+	private static final String KEY_DIGEST = "SHA-256";
+
+	private final int maxSize;
+	private final long ttlNanos;
+	private final Segment[] segments;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	/**
+	 * @param maxSize 最多缓存的条数
+	 * @param ttl 过期时间
+	 * @param unit 过期时间单位
+	 */
+	public VerifyCache(int maxSize, long ttl, TimeUnit unit) {
+		if (maxSize <= 0 || ttl <= 0) {
+			throw new IllegalArgumentException("maxSize 和 ttl 必须大于0：" + maxSize + "，" + ttl);
+		}
+		this.maxSize = maxSize;
+		this.ttlNanos = unit.toNanos(ttl);
+		// 各段容量加起来正好是 maxSize：除不尽的余数分给前几段，每段多一条
+		int n = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxSize));
+		this.segments = new Segment[n];
+		for (int i = 0; i < n; i++) {
+			segments[i] = new Segment(maxSize / n + (i < maxSize % n ? 1 : 0));
+		}
+	}
+
+	/**
+	 * 生成缓存索引。签名用解码后的字节，不用字符串：同一个字符串按16进制和按Base64解出来的签名不一样，结果也不一样
+	 *
+	 * @param keyId 公钥ID（指纹）
+	 * @param data 原始数据
+	 * @param signature 签名（已解码）
+	 * @return 索引
+	 */
+	public static Key key(byte[] keyId, byte[] data, byte[] signature) {
+		MessageDigest md;
+		try {
+			md = DigestEngine.messageDigest(KEY_DIGEST);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		md.update(keyId);
+		int len = data.length;
+		md.update(new byte[] { (byte) (len >>> 24), (byte) (len >>> 16), (byte) (len >>> 8), (byte) len });
+		md.update(data);
+		md.update(signature);
+		return new Key(md.digest());
+	}
+
+	/**
+	 * 查缓存
+	 *
+	 * @param key 索引
+	 * @return 缓存的验签结果，没有或已过期返回 null
+	 */
+	public Boolean get(Key key) {
+		Boolean result = segment(key).get(key, System.nanoTime());
+		if (result == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+		return result;
+	}
+
+	/**
+	 * 写缓存
+	 *
+	 * @param key 索引
+	 * @param verified 验签结果
+	 */
+	public void put(Key key, boolean verified) {
+		segment(key).put(key, new Entry(verified, System.nanoTime() + ttlNanos));
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			segment.clear();
+		}
+	}
+
+	/** 当前缓存条数 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public long getTtlMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+	}
+
+	/** 命中次数 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** 未命中次数（包括已过期的） */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** 因超出容量被淘汰的次数 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/** 因过期被移除的次数 */
+	public long getExpirations() {
+		return expirations.sum();
+	}
+
+	/** 命中率，还没有调用过时返回0 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0D : (double) h / total;
+	}
+
+	@Override
+	public String toString() {
+		return "VerifyCache{size=" + size() + ", maxSize=" + maxSize + ", hits=" + getHits() + ", misses="
+				+ getMisses() + ", evictions=" + getEvictions() + ", expirations=" + getExpirations() + "}";
+	}
+
+	private Segment segment(Key key) {
+		return segments[key.hashCode() & (segments.length - 1)];
+	}
+
+	/**
+	 * 缓存索引：32字节摘要存成4个long
+	 */
+	public static final class Key {
+		private final long l0, l1, l2, l3;
+
+		Key(byte[] digest) {
+			ByteBuffer buffer = ByteBuffer.wrap(digest);
+			this.l0 = buffer.getLong();
+			this.l1 = buffer.getLong();
+			this.l2 = buffer.getLong();
+			this.l3 = buffer.getLong();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key other = (Key) o;
+			return l0 == other.l0 && l1 == other.l1 && l2 == other.l2 && l3 == other.l3;
+		}
+
+		@Override
+		public int hashCode() {
+			// 摘要本身就是均匀分布的，取一段就够了
+			return (int) (l0 ^ (l0 >>> 32));
+		}
+	}
+
+	private static final class Entry {
+		final boolean verified;
+		final long expireAt;
+
+		Entry(boolean verified, long expireAt) {
+			this.verified = verified;
+			this.expireAt = expireAt;
+		}
+	}
+
+	/**
+	 * 一个分段：试用区（按插入顺序）+ 保护区（按访问顺序）
+	 */
+	private final class Segment {
+		private final int capacity;
+		private final int protectedCapacity;
+		private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<>();
+		private final LinkedHashMap<Key, Entry> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+
+		Segment(int capacity) {
+			this.capacity = capacity;
+			this.protectedCapacity = Math.max(1, (int) (capacity * PROTECTED_RATIO));
+		}
+
+		synchronized Boolean get(Key key, long now) {
+			Entry entry = protectedArea.get(key);
+			if (entry != null) {
+				if (entry.expireAt - now <= 0) {
+					protectedArea.remove(key);
+					expirations.increment();
+					return null;
+				}
+				return entry.verified;
+			}
+			entry = probation.remove(key);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.expireAt - now <= 0) {
+				expirations.increment();
+				return null;
+			}
+			// 试用区里再次命中，升到保护区
+			protectedArea.put(key, entry);
+			if (protectedArea.size() > protectedCapacity) {
+				Iterator<Map.Entry<Key, Entry>> it = protectedArea.entrySet().iterator();
+				Map.Entry<Key, Entry> eldest = it.next();
+				it.remove();
+				probation.put(eldest.getKey(), eldest.getValue());
+			}
+			return entry.verified;
+		}
+
+		synchronized void put(Key key, Entry entry) {
+			if (protectedArea.containsKey(key)) {
+				protectedArea.put(key, entry);
+				return;
+			}
+			probation.remove(key);
+			probation.put(key, entry);
+			while (probation.size() + protectedArea.size() > capacity) {
+				LinkedHashMap<Key, Entry> victims = probation.isEmpty() ? protectedArea : probation;
+				Iterator<Key> it = victims.keySet().iterator();
+				it.next();
+				it.remove();
+				evictions.increment();
+			}
+		}
+
+		synchronized void clear() {
+			probation.clear();
+			protectedArea.clear();
+		}
+
+		synchronized int size() {
+			return probation.size() + protectedArea.size();
+		}
+	}
+}
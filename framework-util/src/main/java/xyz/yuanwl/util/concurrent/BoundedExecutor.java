@@ -0,0 +1,228 @@
+package xyz.yuanwl.util.concurrent;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>有界执行器：固定线程数、有界队列，满了立即拒绝，不排无限长的队。
+ * <p>
+ * 用来隔离费 CPU 的操作（画验证码、私钥运算等）：这些操作放到专门的线程里做，被刷的时候最多占满这几个线程和队列，
+ * 多出来的请求马上失败（抛 {@link RejectedExecutionException}，Web 层返回 503），不会把 Tomcat 的线程全拖住，
+ * 其他接口照常响应。
+ * <ul>
+ * <li>队列满了提交时直接抛 RejectedExecutionException，记一次拒绝；</li>
+ * <li>配置了 maxQueueWait 时，在队列里等太久的任务（客户端多半已经放弃了）不再执行，
+ * 返回的 Future 以 RejectedExecutionException 失败，记一次过期；</li>
+ * <li>统计每个任务的排队时间和执行时间（次数、平均、最大）。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 03:00
+ */
+public final class BoundedExecutor implements Closeable {
+
+	private final String name;
+	private final ThreadPoolExecutor executor;
+	private final long maxQueueWaitNanos;
+
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder expired = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final Timing queueWait = new Timing();
+	private final Timing runTime = new Timing();
+
+	/**
+	 * 耗时统计：次数、总和、最大值（纳秒）
+	 */
+	public static final class Timing {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulate(nanos);
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		/** 平均耗时（微秒） */
+		public long getMeanMicros() {
+			long n = count.sum();
+			return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / n);
+		}
+
+		/** 最大耗时（微秒） */
+		public long getMaxMicros() {
+			return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+		}
+
+		@Override
+		public String toString() {
+			return "{count=" + getCount() + ", meanMicros=" + getMeanMicros() + ", maxMicros=" + getMaxMicros() + "}";
+		}
+	}
+
+	/**
+	 * @param name 名字，用作线程名前缀
+	 * @param threads 线程数
+	 * @param queueCapacity 队列长度，0 表示不排队，线程都忙就拒绝
+	 * @param maxQueueWait 任务最多排队多久，0 表示不限
+	 * @param unit maxQueueWait 的单位
+	 */
+	public BoundedExecutor(String name, int threads, int queueCapacity, long maxQueueWait, TimeUnit unit) {
+		if (threads <= 0 || queueCapacity < 0) {
+			throw new IllegalArgumentException("threads 必须大于0，queueCapacity 不能小于0：" + threads + "，" + queueCapacity);
+		}
+		this.name = name;
+		this.maxQueueWaitNanos = unit.toNanos(maxQueueWait);
+		AtomicInteger seq = new AtomicInteger();
+		ThreadFactory threadFactory = r -> {
+			Thread thread = new Thread(r, name + "-" + seq.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				queueCapacity == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueCapacity),
+				threadFactory, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * 提交任务
+	 *
+	 * @param task 任务
+	 * @return 任务结果，任务抛的异常原样作为失败原因（不包装成 CompletionException）
+	 * @throws RejectedExecutionException 队列满了或已关闭
+	 */
+	public <T> CompletableFuture<T> submit(Callable<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		long submitted = System.nanoTime();
+		try {
+			executor.execute(new Task<>(task, future, submitted));
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new RejectedExecutionException(name + " 繁忙，请稍后再试", e);
+		}
+		return future;
+	}
+
+	/**
+	 * 队列里的任务，关闭时能从队列里取出来把它的 Future 置为失败
+	 */
+	private final class Task<T> implements Runnable {
+		private final Callable<T> task;
+		private final CompletableFuture<T> future;
+		private final long submitted;
+
+		Task(Callable<T> task, CompletableFuture<T> future, long submitted) {
+			this.task = task;
+			this.future = future;
+			this.submitted = submitted;
+		}
+
+		@Override
+		public void run() {
+			BoundedExecutor.this.run(task, future, submitted);
+		}
+
+		void abandon() {
+			future.completeExceptionally(new RejectedExecutionException(name + " 已关闭，任务未执行"));
+		}
+	}
+
+	private <T> void run(Callable<T> task, CompletableFuture<T> future, long submitted) {
+		long start = System.nanoTime();
+		long waited = start - submitted;
+		queueWait.record(waited);
+		if (maxQueueWaitNanos > 0 && waited > maxQueueWaitNanos) {
+			expired.increment();
+			future.completeExceptionally(new RejectedExecutionException(
+					name + " 繁忙，任务排队 " + TimeUnit.NANOSECONDS.toMillis(waited) + " 毫秒，不再执行"));
+			return;
+		}
+		// 先记统计再完成 Future，调用方拿到结果时统计已经是最新的
+		T result;
+		try {
+			result = task.call();
+		} catch (Throwable e) {
+			runTime.record(System.nanoTime() - start);
+			failed.increment();
+			future.completeExceptionally(e);
+			return;
+		}
+		runTime.record(System.nanoTime() - start);
+		future.complete(result);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/** 正在执行的任务数 */
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	/** 排队中的任务数 */
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+
+	/** 队列满了被拒绝的次数 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/** 排队太久不再执行的次数 */
+	public long getExpired() {
+		return expired.sum();
+	}
+
+	/** 任务自己抛异常的次数 */
+	public long getFailed() {
+		return failed.sum();
+	}
+
+	/** 排队时间 */
+	public Timing getQueueWait() {
+		return queueWait;
+	}
+
+	/** 执行时间 */
+	public Timing getRunTime() {
+		return runTime;
+	}
+
+	/**
+	 * 关闭：不再接受新任务，还在排队的任务不执行，它们的 Future 以 RejectedExecutionException 失败，
+	 * 免得等结果的调用方（比如 DeferredResult）一直挂到超时；正在执行的任务会被中断
+	 */
+	@Override
+	public void close() {
+		for (Runnable r : executor.shutdownNow()) {
+			if (r instanceof Task) {
+				((Task<?>) r).abandon();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BoundedExecutor{" + name + ", active=" + getActiveCount() + ", queued=" + getQueueSize() + ", rejected="
+				+ getRejected() + ", expired=" + getExpired() + ", failed=" + getFailed() + ", queueWait=" + queueWait
+				+ ", runTime=" + runTime + "}";
+	}
+}
@@ -0,0 +1,400 @@
+package xyz.yuanwl.util.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import xyz.yuanwl.util.coder.HexCoder;
+import xyz.yuanwl.util.id.TokenGenerator;
+
+/**
+ * <p>会过期的短码表：随机 64 位 id → 短码（验证码等），到期自动删除，总数有上限。
+ * <p>
+ * 专门给验证码这种“量大、短命、一次性”的数据用，每条只占几十个字节，不像 session 那样一个验证码就是一整个会话：
+ * <ul>
+ * <li>按 id 分成 {@value #SEGMENTS} 段，每段一把锁，段内是开放寻址（线性探测）哈希表，
+ * id、短码、过期链表指针都存在基本类型数组里，没有 Entry 对象，删除用向后移位，不留墓碑；</li>
+ * <li>短码压缩成一个 long（每个字符 7 位），最长 {@value #MAX_CODE_LENGTH} 个 ASCII 字符；</li>
+ * <li>过期用哈希时间轮：有效期分成 {@value #TICKS_PER_TTL} 格，每条记录挂在它到期那一格的双向链表上，
+ * 每次读写顺便把走过的格子整格清掉，不用后台线程，也不用扫全表；
+ * 实际有效期在 ttl 到 ttl + ttl/{@value #TICKS_PER_TTL} 之间；</li>
+ * <li>总数超过 maxSize 时先清一遍所有段里过期的，还是满就抛 {@link RejectedExecutionException}；</li>
+ * <li>记录取出即删除（{@link #take(long)}），同一个 id 只能用一次。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 04:30
+ */
+public final class ExpiringCodeMap {
+
+	/** 短码最大长度 */
+	public static final int MAX_CODE_LENGTH = 9;
+
+	/** 段数，2的幂 */
+	private static final int SEGMENTS = 16;
+	/** 时间轮格数，2的幂，要比 TICKS_PER_TTL + 1 大，保证一格里只有同一时刻到期的记录 */
+	private static final int WHEEL_SIZE = 64;
+	/** 有效期分成多少格 */
+	private static final int TICKS_PER_TTL = 60;
+	/** 每段哈希表的初始容量，2的幂 */
+	private static final int INITIAL_CAPACITY = 16;
+	/** 链表结束 */
+	private static final int NIL = -1;
+
+	private final int maxSize;
+	private final long tickNanos;
+	private final long origin = System.nanoTime();
+	private final AtomicInteger size = new AtomicInteger();
+	private final Segment[] segments = new Segment[SEGMENTS];
+
+	/**
+	 * @param maxSize 最多保存多少条
+	 * @param ttl 有效期
+	 * @param unit ttl 的单位
+	 */
+	public ExpiringCodeMap(int maxSize, long ttl, TimeUnit unit) {
+		if (maxSize <= 0 || ttl <= 0) {
+			throw new IllegalArgumentException("maxSize、ttl 必须大于0：" + maxSize + "，" + ttl);
+		}
+		this.maxSize = maxSize;
+		this.tickNanos = Math.max(unit.toNanos(ttl) / TICKS_PER_TTL, 1);
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment();
+		}
+	}
+
+	/**
+	 * 保存短码
+	 *
+	 * @param code 短码，1~{@value #MAX_CODE_LENGTH} 个 ASCII 字符
+	 * @return 随机生成的 id，不会是0
+	 * @throws IllegalArgumentException 短码太长、为空或有非 ASCII 字符
+	 * @throws RejectedExecutionException 存满了
+	 */
+	public long put(String code) {
+		long packed = pack(code);
+		reserve();
+		long id;
+		do {
+			id = TokenGenerator.getDefault().nextLong();
+		} while (id == 0 || !segment(id).insert(id, packed, tick()));
+		return id;
+	}
+
+	/**
+	 * 把刚 {@link #take(long)} 出来的短码按原来的 id 放回去，用于取出后后续处理没做成、要让调用方能重试的情况。
+	 * 有效期从现在重新算
+	 *
+	 * @param id 原来的 id
+	 * @param code 短码
+	 * @return 放回去了返回 true；id 为0或者这个 id 已经有记录（不会覆盖）返回 false
+	 * @throws IllegalArgumentException 短码太长、为空或有非 ASCII 字符
+	 * @throws RejectedExecutionException 存满了
+	 */
+	public boolean putBack(long id, String code) {
+		long packed = pack(code);
+		if (id == 0 || segment(id).get(id, tick()) != 0) {
+			return false;
+		}
+		reserve();
+		if (!segment(id).insert(id, packed, tick())) {
+			size.decrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * 占一个名额，满了先把所有段里过期的清掉再看
+	 */
+	private void reserve() {
+		if (size.incrementAndGet() > maxSize) {
+			size.decrementAndGet();
+			long now = tick();
+			for (Segment segment : segments) {
+				segment.advance(now);
+			}
+			if (size.incrementAndGet() > maxSize) {
+				size.decrementAndGet();
+				throw new RejectedExecutionException("短码表已满：" + maxSize);
+			}
+		}
+	}
+
+	/**
+	 * 取出并删除短码
+	 *
+	 * @param id id
+	 * @return 短码，不存在或已过期返回 null
+	 */
+	public String take(long id) {
+		return id == 0 ? null : unpack(segment(id).remove(id, tick()));
+	}
+
+	/**
+	 * 查看短码，不删除
+	 *
+	 * @param id id
+	 * @return 短码，不存在或已过期返回 null
+	 */
+	public String peek(long id) {
+		return id == 0 ? null : unpack(segment(id).get(id, tick()));
+	}
+
+	/** 当前保存的条数（包括已到期但还没走到那一格的） */
+	public int size() {
+		return size.get();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	// id 的文本形式
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	/**
+	 * id 转成16位大写十六进制
+	 */
+	public static String formatId(long id) {
+		return new String(HexCoder.encode(id, new char[16], 0, true));
+	}
+
+	/**
+	 * 解析 {@link #formatId(long)} 的结果，不区分大小写
+	 *
+	 * @return id，格式不对返回0（0不会是有效的 id）
+	 */
+	public static long parseId(String text) {
+		if (text == null || text.length() != 16) {
+			return 0;
+		}
+		long id = 0;
+		for (int i = 0; i < 16; i++) {
+			int digit = Character.digit(text.charAt(i), 16);
+			if (digit < 0) {
+				return 0;
+			}
+			id = (id << 4) | digit;
+		}
+		return id;
+	}
+
+	// 内部实现
+	// ↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓
+
+	private long tick() {
+		return (System.nanoTime() - origin) / tickNanos;
+	}
+
+	private Segment segment(long id) {
+		return segments[(int) (id >>> 60) & (SEGMENTS - 1)];
+	}
+
+	private static long pack(String code) {
+		if (code == null || code.isEmpty() || code.length() > MAX_CODE_LENGTH) {
+			throw new IllegalArgumentException("短码长度必须是1~" + MAX_CODE_LENGTH + "：" + code);
+		}
+		long packed = 0;
+		for (int i = 0; i < code.length(); i++) {
+			char c = code.charAt(i);
+			if (c == 0 || c > 0x7F) {
+				throw new IllegalArgumentException("短码只能是 ASCII 字符：" + code);
+			}
+			packed |= (long) c << (7 * i);
+		}
+		return packed;
+	}
+
+	private static String unpack(long packed) {
+		if (packed == 0) {
+			return null;
+		}
+		char[] chars = new char[MAX_CODE_LENGTH];
+		int len = 0;
+		for (; packed != 0; packed >>>= 7) {
+			chars[len++] = (char) (packed & 0x7F);
+		}
+		return new String(chars, 0, len);
+	}
+
+	/**
+	 * 一段：开放寻址哈希表 + 时间轮。
+	 * 每个位置存 id、短码和所在时间轮格子链表的前后指针；prev 小于0表示是链表头，~prev 是格子下标
+	 */
+	private final class Segment {
+		private long[] keys = new long[INITIAL_CAPACITY];
+		private long[] codes = new long[INITIAL_CAPACITY];
+		private int[] next = new int[INITIAL_CAPACITY];
+		private int[] prev = new int[INITIAL_CAPACITY];
+		private int count;
+		/** 时间轮每一格的链表头 */
+		private final int[] heads = new int[WHEEL_SIZE];
+		/** 已经清理到哪一格（绝对时刻） */
+		private long currentTick;
+
+		Segment() {
+			Arrays.fill(heads, NIL);
+			currentTick = tick();
+		}
+
+		synchronized boolean insert(long id, long code, long now) {
+			advance(now);
+			if (count + 1 > keys.length >> 1) {
+				resize(keys.length << 1);
+			}
+			int slot = find(keys, id);
+			if (keys[slot] == id) {
+				return false;
+			}
+			keys[slot] = id;
+			codes[slot] = code;
+			// 到期那一格：再走 TICKS_PER_TTL + 1 格才清，保证至少活满 ttl
+			link(slot, (int) ((now + TICKS_PER_TTL + 1) & (WHEEL_SIZE - 1)));
+			count++;
+			return true;
+		}
+
+		synchronized long get(long id, long now) {
+			advance(now);
+			int slot = find(keys, id);
+			return keys[slot] == id ? codes[slot] : 0;
+		}
+
+		synchronized long remove(long id, long now) {
+			advance(now);
+			int slot = find(keys, id);
+			if (keys[slot] != id) {
+				return 0;
+			}
+			long code = codes[slot];
+			removeSlot(slot);
+			shrinkIfSparse();
+			return code;
+		}
+
+		/**
+		 * 时间轮走到 now，清掉走过的格子。一格里的记录都是在这一刻到期的，整格删除
+		 */
+		synchronized void advance(long now) {
+			if (now <= currentTick) {
+				return;
+			}
+			if (now - currentTick >= WHEEL_SIZE) {
+				// 很久没动过了，所有记录都已到期
+				for (int bucket = 0; bucket < WHEEL_SIZE; bucket++) {
+					expireBucket(bucket);
+				}
+			} else {
+				while (currentTick < now) {
+					expireBucket((int) (++currentTick & (WHEEL_SIZE - 1)));
+				}
+			}
+			currentTick = now;
+			shrinkIfSparse();
+		}
+
+		private void expireBucket(int bucket) {
+			while (heads[bucket] != NIL) {
+				removeSlot(heads[bucket]);
+			}
+		}
+
+		private void removeSlot(int slot) {
+			unlink(slot);
+			keys[slot] = 0;
+			count--;
+			size.decrementAndGet();
+			// 向后移位：把后面探测链上的记录挪进空位，保证查找不会提前碰到空位
+			int mask = keys.length - 1, hole = slot;
+			for (int j = (slot + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+				int home = (int) keys[j] & mask;
+				boolean stays = hole <= j ? (home > hole && home <= j) : (home > hole || home <= j);
+				if (!stays) {
+					move(j, hole);
+					hole = j;
+				}
+			}
+		}
+
+		private void move(int from, int to) {
+			keys[to] = keys[from];
+			codes[to] = codes[from];
+			next[to] = next[from];
+			prev[to] = prev[from];
+			keys[from] = 0;
+			if (prev[to] >= 0) {
+				next[prev[to]] = to;
+			} else {
+				heads[~prev[to]] = to;
+			}
+			if (next[to] != NIL) {
+				prev[next[to]] = to;
+			}
+		}
+
+		private void link(int slot, int bucket) {
+			int head = heads[bucket];
+			next[slot] = head;
+			prev[slot] = ~bucket;
+			if (head != NIL) {
+				prev[head] = slot;
+			}
+			heads[bucket] = slot;
+		}
+
+		private void unlink(int slot) {
+			int p = prev[slot], n = next[slot];
+			if (p >= 0) {
+				next[p] = n;
+			} else {
+				heads[~p] = n;
+			}
+			if (n != NIL) {
+				prev[n] = p;
+			}
+		}
+
+		/** 被刷过之后记录少了，把表缩回去 */
+		private void shrinkIfSparse() {
+			if (keys.length > INITIAL_CAPACITY && count < keys.length >> 3) {
+				resize(keys.length >> 1);
+			}
+		}
+
+		/**
+		 * 换一张新表，按时间轮格子逐条重新插入，链表在新表里重建
+		 */
+		private void resize(int capacity) {
+			long[] oldKeys = keys, oldCodes = codes;
+			int[] oldNext = next;
+			int[] oldHeads = heads.clone();
+			keys = new long[capacity];
+			codes = new long[capacity];
+			next = new int[capacity];
+			prev = new int[capacity];
+			Arrays.fill(heads, NIL);
+			for (int bucket = 0; bucket < WHEEL_SIZE; bucket++) {
+				for (int i = oldHeads[bucket]; i != NIL; i = oldNext[i]) {
+					int slot = find(keys, oldKeys[i]);
+					keys[slot] = oldKeys[i];
+					codes[slot] = oldCodes[i];
+					link(slot, bucket);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 线性探测找 id 所在位置，没有则返回第一个空位。id 是随机数，低位直接当哈希用
+	 */
+	private static int find(long[] keys, long id) {
+		int mask = keys.length - 1;
+		int slot = (int) id & mask;
+		while (keys[slot] != 0 && keys[slot] != id) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+}
@@ -0,0 +1,255 @@
+package xyz.yuanwl.util.id;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * <p>安全随机令牌生成器：短信验证码、图片验证码、会话令牌、IV 等要求不可猜测的随机数都从这里取。
+ * <p>
+ * Linux 上默认的 SecureRandom（NativePRNG）所有实例共用一把全局锁，每次取数都要进锁，
+ * RandomStringUtils 背后又是一个共享的 java.util.Random，既有竞争又不安全。这里：
+ * <ul>
+ * <li>按线程分到若干条带（条带数为 CPU 核数两倍向上取2的幂），每条带一个独立的 SHA1PRNG 实例，
+ * 用系统熵源播种，互不加锁，每生成 {@value #RESEED_BYTES} 字节重新播种一次；</li>
+ * <li>每条带一次取 {@value #BLOCK_SIZE} 字节的随机数缓存起来，生成令牌时按需切一段，
+ * 一个令牌只进一次锁，不会每个字符调一次 nextInt；</li>
+ * <li>每个随机字节映射成一个字符，字母表大小不是256的约数时丢掉会造成偏差的那部分字节重取，保证均匀分布。</li>
+ * </ul>
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 06:00
+ */
+public final class TokenGenerator {
+
+	/**
+	 * 常用字母表
+	 */
+	public enum Alphabet {
+		/** 数字 0~9 */
+		NUMERIC("0123456789"),
+		/** 数字和大小写字母 */
+		ALPHANUMERIC("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz"),
+		/** URL 安全的 Base64 字符，放在 URL、cookie 里不用编码 */
+		URL_SAFE("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_");
+
+		private final char[] chars;
+
+		Alphabet(String chars) {
+			this.chars = chars.toCharArray();
+		}
+	}
+
+	/** 每条带缓存的随机字节数 */
+	private static final int BLOCK_SIZE = 512;
+	/** 每条带生成多少字节后重新播种 */
+	private static final int RESEED_BYTES = 1 << 20;
+	/** 播种用的字节数 */
+	private static final int SEED_BYTES = 32;
+
+	private static final TokenGenerator DEFAULT = new TokenGenerator(Runtime.getRuntime().availableProcessors() * 2);
+
+	/** 系统熵源，只用来给各条带播种 */
+	private final SecureRandom seedSource = new SecureRandom();
+	private final Stripe[] stripes;
+
+	/**
+	 * @param stripes 条带数，会向上取2的幂
+	 */
+	public TokenGenerator(int stripes) {
+		if (stripes <= 0) {
+			throw new IllegalArgumentException("条带数必须大于0：" + stripes);
+		}
+		int n = Integer.highestOneBit(stripes * 2 - 1);
+		this.stripes = new Stripe[n];
+		for (int i = 0; i < n; i++) {
+			this.stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * 默认生成器，条带数为 CPU 核数的两倍
+	 */
+	public static TokenGenerator getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * 生成数字令牌（短信验证码等）
+	 *
+	 * @param length 长度
+	 */
+	public String numeric(int length) {
+		return next(Alphabet.NUMERIC, length);
+	}
+
+	/**
+	 * 生成数字和大小写字母的令牌
+	 *
+	 * @param length 长度
+	 */
+	public String alphanumeric(int length) {
+		return next(Alphabet.ALPHANUMERIC, length);
+	}
+
+	/**
+	 * 生成 URL 安全的令牌，每个字符6位熵
+	 *
+	 * @param length 长度
+	 */
+	public String urlSafe(int length) {
+		return next(Alphabet.URL_SAFE, length);
+	}
+
+	/**
+	 * 用常用字母表生成令牌
+	 *
+	 * @param alphabet 字母表
+	 * @param length 长度
+	 */
+	public String next(Alphabet alphabet, int length) {
+		return next(alphabet.chars, length);
+	}
+
+	/**
+	 * 用自定义字母表生成令牌
+	 *
+	 * @param alphabet 字母表，1~256个字符
+	 * @param length 长度
+	 */
+	public String next(char[] alphabet, int length) {
+		if (length <= 0) {
+			return "";
+		}
+		return new String(fill(alphabet, new char[length], 0, length));
+	}
+
+	/**
+	 * 用自定义字母表生成令牌，写到 dst 的指定位置
+	 *
+	 * @param alphabet 字母表，1~256个字符
+	 * @param dst 输出字符数组
+	 * @param off 输出起始位置
+	 * @param length 长度
+	 * @return dst
+	 */
+	public char[] fill(char[] alphabet, char[] dst, int off, int length) {
+		int size = alphabet.length;
+		if (size == 0 || size > 256) {
+			throw new IllegalArgumentException("字母表必须是1~256个字符：" + size);
+		}
+		// 只接受小于 limit 的字节，limit 是 size 的倍数，取模后才均匀
+		int limit = 256 - 256 % size;
+		// 按被丢弃的比例多取一些，一般一次就够
+		byte[] bytes = new byte[length + length * (256 - limit) / limit + 8];
+		int filled = 0;
+		while (filled < length) {
+			nextBytes(bytes, 0, bytes.length);
+			for (int i = 0; i < bytes.length && filled < length; i++) {
+				int b = bytes[i] & 0xFF;
+				if (b < limit) {
+					dst[off + filled++] = alphabet[b % size];
+				}
+			}
+		}
+		return dst;
+	}
+
+	/**
+	 * 生成随机字节
+	 *
+	 * @param dst 输出字节数组
+	 */
+	public void nextBytes(byte[] dst) {
+		nextBytes(dst, 0, dst.length);
+	}
+
+	/**
+	 * 生成随机字节，写到 dst 的指定位置
+	 *
+	 * @param dst 输出字节数组
+	 * @param off 起始位置
+	 * @param len 长度
+	 */
+	public void nextBytes(byte[] dst, int off, int len) {
+		stripe().read(dst, off, len);
+	}
+
+	/**
+	 * 生成一个随机 long
+	 */
+	public long nextLong() {
+		byte[] bytes = new byte[8];
+		nextBytes(bytes, 0, 8);
+		long value = 0;
+		for (byte b : bytes) {
+			value = (value << 8) | (b & 0xFF);
+		}
+		return value;
+	}
+
+	private Stripe stripe() {
+		long id = Thread.currentThread().getId();
+		int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+		return stripes[(hash >>> 16) & (stripes.length - 1)];
+	}
+
+	private SecureRandom newRandom() {
+		SecureRandom random;
+		try {
+			// SHA1PRNG 实例之间没有共享状态，显式播种后不会再去读系统熵源
+			random = SecureRandom.getInstance("SHA1PRNG");
+		} catch (NoSuchAlgorithmException e) {
+			return new SecureRandom();
+		}
+		random.setSeed(seed());
+		return random;
+	}
+
+	private byte[] seed() {
+		byte[] seed = new byte[SEED_BYTES];
+		seedSource.nextBytes(seed);
+		return seed;
+	}
+
+	/**
+	 * 一条带：独立的 SecureRandom 和随机字节缓存
+	 */
+	private final class Stripe {
+		private final byte[] block = new byte[BLOCK_SIZE];
+		/** block 里下一个没用过的位置 */
+		private int position = BLOCK_SIZE;
+		/** 上次播种以来生成的字节数 */
+		private int generated;
+		private SecureRandom random;
+
+		synchronized void read(byte[] dst, int off, int len) {
+			if (random == null) {
+				random = newRandom();
+			}
+			while (len > 0) {
+				if (position == BLOCK_SIZE) {
+					refill();
+				}
+				int n = Math.min(len, BLOCK_SIZE - position);
+				System.arraycopy(block, position, dst, off, n);
+				// 用过的字节清掉，不留在内存里
+				for (int i = position; i < position + n; i++) {
+					block[i] = 0;
+				}
+				position += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		private void refill() {
+			if (generated >= RESEED_BYTES) {
+				random.setSeed(seed());
+				generated = 0;
+			}
+			random.nextBytes(block);
+			generated += BLOCK_SIZE;
+			position = 0;
+		}
+	}
+}
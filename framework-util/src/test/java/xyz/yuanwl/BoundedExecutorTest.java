@@ -0,0 +1,99 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.concurrent.BoundedExecutor;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>有界执行器测试：队列满了立即拒绝，排队太久的任务不执行，任务异常原样返回
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 03:20
+ */
+public class BoundedExecutorTest {
+
+	@Test
+	public void testRejectWhenFull() throws Exception {
+		try (BoundedExecutor executor = new BoundedExecutor("test", 1, 1, 0, TimeUnit.MILLISECONDS)) {
+			CountDownLatch release = new CountDownLatch(1);
+			executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+			// 等第一个任务被线程取走，第二个进队列
+			while (executor.getActiveCount() == 0) {
+				Thread.sleep(1);
+			}
+			executor.submit(() -> "queued");
+			try {
+				executor.submit(() -> "rejected");
+				fail("队列满了应该拒绝");
+			} catch (RejectedExecutionException e) {
+				assertEquals(1, executor.getRejected());
+			}
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void testExpired() throws Exception {
+		try (BoundedExecutor executor = new BoundedExecutor("test", 1, 4, 100, TimeUnit.MILLISECONDS)) {
+			// 先跑一个任务把线程建起来，免得建线程的时间算进排队时间
+			executor.submit(() -> null).get(5, TimeUnit.SECONDS);
+			executor.submit(() -> {
+				Thread.sleep(500);
+				return null;
+			});
+			try {
+				executor.submit(() -> "too late").get(5, TimeUnit.SECONDS);
+				fail("排队太久应该不执行");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof RejectedExecutionException);
+				assertEquals(1, executor.getExpired());
+			}
+		}
+	}
+
+	@Test
+	public void testResultAndFailure() throws Exception {
+		try (BoundedExecutor executor = new BoundedExecutor("test", 2, 4, 0, TimeUnit.MILLISECONDS)) {
+			assertEquals("ok", executor.submit(() -> "ok").get(5, TimeUnit.SECONDS));
+			IOException error = new IOException("boom");
+			try {
+				executor.submit(() -> {
+					throw error;
+				}).get(5, TimeUnit.SECONDS);
+				fail("任务抛了异常，get 应该抛 ExecutionException");
+			} catch (ExecutionException e) {
+				assertSame(error, e.getCause());
+			}
+			assertEquals(1, executor.getFailed());
+			assertEquals(2, executor.getRunTime().getCount());
+			assertEquals(2, executor.getQueueWait().getCount());
+		}
+	}
+
+	@Test
+	public void testCloseFailsQueuedTasks() throws Exception {
+		BoundedExecutor executor = new BoundedExecutor("test", 1, 1, 0, TimeUnit.MILLISECONDS);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+		while (executor.getActiveCount() == 0) {
+			Thread.sleep(1);
+		}
+		CompletableFuture<String> queued = executor.submit(() -> "queued");
+		executor.close();
+		try {
+			queued.get(5, TimeUnit.SECONDS);
+			fail("关闭后排队的任务应该失败，不能一直挂着");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+		release.countDown();
+	}
+}
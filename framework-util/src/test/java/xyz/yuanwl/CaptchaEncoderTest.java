@@ -0,0 +1,97 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.coder.CaptchaEncoder;
+import xyz.yuanwl.util.coder.CaptchaEncoder.Format;
+import xyz.yuanwl.util.coder.VerificationCoder;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>验证码图片编码测试：PNG、GIF 转调色板后要无损，并且比 JPEG 小
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 02:30
+ */
+public class CaptchaEncoderTest {
+
+	@Test
+	public void testIndexedLossless() throws Exception {
+		BufferedImage image = VerificationCoder.generateImageCode("a3Kx", 90, 30);
+		byte[] jpeg = CaptchaEncoder.encode(image, Format.JPEG);
+		for (Format format : new Format[] { Format.PNG, Format.GIF }) {
+			// 编两次，第二次复用同一个线程的 ImageWriter
+			CaptchaEncoder.encode(image, format);
+			byte[] bytes = CaptchaEncoder.encode(image, format);
+			assertTrue(format + " " + bytes.length + " >= JPEG " + jpeg.length, bytes.length < jpeg.length);
+			assertSamePixels(image, ImageIO.read(new ByteArrayInputStream(bytes)));
+		}
+		assertNotNull(ImageIO.read(new ByteArrayInputStream(jpeg)));
+	}
+
+	@Test
+	public void testManyColors() throws Exception {
+		// 超过256种颜色时量化，不要求无损，能解出来、尺寸对就行
+		BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(1);
+		for (int y = 0; y < 40; y++) {
+			for (int x = 0; x < 40; x++) {
+				image.setRGB(x, y, random.nextInt(0xFFFFFF));
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		CaptchaEncoder.encode(image, Format.PNG, out);
+		BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(40, decoded.getWidth());
+		assertEquals(40, decoded.getHeight());
+	}
+
+	@Test
+	public void testEncodeToBuffer() throws Exception {
+		// 先编一张大图把缓冲区撑大，再编小图，结果只看前 length 个字节
+		BufferedImage big = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(2);
+		for (int y = 0; y < 200; y++) {
+			for (int x = 0; x < 200; x++) {
+				big.setRGB(x, y, random.nextInt(0xFFFFFF));
+			}
+		}
+		CaptchaEncoder.Encoded encoded = CaptchaEncoder.encodeToBuffer(big, Format.JPEG);
+		assertTrue(encoded.length() > 4096);
+		assertNotNull(ImageIO.read(new ByteArrayInputStream(encoded.array(), 0, encoded.length())));
+
+		BufferedImage image = VerificationCoder.generateImageCode("a3Kx", 90, 30);
+		// GIF 是小端的，之后再编 PNG 不能受影响
+		CaptchaEncoder.encodeToBuffer(image, Format.GIF);
+		byte[] bytes = CaptchaEncoder.encode(image, Format.PNG);
+		encoded = CaptchaEncoder.encodeToBuffer(image, Format.PNG);
+		assertEquals(bytes.length, encoded.length());
+		assertArrayEquals(bytes, Arrays.copyOf(encoded.array(), encoded.length()));
+		assertSamePixels(image, ImageIO.read(new ByteArrayInputStream(encoded.array(), 0, encoded.length())));
+	}
+
+	@Test
+	public void testFormatOf() throws Exception {
+		assertEquals(Format.JPEG, Format.of("jpg"));
+		assertEquals(Format.PNG, Format.of(" png "));
+		assertEquals("image/gif", Format.of("GIF").getContentType());
+	}
+
+	private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				assertEquals(new Color(expected.getRGB(x, y)), new Color(actual.getRGB(x, y)));
+			}
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.coder.CaptchaRasterizer;
+import xyz.yuanwl.util.coder.GlyphAtlas;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>验证码光栅化测试：背景、字符、干扰线都要画到像素上，字符不能越界
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 02:00
+ */
+public class CaptchaRasterizerTest {
+
+	@Test
+	public void testRender() throws Exception {
+		BufferedImage image = CaptchaRasterizer.render("a1B2", 90, 30, 0, true, Color.WHITE, Color.BLACK, null);
+		assertEquals(90, image.getWidth());
+		assertEquals(30, image.getHeight());
+		int white = 0, black = 0;
+		for (int y = 0; y < 30; y++) {
+			for (int x = 0; x < 90; x++) {
+				int rgb = image.getRGB(x, y) & 0xFFFFFF;
+				if (rgb == 0xFFFFFF) white++;
+				else if (rgb == 0) black++;
+			}
+		}
+		assertTrue("字符没画上：" + black, black > 20);
+		assertTrue("背景没画上：" + white, white > 90 * 30 / 2);
+	}
+
+	@Test
+	public void testInterLine() throws Exception {
+		BufferedImage image = CaptchaRasterizer.render("", 50, 20, 1, false, Color.WHITE, null, Color.RED);
+		// 干扰线从左边画到右边，每一列都有一个红点
+		for (int x = 0; x < 50; x++) {
+			boolean found = false;
+			for (int y = 0; y < 20 && !found; y++) {
+				found = (image.getRGB(x, y) & 0xFFFFFF) == 0xFF0000;
+			}
+			assertTrue("第 " + x + " 列没有干扰线", found);
+		}
+	}
+
+	@Test
+	public void testAtlas() throws Exception {
+		GlyphAtlas atlas = GlyphAtlas.forSize(24);
+		assertSame(atlas, GlyphAtlas.forSize(24));
+		assertSame(atlas.glyph('A'), atlas.glyph('A'));
+		assertSame(atlas.glyph('中'), atlas.glyph('中'));
+		// 很小的图片，字符画出边界也不能出错
+		CaptchaRasterizer.render("WWWW", 10, 3, 2, true, null, null, null);
+		// 很高的图片，字号按最大字号画
+		CaptchaRasterizer.render("WWWW", 100, 2000, 2, true, null, null, null);
+	}
+
+	@Test
+	public void testAtlasEviction() throws Exception {
+		GlyphAtlas atlas = GlyphAtlas.forSize(30);
+		// 最近使用时间精确到约 1 毫秒
+		Thread.sleep(5);
+		// 再用 8 种别的字号，30 号最久没用，被淘汰
+		for (int size = 100; size < 108; size++) {
+			GlyphAtlas.forSize(size);
+		}
+		assertNotSame(atlas, GlyphAtlas.forSize(30));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAtlasTooLarge() {
+		GlyphAtlas.forSize(GlyphAtlas.MAX_FONT_SIZE + 1);
+	}
+}
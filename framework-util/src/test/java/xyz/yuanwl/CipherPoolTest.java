@@ -0,0 +1,46 @@
+package xyz.yuanwl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import xyz.yuanwl.util.coder.CipherPool;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>Cipher 池测试
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 10:40
+ */
+@Slf4j
+public class CipherPoolTest {
+
+	@Test
+	public void testReuseAndStats() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(1024);
+		KeyPair keyPair = generator.generateKeyPair();
+
+		CipherPool pool = new CipherPool("RSA/ECB/PKCS1Padding", 2);
+		byte[] input = "222222".getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < 3; i++) {
+			byte[] encrypted = pool.acquire(Cipher.ENCRYPT_MODE, keyPair.getPublic()).doFinal(input);
+			byte[] decrypted = pool.acquire(Cipher.DECRYPT_MODE, keyPair.getPrivate()).doFinal(encrypted);
+			assertArrayEquals(input, decrypted);
+		}
+		log.info("{}", pool);
+		assertEquals(2, pool.getMisses());
+		assertEquals(4, pool.getHits());
+
+		// 超出容量后按 LRU 淘汰
+		KeyPair other = generator.generateKeyPair();
+		pool.acquire(Cipher.ENCRYPT_MODE, other.getPublic());
+		assertEquals(1, pool.getEvictions());
+	}
+
+}
@@ -0,0 +1,97 @@
+package xyz.yuanwl;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+import xyz.yuanwl.util.coder.Base64Coder;
+import xyz.yuanwl.util.coder.BaseCoder;
+import xyz.yuanwl.util.coder.HexCoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>16进制、Base64 编码解码测试，结果要和 commons-codec 的实现一致
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 15:10
+ */
+public class CodecTest {
+
+	@Test
+	public void testHex() throws Exception {
+		Random random = new Random(1);
+		for (int len = 0; len < 40; len++) {
+			byte[] data = new byte[len];
+			random.nextBytes(data);
+			String hex = Hex.encodeHexString(data);
+			assertEquals(hex, BaseCoder.bytesToHex(data));
+			assertArrayEquals(data, BaseCoder.hexToBytes(hex));
+			assertArrayEquals(data, BaseCoder.hexToBytes(hex.toUpperCase()));
+		}
+	}
+
+	@Test
+	public void testBase64() throws Exception {
+		Random random = new Random(2);
+		for (int len = 0; len < 100; len++) {
+			byte[] data = new byte[len];
+			random.nextBytes(data);
+			String base64 = Base64.encodeBase64String(data);
+			assertEquals(base64, BaseCoder.encryptBase64(data));
+			assertArrayEquals(data, BaseCoder.decryptBase64(base64));
+			// 分行、URL 安全格式都能解
+			assertArrayEquals(data, BaseCoder.decryptBase64(Base64.encodeBase64URLSafeString(data)));
+			assertArrayEquals(data, BaseCoder.decryptBase64(BaseCoder.encryptBase64Sun(data)));
+			assertArrayEquals(data, BaseCoder.decryptBase64Sun(BaseCoder.encryptBase64Sun(data)));
+
+			// 编码到指定位置
+			char[] chars = new char[Base64Coder.encodedLength(len) + 3];
+			int n = Base64Coder.encode(data, 0, len, chars, 3, false);
+			assertEquals(base64, new String(chars, 3, n));
+			ByteBuffer direct = ByteBuffer.allocateDirect(Base64Coder.encodedLength(len));
+			Base64Coder.encode(ByteBuffer.wrap(data), direct, true);
+			direct.flip();
+			assertEquals(Base64.encodeBase64URLSafeString(data), stripPadding(direct));
+			direct.rewind();
+			ByteBuffer decoded = ByteBuffer.allocate(len);
+			Base64Coder.decode(direct, decoded);
+			assertArrayEquals(data, decoded.array());
+		}
+		assertNull(BaseCoder.decryptBase64(null));
+	}
+
+	@Test
+	public void testStream() throws Exception {
+		byte[] data = new byte[10000];
+		new Random(3).nextBytes(data);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (OutputStream out = Base64Coder.wrap(bytes)) {
+			out.write(data);
+		}
+		assertEquals(Base64.encodeBase64String(data), bytes.toString("US-ASCII"));
+
+		InputStream in = Base64Coder.wrap(new ByteArrayInputStream(BaseCoder.encryptBase64Sun(data).getBytes("US-ASCII")));
+		ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+		byte[] buffer = new byte[333];
+		int n;
+		while ((n = in.read(buffer)) != -1) decoded.write(buffer, 0, n);
+		assertArrayEquals(data, decoded.toByteArray());
+	}
+
+	private static String stripPadding(ByteBuffer buffer) {
+		StringBuilder sb = new StringBuilder();
+		while (buffer.hasRemaining()) {
+			char c = (char) buffer.get();
+			if (c != '=') sb.append(c);
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,88 @@
+package xyz.yuanwl;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.junit.Test;
+import xyz.yuanwl.util.coder.BaseCoder;
+import xyz.yuanwl.util.coder.DigestEngine;
+import xyz.yuanwl.util.coder.StreamDigester;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>摘要引擎测试，结果要和 commons-codec 的实现一致
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 11:48
+ */
+public class DigestEngineTest {
+
+	@Test
+	public void testDigest() throws Exception {
+		String str = "123456中文😀";
+		assertEquals(DigestUtils.md5Hex(str), BaseCoder.encryptMD5(str));
+		assertEquals(DigestUtils.sha1Hex(str), BaseCoder.encryptSHA(str));
+		assertArrayEquals(DigestUtils.sha256(str),
+				DigestEngine.digest("SHA-256", ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8))));
+
+		// 超过编码缓冲区长度的字符串
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) sb.append("数据").append(i);
+		assertEquals(DigestUtils.md5Hex(sb.toString()), BaseCoder.encryptMD5(sb.toString()));
+	}
+
+	@Test
+	public void testTriMD5() {
+		String str = "111111";
+		assertEquals(DigestUtils.md5Hex(DigestUtils.md5Hex(DigestUtils.md5Hex(str))), BaseCoder.encryptTriMD5(str));
+	}
+
+	@Test
+	public void testHMAC() throws Exception {
+		String key = BaseCoder.initMacKey();
+		byte[] data = "sign".getBytes(StandardCharsets.UTF_8);
+		byte[] expected = new HmacUtils(HmacAlgorithms.HMAC_MD5, BaseCoder.decryptBase64(key)).hmac(data);
+		// 第二次走缓存
+		assertArrayEquals(expected, BaseCoder.encryptHMAC(data, key));
+		assertArrayEquals(expected, BaseCoder.encryptHMAC(data, key));
+		assertArrayEquals(expected, DigestEngine.hmac("HmacMD5", BaseCoder.decryptBase64(key), "sign"));
+	}
+
+	@Test
+	public void testStreamAndFile() throws Exception {
+		byte[] data = new byte[3 * 1024 * 1024 + 17];
+		new Random(1).nextBytes(data);
+		File file = File.createTempFile("digest", ".bin");
+		file.deleteOnExit();
+		Files.write(file.toPath(), data);
+
+		String expected = DigestUtils.md5Hex(data);
+		assertEquals(expected, BaseCoder.encryptMD5(new ByteArrayInputStream(data)));
+		assertEquals(expected, BaseCoder.encryptMD5(file));
+		assertEquals(DigestUtils.sha1Hex(data), BaseCoder.encryptSHA(file));
+		assertArrayEquals(DigestUtils.md5(data),
+				StreamDigester.digest("MD5", Channels.newChannel(new ByteArrayInputStream(data))));
+
+		// 树形摘要 = H(H(块0) || H(块1) || ...)
+		int chunkSize = 1024 * 1024;
+		MessageDigest root = MessageDigest.getInstance("SHA-256");
+		for (int pos = 0; pos < data.length; pos += chunkSize) {
+			root.update(DigestUtils.sha256(Arrays.copyOfRange(data, pos, Math.min(data.length, pos + chunkSize))));
+		}
+		assertArrayEquals(root.digest(),
+				StreamDigester.treeDigest("SHA-256", file.toPath(), chunkSize, ForkJoinPool.commonPool()));
+	}
+
+}
@@ -0,0 +1,125 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.concurrent.ExpiringCodeMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>会过期的短码表测试：取出即删除、到期删除、满了拒绝、扩容缩容后数据不乱
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 04:50
+ */
+public class ExpiringCodeMapTest {
+
+	@Test
+	public void testPutTake() {
+		ExpiringCodeMap map = new ExpiringCodeMap(100, 1, TimeUnit.MINUTES);
+		long id = map.put("a1B2");
+		assertNotEquals(0, id);
+		assertEquals(1, map.size());
+		assertEquals("a1B2", map.peek(id));
+		assertEquals("a1B2", map.take(id));
+		// 只能取一次
+		assertNull(map.take(id));
+		assertNull(map.take(0));
+		assertEquals(0, map.size());
+
+		assertEquals("123456789", map.take(map.put("123456789")));
+		try {
+			map.put("1234567890");
+			fail("超过最大长度应该报错");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testPutBack() {
+		ExpiringCodeMap map = new ExpiringCodeMap(1, 1, TimeUnit.MINUTES);
+		long id = map.put("a1B2");
+		assertEquals("a1B2", map.take(id));
+		assertTrue(map.putBack(id, "a1B2"));
+		assertEquals(1, map.size());
+		// 已经有了不覆盖，也不多占名额
+		assertFalse(map.putBack(id, "c3D4"));
+		assertEquals(1, map.size());
+		assertEquals("a1B2", map.take(id));
+		assertFalse(map.putBack(0, "a1B2"));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	public void testFormatId() {
+		long id = new ExpiringCodeMap(1, 1, TimeUnit.MINUTES).put("x");
+		String text = ExpiringCodeMap.formatId(id);
+		assertEquals(16, text.length());
+		assertEquals(id, ExpiringCodeMap.parseId(text));
+		assertEquals(id, ExpiringCodeMap.parseId(text.toLowerCase()));
+		assertEquals(0, ExpiringCodeMap.parseId("xyz"));
+		assertEquals(0, ExpiringCodeMap.parseId("G000000000000000"));
+		assertEquals(0, ExpiringCodeMap.parseId(null));
+	}
+
+	@Test
+	public void testExpire() throws Exception {
+		ExpiringCodeMap map = new ExpiringCodeMap(100, 100, TimeUnit.MILLISECONDS);
+		long id = map.put("1234");
+		assertEquals("1234", map.peek(id));
+		Thread.sleep(300);
+		assertNull(map.take(id));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	public void testRejectWhenFull() throws Exception {
+		ExpiringCodeMap map = new ExpiringCodeMap(10, 100, TimeUnit.MILLISECONDS);
+		for (int i = 0; i < 10; i++) {
+			map.put("1234");
+		}
+		try {
+			map.put("1234");
+			fail("存满了应该拒绝");
+		} catch (RejectedExecutionException e) {
+			assertEquals(10, map.size());
+		}
+		// 过期之后又能放了
+		Thread.sleep(300);
+		map.put("1234");
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void testGrowAndShrink() {
+		ExpiringCodeMap map = new ExpiringCodeMap(100000, 1, TimeUnit.MINUTES);
+		Map<Long, String> expected = new HashMap<>();
+		for (int i = 0; i < 20000; i++) {
+			String code = Integer.toString(i, 36);
+			expected.put(map.put(code), code);
+		}
+		assertEquals(20000, map.size());
+		// 删掉大部分，触发向后移位和缩容，剩下的要都还能找到
+		int n = 0;
+		for (Map.Entry<Long, String> entry : expected.entrySet()) {
+			if (n++ % 10 != 0) {
+				assertEquals(entry.getValue(), map.take(entry.getKey()));
+			}
+		}
+		assertEquals(2000, map.size());
+		n = 0;
+		for (Map.Entry<Long, String> entry : expected.entrySet()) {
+			if (n++ % 10 == 0) {
+				assertEquals(entry.getValue(), map.take(entry.getKey()));
+			} else {
+				assertNull(map.take(entry.getKey()));
+			}
+		}
+		assertEquals(0, map.size());
+	}
+}
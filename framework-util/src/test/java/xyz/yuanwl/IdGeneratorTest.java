@@ -0,0 +1,101 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.coder.BaseCoder;
+import xyz.yuanwl.util.id.IdGenerator;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>id 生成器测试：递增、多线程不重复、各字段能解出来、UUID 格式、编码
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 05:30
+ */
+public class IdGeneratorTest {
+
+	@Test
+	public void testNextIdIncreasing() {
+		IdGenerator generator = new IdGenerator(5, 4);
+		long before = System.currentTimeMillis();
+		long last = 0;
+		// 远超每毫秒的序号数，会借用后面的时间，但必须一直递增
+		for (int i = 0; i < 1000000; i++) {
+			long id = generator.nextId();
+			assertTrue(id > last);
+			last = id;
+		}
+		assertEquals(5, generator.nodeOf(last));
+		assertTrue(generator.timestampOf(last) >= before);
+	}
+
+	@Test
+	public void testConcurrentUnique() throws Exception {
+		IdGenerator generator = new IdGenerator(0, IdGenerator.DEFAULT_NODE_BITS);
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		int threads = 4, perThread = 50000;
+		CountDownLatch done = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					ids.add(generator.nextId());
+				}
+				done.countDown();
+			}).start();
+		}
+		done.await();
+		assertEquals(threads * perThread, ids.size());
+	}
+
+	@Test
+	public void testUuid() {
+		IdGenerator generator = new IdGenerator(0, 0);
+		UUID last = generator.nextUuid();
+		assertEquals(7, last.version());
+		assertEquals(2, last.variant());
+		for (int i = 0; i < 10000; i++) {
+			UUID uuid = generator.nextUuid();
+			// 高64位（时间戳 + 序号）递增
+			assertTrue(uuid.getMostSignificantBits() > last.getMostSignificantBits());
+			last = uuid;
+		}
+
+		String hex = BaseCoder.createUUID();
+		assertTrue(hex.matches("[0-9A-F]{32}"));
+		assertEquals('7', hex.charAt(12));
+		Set<String> set = new HashSet<>();
+		for (int i = 0; i < 10000; i++) {
+			assertTrue(set.add(BaseCoder.createUUID()));
+		}
+	}
+
+	@Test
+	public void testBase32() {
+		long[] values = { 0, 1, 31, 32, Long.MAX_VALUE, -1, 0x0123456789ABCDEFL };
+		for (long value : values) {
+			String text = IdGenerator.toBase32(value);
+			assertEquals(13, text.length());
+			assertEquals(value, IdGenerator.parseBase32(text));
+			assertEquals(value, IdGenerator.parseBase32(text.toLowerCase()));
+		}
+		// 非负数按字符串比较的顺序和数值一样
+		assertTrue(IdGenerator.toBase32(100).compareTo(IdGenerator.toBase32(1000)) < 0);
+		try {
+			IdGenerator.parseBase32("000000000000U");
+			fail("U 不是 Crockford Base32 字符");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidNode() {
+		new IdGenerator(16, 4);
+	}
+}
@@ -0,0 +1,47 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.coder.KeyPairPool;
+import xyz.yuanwl.util.coder.SignatureScheme;
+
+import java.security.KeyPair;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>预生成密钥对池测试：后台填满、池空现生成、每对只发一次
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 21:30
+ */
+public class KeyPairPoolTest {
+
+	@Test
+	public void testTake() throws Exception {
+		try (KeyPairPool pool = new KeyPairPool("RSA", 512, 2)) {
+			long deadline = System.currentTimeMillis() + 30000;
+			while (pool.size() < 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+			assertEquals(2, pool.size());
+
+			Set<Object> keys = new HashSet<>();
+			for (int i = 0; i < 6; i++) {
+				KeyPair keyPair = pool.take();
+				assertTrue("同一对密钥发了两次", keys.add(keyPair.getPublic()));
+			}
+			assertEquals(6, pool.getHits() + pool.getMisses());
+			assertTrue(pool.getHits() >= 2);
+		}
+	}
+
+	@Test
+	public void testScheme() throws Exception {
+		try (KeyPairPool pool = new KeyPairPool(SignatureScheme.SHA256_WITH_ECDSA, 1)) {
+			assertEquals("EC", pool.take().getPublic().getAlgorithm());
+		}
+	}
+
+}
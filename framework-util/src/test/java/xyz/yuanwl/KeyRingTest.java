@@ -0,0 +1,105 @@
+package xyz.yuanwl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.yuanwl.util.coder.BaseCoder;
+import xyz.yuanwl.util.coder.KeyRing;
+import xyz.yuanwl.util.coder.RSACoder;
+import xyz.yuanwl.util.coder.RSASignature;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>密钥环测试：换密钥后老密文、老签名照样能用，改文件自动重新加载
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 20:50
+ */
+public class KeyRingTest {
+
+	private KeyRing original;
+	private Path dir;
+
+	@Before
+	public void setUp() throws Exception {
+		original = RSACoder.getKeyRing();
+		dir = Files.createTempDirectory("key-ring");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		new RSACoder().setKeyRingFile("");
+		RSACoder.setKeyRing(original);
+		for (Path p : Files.newDirectoryStream(dir)) Files.delete(p);
+		Files.delete(dir);
+	}
+
+	private static KeyPair newKeyPair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(1024);
+		return generator.generateKeyPair();
+	}
+
+	private static String entry(String id, KeyPair keyPair) {
+		return "keys." + id + ".pubKey=" + BaseCoder.encryptBase64(keyPair.getPublic().getEncoded()) + "\n"
+				+ "keys." + id + ".priKey=" + BaseCoder.encryptBase64(keyPair.getPrivate().getEncoded()) + "\n";
+	}
+
+	@Test
+	public void testRotate() throws Exception {
+		// 默认版本没有前缀，和原来的格式一样
+		String legacy = RSACoder.encryptByPubKey("老密文");
+		String legacySign = RSASignature.signToBase64("老数据");
+		assertEquals(-1, legacy.indexOf(KeyRing.ID_SEPARATOR));
+
+		KeyPair v2 = newKeyPair();
+		RSACoder.setKeyRing(original.withVersion(new KeyRing.KeyVersion("v2", v2.getPublic(), v2.getPrivate()))
+				.withActive("v2"));
+
+		String encoded = RSACoder.encryptByPubKey("新密文");
+		assertTrue(encoded.startsWith("v2:"));
+		assertEquals("新密文", RSACoder.decryptByPriKey(encoded));
+		assertEquals("老密文", RSACoder.decryptByPriKey(legacy));
+
+		String sign = RSASignature.signToHex("新数据");
+		assertTrue(sign.startsWith("v2:"));
+		assertTrue(RSASignature.verifyFromHex("新数据", sign));
+		assertTrue(RSASignature.verifyFromBase64("老数据", legacySign));
+
+		try {
+			RSACoder.decryptByPriKey("v9:" + KeyRing.payloadOf(encoded));
+			fail("未知的密钥ID应该报错");
+		} catch (IllegalArgumentException e) {
+			// 正常
+		}
+	}
+
+	@Test
+	public void testReloadFromFile() throws Exception {
+		Path file = dir.resolve("key-ring.properties");
+		KeyPair a = newKeyPair(), b = newKeyPair();
+		Files.write(file, ("active=a\n" + entry("a", a)).getBytes(StandardCharsets.UTF_8));
+		new RSACoder().setKeyRingFile(file.toString());
+		assertEquals("a", RSACoder.getKeyRing().getActiveId());
+		// 文件里没有默认版本，保留原来的
+		assertNotNull(RSACoder.getKeyRing().get(KeyRing.DEFAULT_ID));
+		String encodedByA = RSACoder.encryptByPubKey("数据");
+
+		Files.write(file, ("active=b\n" + entry("a", a) + entry("b", b)).getBytes(StandardCharsets.UTF_8));
+		long deadline = System.currentTimeMillis() + 30000;
+		while (!"b".equals(RSACoder.getKeyRing().getActiveId()) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals("b", RSACoder.getKeyRing().getActiveId());
+		assertTrue(RSACoder.encryptByPubKey("数据").startsWith("b:"));
+		assertEquals("数据", RSACoder.decryptByPriKey(encodedByA));
+	}
+
+}
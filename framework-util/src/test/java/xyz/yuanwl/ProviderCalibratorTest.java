@@ -0,0 +1,89 @@
+package xyz.yuanwl;
+
+import org.junit.After;
+import org.junit.Test;
+import xyz.yuanwl.util.coder.AESCoder;
+import xyz.yuanwl.util.coder.BaseCoder;
+import xyz.yuanwl.util.coder.JceProviders;
+import xyz.yuanwl.util.coder.JceProviders.Type;
+import xyz.yuanwl.util.coder.ProviderCalibrator;
+import xyz.yuanwl.util.coder.ProviderCalibrator.Choice;
+import xyz.yuanwl.util.coder.ProviderCalibrator.Target;
+
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Security;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>JCE Provider 校准测试：选中的 Provider 结果正确，缓存文件能复用，钉住后各编码工具照常工作
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 07:55
+ */
+public class ProviderCalibratorTest {
+
+	@After
+	public void tearDown() {
+		JceProviders.clear();
+	}
+
+	@Test
+	public void testCalibrate() {
+		ProviderCalibrator calibrator = new ProviderCalibrator(5);
+		Choice choice = calibrator.calibrate(new Target(Type.MESSAGE_DIGEST, "SHA-256", 0));
+		assertNotNull(choice);
+		assertTrue(choice.getOpsPerSecond().containsKey(choice.getDefaultProvider()));
+		assertTrue(choice.getOpsPerSecond().containsKey(choice.getProvider()));
+		assertNull(calibrator.calibrate(new Target(Type.MESSAGE_DIGEST, "NO-SUCH-DIGEST", 0)));
+	}
+
+	@Test
+	public void testCacheAndPin() throws Exception {
+		Path cacheFile = Files.createTempFile("jce-providers", ".properties");
+		Files.delete(cacheFile);
+		try {
+			Map<String, String> choices = new ProviderCalibrator(5).calibrateAndPin(cacheFile);
+			assertEquals(ProviderCalibrator.defaultTargets().size(), choices.size());
+			assertTrue(Files.isRegularFile(cacheFile));
+			for (String provider : choices.values()) {
+				assertNotNull(Security.getProvider(provider));
+			}
+
+			// 改掉缓存里的一项，指纹不变时应该原样读回来，不会重新校准
+			Properties properties = new Properties();
+			try (InputStream in = Files.newInputStream(cacheFile)) {
+				properties.load(in);
+			}
+			properties.setProperty("MessageDigest.MD5", "SUN");
+			try (OutputStream out = Files.newOutputStream(cacheFile)) {
+				properties.store(out, null);
+			}
+			JceProviders.clear();
+			choices = new ProviderCalibrator(5).calibrateAndPin(cacheFile);
+			assertEquals("SUN", choices.get("MessageDigest.MD5"));
+			assertEquals("SUN", JceProviders.getPinned().get("MessageDigest.MD5"));
+
+			// 钉住后照常工作
+			assertEquals(20, BaseCoder.encryptSHA("abc".getBytes()).length);
+			SecretKey key = AESCoder.generateKey(AESCoder.DEFAULT_KEY_SIZE);
+			assertArrayEquals("abc".getBytes(), AESCoder.decrypt(key, AESCoder.encrypt(key, "abc".getBytes(), null), null));
+		} finally {
+			Files.deleteIfExists(cacheFile);
+		}
+	}
+
+	@Test
+	public void testPin() throws Exception {
+		JceProviders.pin(Type.MESSAGE_DIGEST, "MD5", Security.getProvider("SUN"));
+		assertEquals("SUN", JceProviders.messageDigest("MD5").getProvider().getName());
+		JceProviders.pin(Type.MESSAGE_DIGEST, "MD5", null);
+		assertNull(JceProviders.pinned(Type.MESSAGE_DIGEST, "MD5"));
+	}
+}
@@ -0,0 +1,59 @@
+package xyz.yuanwl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import xyz.yuanwl.util.coder.AESCoder;
+import xyz.yuanwl.util.coder.RSACoder;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.SecretKey;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>会话密钥信封测试：公钥包装 AES 密钥 >> 私钥解开 >> AES-GCM 加密解密
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 16:20
+ */
+@Slf4j
+public class SessionKeyTest {
+
+	@BeforeClass
+	public static void initKeys() throws Exception {
+		TestKeys.useRandomKeyPair();
+	}
+
+	@AfterClass
+	public static void restoreKeys() {
+		TestKeys.restore();
+	}
+
+	@Test
+	public void testEnvelope() throws Exception {
+		SecretKey clientKey = AESCoder.generateKey(AESCoder.DEFAULT_KEY_SIZE);
+		String wrapped = RSACoder.wrapSessionKey(clientKey);
+		SecretKey serverKey = RSACoder.unwrapSessionKey(wrapped);
+		assertArrayEquals(clientKey.getEncoded(), serverKey.getEncoded());
+
+		// 超过 RSA 117 字节限制的数据
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) sb.append("密码").append(i);
+		String encoded = RSACoder.encryptBySessionKey(clientKey, sb.toString());
+		log.info("密文：{}", encoded);
+		assertEquals(sb.toString(), RSACoder.decryptBySessionKey(serverKey, encoded));
+		// 每次 IV 都不一样
+		assertNotEquals(encoded, RSACoder.encryptBySessionKey(clientKey, sb.toString()));
+	}
+
+	@Test(expected = AEADBadTagException.class)
+	public void testTampered() throws Exception {
+		SecretKey key = AESCoder.generateKey(AESCoder.DEFAULT_KEY_SIZE);
+		byte[] encoded = AESCoder.encrypt(key, "222222".getBytes("UTF-8"), null);
+		encoded[encoded.length - 1] ^= 1;
+		AESCoder.decrypt(key, encoded, null);
+	}
+
+}
@@ -0,0 +1,106 @@
+package xyz.yuanwl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import xyz.yuanwl.util.coder.RSASignature;
+import xyz.yuanwl.util.coder.SignedData;
+import xyz.yuanwl.util.coder.VerifyCache;
+
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>批量签名 >> 批量验签测试，顺便打印每核吞吐量；验签结果缓存测试
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 17:30
+ */
+@Slf4j
+public class SignatureBatchTest {
+
+	@BeforeClass
+	public static void initKeys() throws Exception {
+		TestKeys.useRandomKeyPair();
+	}
+
+	@AfterClass
+	public static void restoreKeys() {
+		TestKeys.restore();
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		int n = 2000;
+		List<String> data = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) data.add("对账记录" + i);
+
+		long start = System.nanoTime();
+		List<String> signs = RSASignature.signToBase64Batch(data);
+		long signNanos = System.nanoTime() - start;
+		assertEquals(n, signs.size());
+		assertEquals(RSASignature.signToBase64(data.get(7)), signs.get(7));
+		// 不能按下标随机访问的集合也按原顺序
+		assertEquals(signs.subList(0, 50), RSASignature.signToBase64Batch(new LinkedList<>(data.subList(0, 50))));
+
+		List<SignedData> items = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) items.add(new SignedData(data.get(i), signs.get(i)));
+		// 篡改一条
+		items.get(10).setData("被篡改");
+		items.get(11).setSigned("不是签名");
+
+		start = System.nanoTime();
+		boolean[] result = RSASignature.verifyFromBase64Batch(items);
+		long verifyNanos = System.nanoTime() - start;
+		for (int i = 0; i < n; i++) {
+			assertEquals("第" + i + "条", i != 10 && i != 11, result[i]);
+		}
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		log.info("批量签名：{} 条/秒/核，批量验签：{} 条/秒/核（{}核）", n * 1e9 / signNanos / cores,
+				n * 1e9 / verifyNanos / cores, cores);
+		log.info("{}", RSASignature.getSignaturePool());
+	}
+
+	@Test
+	public void testVerifyCache() throws Exception {
+		RSASignature.enableVerifyCache(1000, 10, TimeUnit.MINUTES);
+		try {
+			String sign = RSASignature.signToBase64("重复发送的数据");
+			for (int i = 0; i < 5; i++) {
+				assertTrue(RSASignature.verifyFromBase64("重复发送的数据", sign));
+				assertFalse(RSASignature.verifyFromBase64("重复发送的数据!", sign));
+			}
+			VerifyCache cache = RSASignature.getVerifyCache();
+			assertEquals(2, cache.getMisses());
+			assertEquals(8, cache.getHits());
+		} finally {
+			RSASignature.disableVerifyCache();
+		}
+	}
+
+	@Test
+	public void testVerifyCacheEncoding() throws Exception {
+		RSASignature.enableVerifyCache(1000, 10, TimeUnit.MINUTES);
+		try {
+			// 16进制签名字符串也是合法的Base64，但按Base64解出来是另一个签名，缓存不能把16进制的结果拿来用
+			String hex = RSASignature.signToHex("数据");
+			assertTrue(RSASignature.verifyFromHex("数据", hex));
+			try {
+				assertFalse(RSASignature.verifyFromBase64("数据", hex));
+			} catch (SignatureException e) {
+				// 解出来长度不对，和没开缓存时一样直接报错，也算没通过
+			}
+			assertTrue(RSASignature.verifyFromHex("数据", hex));
+		} finally {
+			RSASignature.disableVerifyCache();
+		}
+	}
+
+}
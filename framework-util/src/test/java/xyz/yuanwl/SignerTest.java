@@ -0,0 +1,52 @@
+package xyz.yuanwl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import xyz.yuanwl.util.coder.BaseCoder;
+import xyz.yuanwl.util.coder.SignatureScheme;
+import xyz.yuanwl.util.coder.Signer;
+
+import java.security.KeyPair;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>各签名方案的签名 >> 验签测试，顺便比较签名耗时
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 19:45
+ */
+@Slf4j
+public class SignerTest {
+
+	@Test
+	public void testSchemes() throws Exception {
+		for (SignatureScheme scheme : SignatureScheme.values()) {
+			KeyPair keyPair = scheme.generateKeyPair();
+			Signer signer = Signer.of(scheme, keyPair);
+
+			String sign = signer.signToBase64("对账记录");
+			assertTrue(scheme.name(), signer.verifyFromBase64("对账记录", sign));
+			assertFalse(scheme.name(), signer.verifyFromBase64("对账记录!", sign));
+			assertTrue(scheme.name(), signer.verifyFromHex("对账记录", signer.signToHex("对账记录")));
+
+			// 从 Base64 密钥还原出来的签名器能验原来的签名
+			Signer restored = Signer.fromBase64(scheme, BaseCoder.encryptBase64(keyPair.getPrivate().getEncoded()),
+					BaseCoder.encryptBase64(keyPair.getPublic().getEncoded()));
+			assertTrue(scheme.name(), restored.verifyFromBase64("对账记录", sign));
+
+			int n = 200;
+			long start = System.nanoTime();
+			for (int i = 0; i < n; i++) signer.sign(("数据" + i).getBytes("UTF-8"));
+			log.info("{}：签名 {} 微秒/次，签名长度 {} 字节", scheme, (System.nanoTime() - start) / 1000 / n,
+					signer.sign(new byte[0]).length);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testVerifyOnly() throws Exception {
+		KeyPair keyPair = SignatureScheme.SHA256_WITH_ECDSA.generateKeyPair();
+		new Signer(SignatureScheme.SHA256_WITH_ECDSA, null, keyPair.getPublic()).signToBase64("数据");
+	}
+
+}
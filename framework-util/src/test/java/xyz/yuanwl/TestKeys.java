@@ -0,0 +1,41 @@
+package xyz.yuanwl;
+
+import xyz.yuanwl.util.coder.KeyRing;
+import xyz.yuanwl.util.coder.RSACoder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Collections;
+
+/**
+ * <p>测试用密钥：临时把 RSACoder 的默认密钥换成随机生成的一对，测试完换回原来的密钥环，
+ * 免得影响同一个 JVM 里跑的其他测试。在 @BeforeClass 里调 {@link #useRandomKeyPair()}，@AfterClass 里调 {@link #restore()}
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 09:40
+ */
+final class TestKeys {
+
+	private static KeyRing original;
+
+	private TestKeys() {
+	}
+
+	static synchronized void useRandomKeyPair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(1024);
+		KeyPair keyPair = generator.generateKeyPair();
+		if (original == null) {
+			original = RSACoder.getKeyRing();
+		}
+		RSACoder.setKeyRing(new KeyRing(KeyRing.DEFAULT_ID, Collections.singleton(
+				new KeyRing.KeyVersion(KeyRing.DEFAULT_ID, keyPair.getPublic(), keyPair.getPrivate()))));
+	}
+
+	static synchronized void restore() {
+		if (original != null) {
+			RSACoder.setKeyRing(original);
+			original = null;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.coder.BaseCoder;
+import xyz.yuanwl.util.id.TokenGenerator;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>令牌生成器测试：字符来自字母表、分布大致均匀、跨缓存块取数、不重复
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 06:20
+ */
+public class TokenGeneratorTest {
+
+	@Test
+	public void testAlphabets() {
+		TokenGenerator generator = new TokenGenerator(2);
+		assertTrue(generator.numeric(20).matches("[0-9]{20}"));
+		assertTrue(generator.alphanumeric(20).matches("[0-9A-Za-z]{20}"));
+		assertTrue(generator.urlSafe(20).matches("[0-9A-Za-z_-]{20}"));
+		assertEquals("", generator.numeric(0));
+		assertTrue(BaseCoder.createRandom(6).matches("[0-9]{6}"));
+		// 比缓存块大的令牌
+		assertTrue(generator.urlSafe(5000).matches("[0-9A-Za-z_-]{5000}"));
+	}
+
+	@Test
+	public void testUniform() {
+		// 10个数字，每个出现的次数应该在平均值附近
+		int n = 100000;
+		int[] counts = new int[10];
+		for (char c : new TokenGenerator(1).numeric(n).toCharArray()) {
+			counts[c - '0']++;
+		}
+		for (int count : counts) {
+			assertTrue(String.valueOf(count), Math.abs(count - n / 10) < n / 100);
+		}
+	}
+
+	@Test
+	public void testUnique() {
+		TokenGenerator generator = TokenGenerator.getDefault();
+		Set<String> tokens = new HashSet<>();
+		Set<Long> longs = new HashSet<>();
+		for (int i = 0; i < 10000; i++) {
+			assertTrue(tokens.add(generator.urlSafe(16)));
+			assertTrue(longs.add(generator.nextLong()));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyAlphabet() {
+		TokenGenerator.getDefault().next(new char[0], 4);
+	}
+}
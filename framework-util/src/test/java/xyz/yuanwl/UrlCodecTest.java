@@ -0,0 +1,106 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.coder.BaseCoder;
+import xyz.yuanwl.util.coder.UrlCodec;
+import xyz.yuanwl.util.coder.UrlCodec.Mode;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>URL 编码解码测试：QUERY 模式和 URLEncoder/URLDecoder 结果一致，PATH 模式能还原，不需要转义时返回原字符串
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 07:10
+ */
+public class UrlCodecTest {
+
+	private static final String[] SAMPLES = { "", "abc-123_.*", "a b+c", "中文 参数", "a/b?c=d&e=f#g", "~!@$'()",
+			"emoji😀end", "lone\uD800surrogate", "\uDC00", "%41" };
+
+	@Test
+	public void testQueryMatchesJdk() throws Exception {
+		Random random = new Random(1);
+		String[] randoms = new String[200];
+		for (int i = 0; i < randoms.length; i++) {
+			char[] chars = new char[random.nextInt(20)];
+			for (int j = 0; j < chars.length; j++) {
+				// 一半 ASCII，一半任意字符（包括落单的代理字符）
+				chars[j] = (char) (random.nextBoolean() ? random.nextInt(128) : random.nextInt(0x10000));
+			}
+			randoms[i] = new String(chars);
+		}
+		for (String[] samples : new String[][] { SAMPLES, randoms }) {
+			for (String s : samples) {
+				String encoded = URLEncoder.encode(s, "UTF-8");
+				assertEquals(encoded, UrlCodec.encode(s));
+				assertEquals(encoded, BaseCoder.encodeURL(s));
+				assertEquals(URLDecoder.decode(encoded, "UTF-8"), UrlCodec.decode(encoded));
+				assertEquals(URLDecoder.decode(encoded, "UTF-8"), BaseCoder.decodeURL(encoded));
+			}
+		}
+		// 不合法的 UTF-8 字节
+		for (String s : new String[] { "%FF", "%C3", "%E4%B8", "%ED%A0%80", "%F0%9F%98", "a%C3%28b" }) {
+			assertEquals(URLDecoder.decode(s, "UTF-8"), UrlCodec.decode(s));
+		}
+	}
+
+	@Test
+	public void testPassThrough() {
+		String s = "plain-text_123";
+		assertSame(s, UrlCodec.encode(s));
+		assertSame(s, UrlCodec.decode(s));
+		String path = "a+b:c@d";
+		assertSame(path, UrlCodec.encode(path, Mode.PATH));
+		assertSame(path, UrlCodec.decode(path, Mode.PATH));
+		assertFalse(UrlCodec.needsEncoding(s, Mode.QUERY));
+		assertTrue(UrlCodec.needsEncoding("a b", Mode.QUERY));
+	}
+
+	@Test
+	public void testPath() {
+		assertEquals("a%20b+c%2Fd~", UrlCodec.encode("a b+c/d~", Mode.PATH));
+		assertEquals("a b+c/d~", UrlCodec.decode("a%20b+c%2Fd~", Mode.PATH));
+		for (String s : SAMPLES) {
+			if (s.indexOf('\uD800') < 0 && !s.equals("\uDC00")) {
+				assertEquals(s, UrlCodec.decode(UrlCodec.encode(s, Mode.PATH), Mode.PATH));
+			}
+		}
+	}
+
+	@Test
+	public void testBuffers() {
+		StringBuilder sb = new StringBuilder("q=");
+		UrlCodec.encode("中 文", Mode.QUERY, sb).append("&p=");
+		UrlCodec.encode("x", Mode.QUERY, sb);
+		assertEquals("q=%E4%B8%AD+%E6%96%87&p=x", sb.toString());
+
+		ByteBuffer bytes = ByteBuffer.allocate(64);
+		int n = UrlCodec.encode("中 文", Mode.QUERY, bytes);
+		assertEquals("%E4%B8%AD+%E6%96%87", new String(bytes.array(), 0, n, StandardCharsets.US_ASCII));
+
+		CharBuffer chars = CharBuffer.allocate(16);
+		UrlCodec.decode("%E4%B8%AD+%E6%96%87", Mode.QUERY, chars);
+		chars.flip();
+		assertEquals("中 文", chars.toString());
+
+		assertEquals("ab中", UrlCodec.decode("b%E4%B8%AD", Mode.QUERY, new StringBuilder("a")).toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalEscape() {
+		UrlCodec.decode("a%2");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalHex() {
+		UrlCodec.decode("a%zz");
+	}
+}
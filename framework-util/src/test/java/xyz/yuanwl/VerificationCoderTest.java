@@ -0,0 +1,48 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.coder.VerificationCoder;
+
+import java.security.SecureRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>验证码字符串生成测试：字符只能来自对应类型的字母表，排除字符不能出现
+ *
+ * @author Yuanwl
+ * @date 2026/10/18 00:40
+ */
+public class VerificationCoderTest {
+
+	@Test
+	public void testTextCode() throws Exception {
+		String[] patterns = { "[0-9]", "[A-Za-z]", "[0-9A-Za-z]", "[0-9A-Z]", "[0-9a-z]", "[A-Z]", "[a-z]" };
+		for (int type = VerificationCoder.TYPE_NUM_ONLY; type <= VerificationCoder.TYPE_LOWER_ONLY; type++) {
+			for (String code : VerificationCoder.generateTextCodes(type, 6, null, 200, null)) {
+				assertTrue(code, code.matches(patterns[type] + "{6}"));
+				// 默认排除的字符
+				assertFalse(code, code.matches(".*[1iIlL0oO2zZ9gG].*"));
+			}
+		}
+		assertEquals("", VerificationCoder.generateTextCode(VerificationCoder.TYPE_NUM_ONLY, 0, null));
+		assertEquals("", VerificationCoder.generateTextCode(99, 4, null));
+	}
+
+	@Test
+	public void testExclude() throws Exception {
+		char[] alphabet = VerificationCoder.alphabet(VerificationCoder.TYPE_NUM_ONLY, "0,1,2,7,8,9");
+		assertArrayEquals("3456".toCharArray(), alphabet);
+		// 返回的是副本，改了不影响缓存
+		alphabet[0] = '0';
+		assertArrayEquals("3456".toCharArray(), VerificationCoder.alphabet(VerificationCoder.TYPE_NUM_ONLY, "0,1,2,7,8,9"));
+		String code = VerificationCoder.generateTextCode(VerificationCoder.TYPE_NUM_ONLY, 50, "0123456789".replace("5", ""),
+				new SecureRandom());
+		assertEquals("55555555555555555555555555555555555555555555555555", code);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAllExcluded() throws Exception {
+		VerificationCoder.generateTextCode(VerificationCoder.TYPE_NUM_ONLY, 4, "0123456789");
+	}
+}
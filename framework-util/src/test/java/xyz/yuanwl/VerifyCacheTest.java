@@ -0,0 +1,74 @@
+package xyz.yuanwl;
+
+import org.junit.Test;
+import xyz.yuanwl.util.coder.VerifyCache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>验签结果缓存测试：命中、过期、抗扫描、容量上限
+ *
+ * @author Yuanwl
+ * @date 2026/10/17 18:40
+ */
+public class VerifyCacheTest {
+
+	private static final byte[] KEY_ID = { 1, 2, 3 };
+
+	private static VerifyCache.Key key(int i) {
+		return VerifyCache.key(KEY_ID, ("data" + i).getBytes(StandardCharsets.UTF_8), ("sign" + i).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testHitAndExpire() throws Exception {
+		VerifyCache cache = new VerifyCache(100, 50, TimeUnit.MILLISECONDS);
+		assertNull(cache.get(key(1)));
+		cache.put(key(1), true);
+		cache.put(key(2), false);
+		assertEquals(Boolean.TRUE, cache.get(key(1)));
+		assertEquals(Boolean.FALSE, cache.get(key(2)));
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		Thread.sleep(80);
+		assertNull(cache.get(key(1)));
+		assertEquals(1, cache.getExpirations());
+	}
+
+	@Test
+	public void testScanResistant() {
+		VerifyCache cache = new VerifyCache(16 * 10, 1, TimeUnit.HOURS);
+		// 热点数据命中两次，升到保护区
+		for (int i = 0; i < 40; i++) {
+			cache.put(key(i), true);
+			cache.get(key(i));
+		}
+		// 大量只出现一次的数据扫过
+		for (int i = 1000; i < 10000; i++) {
+			cache.put(key(i), true);
+		}
+		int survived = 0;
+		for (int i = 0; i < 40; i++) {
+			if (cache.get(key(i)) != null) survived++;
+		}
+		assertTrue("热点数据被扫描冲掉了：" + survived, survived > 30);
+		assertTrue(cache.size() <= cache.getMaxSize());
+	}
+
+	@Test
+	public void testSizeBound() {
+		// 除不尽、比分段数小的容量也不能超
+		for (int maxSize : new int[] { 1, 3, 15, 17, 100 }) {
+			VerifyCache cache = new VerifyCache(maxSize, 1, TimeUnit.HOURS);
+			for (int i = 0; i < maxSize * 20; i++) {
+				cache.put(key(i), true);
+				assertTrue(maxSize + "：" + cache.size(), cache.size() <= maxSize);
+			}
+			// 分段之间不会完全均匀，但至少大部分容量要用得上
+			assertTrue(maxSize + "：" + cache.size(), cache.size() > maxSize / 2);
+		}
+	}
+}